@@ -0,0 +1,56 @@
+package com.example.accountservice.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.accountservice.type.TransactionResultType.SUCCESS;
+import static com.example.accountservice.type.TransactionType.USE;
+
+/**
+ * 잔액 사용 응답의 DTO 변환과 JSON 직렬화 비용을 잰다.
+ * ObjectMapper 는 Spring MVC 와 같은 빌더로 만든다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CreateBalanceResponseBenchmark {
+
+    private ObjectMapper objectMapper;
+    private TransactionDto transactionDto;
+    private CreateBalance.Response response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        transactionDto = TransactionDto.builder()
+                .accountNumber("1000000000")
+                .transactionType(USE)
+                .transactionResultType(SUCCESS)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactionId("2vh5Rz3W5o")
+                .transactedAt(LocalDateTime.of(2022, 9, 1, 10, 0))
+                .build();
+        response = CreateBalance.Response.toResponse(transactionDto);
+    }
+
+    @Benchmark
+    public CreateBalance.Response toResponse() {
+        return CreateBalance.Response.toResponse(transactionDto);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] toResponseAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(CreateBalance.Response.toResponse(transactionDto));
+    }
+}
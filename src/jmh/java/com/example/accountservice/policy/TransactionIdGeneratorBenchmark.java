@@ -0,0 +1,38 @@
+package com.example.accountservice.policy;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 거래 id 생성기의 단일 스레드, 경합 상황 처리량을 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionIdGeneratorBenchmark {
+
+    @Param({"default", "snowflake"})
+    private String generator;
+
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Setup
+    public void setUp() {
+        transactionIdGenerator = "snowflake".equals(generator)
+                ? new SnowflakeTransactionIdGenerator(0)
+                : new DefaultTransactionIdGenerator();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String generate() {
+        return transactionIdGenerator.generate();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String generateContended() {
+        return transactionIdGenerator.generate();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.exception.AccountExceptionFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 임베디드 Redis 를 띄워 계좌 락 획득/해제 지연을 잰다.
+ * accounts 가 1 이면 모든 스레드가 같은 계좌를 두고 경합한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LockServiceBenchmark {
+
+    private static final int REDIS_PORT = 6390;
+
+    @Param({"distributed", "local-only"})
+    private String mode;
+
+    @Param({"1", "1024"})
+    private int accounts;
+
+    private RedisServer redisServer;
+    private RedissonClient redissonClient;
+    private LockService lockService;
+    private String[] accountNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        redisServer = RedisServer.builder()
+                .port(REDIS_PORT)
+                .setting("maxmemory 128M")
+                .build();
+        redisServer.start();
+
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://localhost:" + REDIS_PORT);
+        redissonClient = Redisson.create(config);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        lockService = new LockService(redissonClient, new HotAccountTracker(meterRegistry, 20, 2048, 60, 1_000_000),
+                meterRegistry, new AccountExceptionFactory(true), mode);
+
+        accountNumbers = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            accountNumbers[i] = String.valueOf(1_000_000_000L + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        redissonClient.shutdown();
+        redisServer.stop();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void lockUnlock() {
+        lockAndUnlock();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void lockUnlockContended() {
+        lockAndUnlock();
+    }
+
+    private void lockAndUnlock() {
+        String accountNumber = accountNumbers[ThreadLocalRandom.current().nextInt(accountNumbers.length)];
+        lockService.lock(accountNumber);
+        lockService.unlock(accountNumber);
+    }
+}
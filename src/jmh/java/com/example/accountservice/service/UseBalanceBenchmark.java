@@ -0,0 +1,85 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.AccountServiceApplication;
+import com.example.accountservice.dto.AccountDto;
+import com.example.accountservice.dto.TransactionDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * H2 위에서 TransactionService.useBalance 처리량을 잰다.
+ * hot 분포는 요청의 90% 를 한 계좌로 보내 행 잠금 경합을 만든다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UseBalanceBenchmark {
+
+    private static final long[] USER_IDS = {1L, 2L};
+    private static final int ACCOUNTS_PER_USER = 10;
+    private static final int HOT_PERCENT = 90;
+
+    @Param({"uniform", "hot"})
+    private String skew;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private long[] userIds;
+    private String[] accountNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(AccountServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.redis.port=6391",
+                        "logging.level.com.example.accountservice=warn")
+                .run();
+        transactionService = context.getBean(TransactionService.class);
+        AccountService accountService = context.getBean(AccountService.class);
+
+        userIds = new long[USER_IDS.length * ACCOUNTS_PER_USER];
+        accountNumbers = new String[userIds.length];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = USER_IDS[i / ACCOUNTS_PER_USER];
+            AccountDto account = accountService.createAccount(userIds[i], Long.MAX_VALUE / 2);
+            accountNumbers[i] = account.getAccountNumber();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public TransactionDto useBalance1Thread() {
+        return useBalance();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public TransactionDto useBalance4Threads() {
+        return useBalance();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public TransactionDto useBalance16Threads() {
+        return useBalance();
+    }
+
+    private TransactionDto useBalance() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = "hot".equals(skew) && random.nextInt(100) < HOT_PERCENT
+                ? 0
+                : random.nextInt(accountNumbers.length);
+        return transactionService.useBalance(userIds[index], accountNumbers[index], 1L);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.AccountServiceApplication;
+import com.example.accountservice.config.VirtualThreads;
+import com.example.accountservice.dto.AccountDto;
+import com.example.accountservice.exception.AccountException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 경로(분산 락 획득, useBalance, 락 해제)를 동시에 REQUESTS 건 실행해 스레드 모델별 처리량을 비교한다.
+ * platform 은 Tomcat 기본 최대 스레드 수와 같은 고정 풀, virtual 은 요청마다 virtual thread 를 쓴다.
+ * 두 모드 모두 application-virtual-threads.yml 과 같은 커넥션 풀 크기로 실행한다.
+ * virtual 은 JDK 21 이상에서만 실행되며, 그 미만에서는 -p mode=platform 으로 실행한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class VirtualThreadBenchmark {
+
+    private static final long[] USER_IDS = {1L, 2L};
+    private static final int ACCOUNTS_PER_USER = 10;
+    private static final int PLATFORM_THREADS = 200;
+    private static final int REQUESTS = 1000;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private LockService lockService;
+    private TransactionService transactionService;
+    private ExecutorService executor;
+    private long[] userIds;
+    private String[] accountNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "virtual".equals(mode)
+                ? VirtualThreads.newPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+        context = new SpringApplicationBuilder(AccountServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.redis.port=6392",
+                        "spring.datasource.hikari.maximum-pool-size=64",
+                        "account.redis.connection-pool-size=128",
+                        "account.redis.subscription-connection-pool-size=128",
+                        "logging.level.com.example.accountservice=off")
+                .run();
+        lockService = context.getBean(LockService.class);
+        transactionService = context.getBean(TransactionService.class);
+        AccountService accountService = context.getBean(AccountService.class);
+
+        userIds = new long[USER_IDS.length * ACCOUNTS_PER_USER];
+        accountNumbers = new String[userIds.length];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = USER_IDS[i / ACCOUNTS_PER_USER];
+            AccountDto account = accountService.createAccount(userIds[i], Long.MAX_VALUE / 2);
+            accountNumbers[i] = account.getAccountNumber();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        context.close();
+    }
+
+    /**
+     * 락을 얻지 못한 요청은 실패 건수로 돌려준다.
+     */
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public int lockedUseBalance() throws InterruptedException, ExecutionException {
+        List<Future<Boolean>> futures = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            int index = i % accountNumbers.length;
+            futures.add(executor.submit(() -> useBalance(index)));
+        }
+        int failures = 0;
+        for (Future<Boolean> future : futures) {
+            if (!future.get()) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    private boolean useBalance(int index) {
+        try {
+            lockService.lock(accountNumbers[index]);
+        } catch (AccountException e) {
+            return false;
+        }
+        try {
+            transactionService.useBalance(userIds[index], accountNumbers[index], 1L);
+            return true;
+        } finally {
+            lockService.unlock(accountNumbers[index]);
+        }
+    }
+}
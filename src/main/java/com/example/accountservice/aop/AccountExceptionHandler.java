@@ -3,49 +3,89 @@ package com.example.accountservice.aop;
 import com.example.accountservice.controller.AccountController;
 import com.example.accountservice.dto.ErrorResponse;
 import com.example.accountservice.exception.AccountException;
+import com.example.accountservice.jfr.AccountErrorEvent;
+import com.example.accountservice.type.ErrorCode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.util.EnumMap;
+import java.util.Map;
 
 import static com.example.accountservice.type.ErrorCode.INVALID_REQUEST;
 import static com.example.accountservice.type.ErrorCode.SERVER_ERROR;
 
+/**
+ * 오류 응답 본문은 ErrorCode 별로 한 번만 직렬화해 두고 그대로 내려준다.
+ * 비즈니스 오류 로그는 ErrorCode 별로 초당 건수를 제한한다.
+ */
 @Slf4j
 @RestControllerAdvice(basePackageClasses = {AccountController.class})
 public class AccountExceptionHandler {
 
+    private final Map<ErrorCode, byte[]> errorBodies = new EnumMap<>(ErrorCode.class);
+    private final ErrorLogSampler errorLogSampler;
+
+    public AccountExceptionHandler(ObjectMapper objectMapper,
+                                   @Value("${account.error.log-per-second:10}") int logPerSecond)
+            throws JsonProcessingException {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            errorBodies.put(errorCode, objectMapper.writeValueAsBytes(ErrorResponse.builder()
+                    .errorCode(errorCode)
+                    .errorMessage(errorCode.getDescription())
+                    .build()));
+        }
+        this.errorLogSampler = new ErrorLogSampler(logPerSecond);
+    }
+
     @ExceptionHandler(AccountException.class)
-    public ResponseEntity<ErrorResponse> accountExceptionHandler(AccountException e) {
-        log.error("accountException {}, {}", e.getErrorCode(), e.getErrorMessage());
-        return ResponseEntity
-                .status(HttpStatus.BAD_REQUEST)
-                .body(getErrorResponse(e));
+    public ResponseEntity<byte[]> accountExceptionHandler(AccountException e) {
+        long suppressed = errorLogSampler.sample(e.getErrorCode());
+        if (suppressed != ErrorLogSampler.SUPPRESSED) {
+            log.error("accountException {}, {}, suppressed : {}", e.getErrorCode(), e.getErrorMessage(), suppressed);
+        }
+        return getErrorResponse(HttpStatus.BAD_REQUEST, e.getErrorCode(), e);
     }
 
 
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<ErrorResponse> methodArgumentNotValidExceptionHandler(MethodArgumentNotValidException e) {
-        log.error("methodArgumentNotValidException : ", e);
-        return ResponseEntity
-                .status(HttpStatus.BAD_REQUEST)
-                .body(getErrorResponse(new AccountException(INVALID_REQUEST)));
+    @ExceptionHandler({MethodArgumentNotValidException.class, BindException.class})
+    public ResponseEntity<byte[]> methodArgumentNotValidExceptionHandler(BindException e) {
+        long suppressed = errorLogSampler.sample(INVALID_REQUEST);
+        if (suppressed != ErrorLogSampler.SUPPRESSED) {
+            log.error("methodArgumentNotValidException, suppressed : {}", suppressed, e);
+        }
+        return getErrorResponse(HttpStatus.BAD_REQUEST, INVALID_REQUEST, e);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<byte[]> webExchangeBindExceptionHandler(WebExchangeBindException e) {
+        long suppressed = errorLogSampler.sample(INVALID_REQUEST);
+        if (suppressed != ErrorLogSampler.SUPPRESSED) {
+            log.error("webExchangeBindException, suppressed : {}", suppressed, e);
+        }
+        return getErrorResponse(HttpStatus.BAD_REQUEST, INVALID_REQUEST, e);
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<ErrorResponse> exceptionHandler(Exception e) {
+    public ResponseEntity<byte[]> exceptionHandler(Exception e) {
         log.error("exception : ", e);
-        return ResponseEntity
-                .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(getErrorResponse(new AccountException(SERVER_ERROR)));
+        return getErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, SERVER_ERROR, e);
     }
 
-    private ErrorResponse getErrorResponse(AccountException e) {
-        return ErrorResponse.builder()
-                .errorCode(e.getErrorCode())
-                .errorMessage(e.getErrorMessage())
-                .build();
+    private ResponseEntity<byte[]> getErrorResponse(HttpStatus status, ErrorCode errorCode, Exception cause) {
+        AccountErrorEvent.emit(errorCode.name(), cause);
+        return ResponseEntity
+                .status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorBodies.get(errorCode));
     }
 }
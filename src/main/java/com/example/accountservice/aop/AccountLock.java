@@ -8,4 +8,10 @@ import java.lang.annotation.*;
 @Inherited
 public @interface AccountLock {
     long tryLockTime() default 5000L;
+
+    LockStrategy strategy() default LockStrategy.PESSIMISTIC;
+
+    int maxRetries() default 3;
+
+    long retryBackoffMillis() default 10L;
 }
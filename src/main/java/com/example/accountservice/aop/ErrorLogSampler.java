@@ -0,0 +1,48 @@
+package com.example.accountservice.aop;
+
+import com.example.accountservice.type.ErrorCode;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ErrorCode 별로 1초에 정해진 건수까지만 로그를 남기고 나머지는 건수만 센다.
+ * 창(초)과 그 창의 건수를 long 하나에 묶어 CAS 로 함께 바꾸므로 창이 바뀌는 순간에도 건수를 잃지 않는다.
+ */
+class ErrorLogSampler {
+
+    static final long SUPPRESSED = -1L;
+
+    private final int permitsPerSecond;
+    // 상위 32비트는 창, 하위 32비트는 그 창에서 센 건수
+    private final AtomicLongArray windowCounts = new AtomicLongArray(ErrorCode.values().length);
+    private final AtomicLongArray suppressed = new AtomicLongArray(ErrorCode.values().length);
+
+    ErrorLogSampler(int permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    /**
+     * 로그를 남겨도 되면 그동안 생략된 건수를, 생략해야 하면 SUPPRESSED 를 돌려준다.
+     */
+    long sample(ErrorCode errorCode) {
+        int index = errorCode.ordinal();
+        int window = (int) TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        while (true) {
+            long current = windowCounts.get(index);
+            int currentWindow = (int) (current >>> 32);
+            if (currentWindow - window > 0) {
+                // 다른 스레드가 이미 다음 창으로 넘겼으면 지난 창으로 되돌리지 않고 그 창에 센다.
+                window = currentWindow;
+            }
+            int count = currentWindow == window ? (int) current : 0;
+            if (count >= permitsPerSecond) {
+                suppressed.incrementAndGet(index);
+                return SUPPRESSED;
+            }
+            if (windowCounts.compareAndSet(index, current, ((long) window << 32) | (count + 1))) {
+                return suppressed.getAndSet(index, 0);
+            }
+        }
+    }
+}
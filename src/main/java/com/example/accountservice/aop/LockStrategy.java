@@ -0,0 +1,6 @@
+package com.example.accountservice.aop;
+
+public enum LockStrategy {
+    PESSIMISTIC,
+    OPTIMISTIC
+}
@@ -0,0 +1,38 @@
+package com.example.accountservice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * spring.mvc.async.request-timeout 은 CompletableFuture 를 돌려주는 /use, /cancel 에도 걸리므로 짧게 둔다.
+ * 핸들러가 요청 속성 TIMEOUT_ATTRIBUTE 에 Duration 을 두면, 그 요청의 Callable 비동기 처리
+ * (StreamingResponseBody 포함) 만 비동기 처리를 시작하기 전에 타임아웃을 바꾼다.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AsyncRequestTimeoutConfig implements WebMvcConfigurer {
+
+    public static final String TIMEOUT_ATTRIBUTE = AsyncRequestTimeoutConfig.class.getName() + ".timeout";
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                Object timeout = request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+                if (timeout instanceof Duration && request instanceof AsyncWebRequest) {
+                    ((AsyncWebRequest) request).setTimeout(((Duration) timeout).toMillis());
+                }
+            }
+        });
+    }
+}
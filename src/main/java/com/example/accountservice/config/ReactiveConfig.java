@@ -0,0 +1,66 @@
+package com.example.accountservice.config;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.RedissonReactiveClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * spring.main.web-application-type=reactive (reactive 프로파일) 로 실행할 때만 R2DBC 와 Redisson reactive 클라이언트를 만든다.
+ * JPA 와 같은 H2 메모리 DB 를 바라보므로 스키마와 초기 데이터는 Hibernate 와 data.sql 이 만든 것을 그대로 쓴다.
+ * ConnectionFactory 빈이 있으면 DataSource 자동 설정이 빠지고, R2dbcTransactionManager 빈이 있으면 @Transactional 이
+ * 트랜잭션 매니저를 고르지 못하므로 둘 다 빈으로 등록하지 않고 DatabaseClient 와 TransactionalOperator 안에만 둔다.
+ * 같은 이유로 R2DBC 자동 설정은 application.yml 에서 제외한다.
+ * reactive 엔드포인트는 DB 잔액을 직접 바꾸므로 잔액의 원본을 메모리에 두는 원장 엔진과 함께 켤 수 없다.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    private static final Option<Integer> MAX_SIZE = Option.valueOf("maxSize");
+
+    /**
+     * Tomcat 이 classpath 에 있으면 reactive 서버도 Tomcat 으로 뜨므로 Reactor Netty 를 직접 지정한다.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(@Value("${account.reactive.r2dbc-url}") String url,
+                                         @Value("${account.reactive.pool-size:16}") int poolSize,
+                                         @Value("${spring.datasource.username:}") String username,
+                                         @Value("${spring.datasource.password:}") String password,
+                                         @Value("${transaction.ledger-engine.enabled:false}") boolean ledgerEngineEnabled) {
+        if (ledgerEngineEnabled) {
+            throw new IllegalStateException("transaction.ledger-engine.enabled cannot be combined with the reactive stack");
+        }
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .option(MAX_SIZE, poolSize)
+                .build());
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator(DatabaseClient databaseClient) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(databaseClient.getConnectionFactory()));
+    }
+
+    @Bean
+    public RedissonReactiveClient redissonReactiveClient(RedissonClient redissonClient) {
+        return redissonClient.reactive();
+    }
+}
@@ -15,10 +15,20 @@ public class RedisRepositoryConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
 
+    @Value("${account.redis.connection-pool-size:64}")
+    private int connectionPoolSize;
+
+    @Value("${account.redis.subscription-connection-pool-size:50}")
+    private int subscriptionConnectionPoolSize;
+
     @Bean
     public RedissonClient redissonClient() {
         Config config = new Config();
-        config.useSingleServer().setAddress("redis://" + redisHost + ":" + redisPort);
+        config.useSingleServer()
+                .setAddress("redis://" + redisHost + ":" + redisPort)
+                .setConnectionPoolSize(connectionPoolSize)
+                .setConnectionMinimumIdleSize(Math.min(24, connectionPoolSize))
+                .setSubscriptionConnectionPoolSize(subscriptionConnectionPoolSize);
 
         return Redisson.create(config);
     }
@@ -0,0 +1,102 @@
+package com.example.accountservice.config;
+
+import com.example.accountservice.policy.TransactionIdGenerator;
+import com.example.accountservice.shard.ReshardingService;
+import com.example.accountservice.shard.ShardDataSources;
+import com.example.accountservice.shard.ShardRouter;
+import com.example.accountservice.shard.ShardRoutingDataSource;
+import com.example.accountservice.shard.ShardSchemaInitializer;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * account.shard.enabled 이면 account.shard.urls 의 DB 마다 Hikari 풀을 만들고,
+ * ShardRouter 가 정한 샤드로 커넥션을 주는 DataSource 를 기본 DataSource 로 등록한다.
+ * 풀 이름이 shard-0, shard-1 … 이므로 hikaricp.* 메트릭이 pool 태그로 나뉜다.
+ * 풀 크기는 spring.datasource.hikari.* 를 샤드마다 그대로 쓴다.
+ * 한 트랜잭션이 한 샤드에서만 실행된다는 전제가 맞지 않는 replica 라우팅, 인메모리 원장 엔진과 sequence 계좌번호 발급기,
+ * 샤드 밖의 account.reactive.r2dbc-url 에 쓰는 reactive 스택은 함께 켤 수 없다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "account.shard.enabled", havingValue = "true")
+public class ShardDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariConfig shardHikariConfig() {
+        return new HikariConfig();
+    }
+
+    @Bean
+    public ShardDataSources shardDataSources(DataSourceProperties properties,
+                                             HikariConfig shardHikariConfig,
+                                             TransactionIdGenerator transactionIdGenerator,
+                                             @Value("${account.shard.urls}") String[] urls,
+                                             @Value("${account.datasource.replica.enabled:false}") boolean replicaEnabled,
+                                             @Value("${transaction.ledger-engine.enabled:false}") boolean ledgerEngineEnabled,
+                                             @Value("${account.number.allocator:redis}") String accountNumberAllocator,
+                                             @Value("${spring.main.web-application-type:servlet}") String webApplicationType) {
+        if (replicaEnabled || ledgerEngineEnabled || !"redis".equals(accountNumberAllocator)
+                || "reactive".equalsIgnoreCase(webApplicationType)) {
+            throw new IllegalStateException("account.shard.enabled cannot be combined with replica routing, "
+                    + "the ledger engine, a non-redis account number allocator or the reactive stack");
+        }
+        if (!transactionIdGenerator.supportsSlot()) {
+            throw new IllegalStateException("account.shard.enabled requires a transaction id generator "
+                    + "that can encode shard slots (snowflake with a node-id that fits beside the slot bits)");
+        }
+
+        List<HikariDataSource> dataSources = new ArrayList<>(urls.length);
+        for (int shard = 0; shard < urls.length; shard++) {
+            HikariConfig config = new HikariConfig();
+            shardHikariConfig.copyStateTo(config);
+            config.setPoolName("shard-" + shard);
+            config.setJdbcUrl(urls[shard].trim());
+            config.setDriverClassName(properties.determineDriverClassName());
+            config.setUsername(properties.determineUsername());
+            config.setPassword(properties.determinePassword());
+            dataSources.add(new HikariDataSource(config));
+        }
+        return new ShardDataSources(dataSources);
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(ShardDataSources shardDataSources) {
+        return new ShardRoutingDataSource(shardDataSources.getAll());
+    }
+
+    /**
+     * 기본 커넥션 속성을 미리 정해 두어야 프록시가 속성을 확인하려고 라우팅 전에 커넥션을 얻지 않는다.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(ShardDataSources shardDataSources) {
+        return new ShardSchemaInitializer(shardDataSources);
+    }
+
+    @Bean
+    public ReshardingService reshardingService(ShardRouter shardRouter, ShardDataSources shardDataSources) {
+        return new ReshardingService(shardRouter, shardDataSources);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.accountservice.config;
+
+import com.example.accountservice.jfr.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * account.virtual-threads.enabled 이면 Tomcat 요청 처리 전체를 virtual thread 에서 실행한다.
+ * LockAopAspect 의 락 대기와 TransactionService 의 JDBC 호출이 요청 스레드에서 그대로 블로킹되므로,
+ * 동시 처리량의 상한은 스레드 수가 아니라 Hikari/Redisson 커넥션 풀 크기가 된다 (application-virtual-threads.yml).
+ * JDK 21 미만에서 켜면 기동 시점에 실패한다.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "account.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        if (!VirtualThreads.isSupported()) {
+            throw new IllegalStateException("account.virtual-threads.enabled requires JDK 21 or later");
+        }
+        log.info("Serving requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newPerTaskExecutor());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${account.virtual-threads.pinned-threshold-millis:20}") long pinnedThresholdMillis) {
+        return new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(pinnedThresholdMillis));
+    }
+}
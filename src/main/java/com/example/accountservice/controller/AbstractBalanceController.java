@@ -0,0 +1,81 @@
+package com.example.accountservice.controller;
+
+import com.example.accountservice.dto.CancelBalance;
+import com.example.accountservice.dto.CreateBalance;
+import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.exception.AccountException;
+import com.example.accountservice.ledger.LedgerEngine;
+import com.example.accountservice.service.FailedTransactionRecorder;
+import com.example.accountservice.service.GroupCommitService;
+import com.example.accountservice.service.TransactionService;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.example.accountservice.type.TransactionType.CANCEL;
+import static com.example.accountservice.type.TransactionType.USE;
+
+/**
+ * 잔액 사용/취소 핸들러의 공통 처리. 켜진 처리 방식(원장 엔진, 그룹 커밋, 기본)으로 보내고 실패 거래를 기록한다.
+ * 동기 응답은 BalanceController, account.lock.async.enabled 일 때의 future 응답은 AsyncBalanceController 가 맡는다.
+ */
+@Slf4j
+abstract class AbstractBalanceController {
+
+    private final TransactionService transactionService;
+    private final FailedTransactionRecorder failedTransactionRecorder;
+    private final GroupCommitService groupCommitService;
+    private final LedgerEngine ledgerEngine;
+
+    protected AbstractBalanceController(TransactionService transactionService,
+                                        FailedTransactionRecorder failedTransactionRecorder,
+                                        GroupCommitService groupCommitService,
+                                        LedgerEngine ledgerEngine) {
+        this.transactionService = transactionService;
+        this.failedTransactionRecorder = failedTransactionRecorder;
+        this.groupCommitService = groupCommitService;
+        this.ledgerEngine = ledgerEngine;
+    }
+
+    protected CreateBalance.Response use(CreateBalance.Request request) {
+        try {
+            return CreateBalance.Response.toResponse(
+                    useBalance(request.getUserId(), request.getAccountNumber(), request.getAmount())
+            );
+        } catch (AccountException e) {
+            log.debug("Failed to use balance. ");
+            failedTransactionRecorder.record(USE, request.getAccountNumber(), request.getAmount(), null);
+            throw e;
+        }
+    }
+
+    protected CancelBalance.Response cancel(CancelBalance.Request request) {
+        try {
+            return CancelBalance.Response.toResponse(
+                    cancelBalance(request.getTransactionId(), request.getAccountNumber(), request.getAmount())
+            );
+        } catch (AccountException e) {
+            log.debug("Failed to cancel balance. ");
+            failedTransactionRecorder.record(CANCEL, request.getAccountNumber(), request.getAmount(), null);
+            throw e;
+        }
+    }
+
+    private TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        if (ledgerEngine.isEnabled()) {
+            return ledgerEngine.useBalance(userId, accountNumber, amount);
+        }
+        if (groupCommitService.isEnabled()) {
+            return groupCommitService.useBalance(userId, accountNumber, amount);
+        }
+        return transactionService.useBalance(userId, accountNumber, amount);
+    }
+
+    private TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
+        if (ledgerEngine.isEnabled()) {
+            return ledgerEngine.cancelBalance(transactionId, accountNumber, amount);
+        }
+        if (groupCommitService.isEnabled()) {
+            return groupCommitService.cancelBalance(transactionId, accountNumber, amount);
+        }
+        return transactionService.cancelBalance(transactionId, accountNumber, amount);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.accountservice.controller;
+
+import com.example.accountservice.aop.AccountLock;
+import com.example.accountservice.aop.LockStrategy;
+import com.example.accountservice.dto.CancelBalance;
+import com.example.accountservice.dto.CreateBalance;
+import com.example.accountservice.ledger.LedgerEngine;
+import com.example.accountservice.service.FailedTransactionRecorder;
+import com.example.accountservice.service.GroupCommitService;
+import com.example.accountservice.service.TransactionService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * account.lock.async.enabled 일 때의 잔액 사용/취소 핸들러.
+ * @AccountLock 이 락을 비동기로 얻은 뒤 executor 에서 이 메서드를 호출하고, 요청 스레드에는 future 를 돌려준다.
+ * 취소는 락 없이 executor 에서 호출되고 version 충돌 시 재시도한다.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "account.lock.async.enabled", havingValue = "true")
+@RequestMapping("/transaction")
+public class AsyncBalanceController extends AbstractBalanceController {
+
+    public AsyncBalanceController(TransactionService transactionService,
+                                  FailedTransactionRecorder failedTransactionRecorder,
+                                  GroupCommitService groupCommitService,
+                                  LedgerEngine ledgerEngine) {
+        super(transactionService, failedTransactionRecorder, groupCommitService, ledgerEngine);
+    }
+
+    @PostMapping("/use")
+    @AccountLock
+    public CompletableFuture<CreateBalance.Response> useBalance(
+            @RequestBody @Valid CreateBalance.Request request) {
+        return CompletableFuture.completedFuture(use(request));
+    }
+
+    @PostMapping("/cancel")
+    @AccountLock(strategy = LockStrategy.OPTIMISTIC)
+    public CompletableFuture<CancelBalance.Response> cancelBalance(
+            @Valid @RequestBody CancelBalance.Request request
+    ) {
+        return CompletableFuture.completedFuture(cancel(request));
+    }
+}
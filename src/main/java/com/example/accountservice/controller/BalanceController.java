@@ -0,0 +1,51 @@
+package com.example.accountservice.controller;
+
+import com.example.accountservice.aop.AccountLock;
+import com.example.accountservice.aop.LockStrategy;
+import com.example.accountservice.dto.CancelBalance;
+import com.example.accountservice.dto.CreateBalance;
+import com.example.accountservice.ledger.LedgerEngine;
+import com.example.accountservice.service.FailedTransactionRecorder;
+import com.example.accountservice.service.GroupCommitService;
+import com.example.accountservice.service.TransactionService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+
+/**
+ * 요청 스레드에서 락을 잡고 처리하는 기본 잔액 사용/취소 핸들러.
+ * 취소는 계좌 엔티티를 읽고 고쳐 쓰므로 분산 락 대신 version 충돌 시 재시도(OPTIMISTIC)로 처리한다.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "account.lock.async.enabled", havingValue = "false", matchIfMissing = true)
+@RequestMapping("/transaction")
+public class BalanceController extends AbstractBalanceController {
+
+    public BalanceController(TransactionService transactionService,
+                             FailedTransactionRecorder failedTransactionRecorder,
+                             GroupCommitService groupCommitService,
+                             LedgerEngine ledgerEngine) {
+        super(transactionService, failedTransactionRecorder, groupCommitService, ledgerEngine);
+    }
+
+    @PostMapping("/use")
+    @AccountLock
+    public CreateBalance.Response useBalance(
+            @RequestBody @Valid CreateBalance.Request request) {
+        return use(request);
+    }
+
+    @PostMapping("/cancel")
+    @AccountLock(strategy = LockStrategy.OPTIMISTIC)
+    public CancelBalance.Response cancelBalance(
+            @Valid @RequestBody CancelBalance.Request request
+    ) {
+        return cancel(request);
+    }
+}
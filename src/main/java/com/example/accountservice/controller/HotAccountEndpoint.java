@@ -0,0 +1,25 @@
+package com.example.accountservice.controller;
+
+import com.example.accountservice.service.HotAccountTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 락 경합이 큰 계좌 상위 K 개를 /actuator/hotaccounts 로 노출한다.
+ */
+@Component
+@Endpoint(id = "hotaccounts")
+@RequiredArgsConstructor
+public class HotAccountEndpoint {
+
+    private final HotAccountTracker hotAccountTracker;
+
+    @ReadOperation
+    public List<HotAccountTracker.HotAccount> hotAccounts() {
+        return hotAccountTracker.topAccounts();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.accountservice.controller;
+
+import com.example.accountservice.dto.*;
+import com.example.accountservice.service.ReactiveAccountService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+
+/**
+ * reactive 모드의 AccountController.
+ */
+@RequiredArgsConstructor
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/account")
+public class ReactiveAccountController {
+
+    private final ReactiveAccountService accountService;
+
+    @PostMapping
+    public Mono<CreateAccount.Response> createAccount(@RequestBody @Valid final CreateAccount.Request request) {
+        return accountService.createAccount(request.getUserId(), request.getInitBalance())
+                .map(CreateAccount.Response::toResponse);
+    }
+
+    @DeleteMapping
+    public Mono<DeleteAccount.Response> deleteAccount(@RequestBody @Valid final DeleteAccount.Request request) {
+        return accountService.deleteAccount(request.getUserId(), request.getAccountNumber())
+                .map(DeleteAccount.Response::toResponse);
+    }
+
+    @GetMapping("/{userId}")
+    public Flux<GetAccount.Response> getAccountByUserId(@PathVariable final Long userId) {
+        return accountService.findAllAccount(userId)
+                .map(GetAccount.Response::toResponse);
+    }
+}
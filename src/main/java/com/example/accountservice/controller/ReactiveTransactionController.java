@@ -0,0 +1,78 @@
+package com.example.accountservice.controller;
+
+import com.example.accountservice.dto.CancelBalance;
+import com.example.accountservice.dto.CreateBalance;
+import com.example.accountservice.dto.QueryTransactionResponse;
+import com.example.accountservice.exception.AccountException;
+import com.example.accountservice.service.FailedTransactionRecorder;
+import com.example.accountservice.service.ReactiveLockService;
+import com.example.accountservice.service.ReactiveTransactionService;
+import com.example.accountservice.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.validation.Valid;
+
+import static com.example.accountservice.type.TransactionType.CANCEL;
+import static com.example.accountservice.type.TransactionType.USE;
+
+/**
+ * reactive 모드의 TransactionController. 계좌 락은 @AccountLock 대신 ReactiveLockService 로 감싼다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/transaction")
+public class ReactiveTransactionController {
+
+    private final ReactiveTransactionService transactionService;
+    private final ReactiveLockService lockService;
+    private final FailedTransactionRecorder failedTransactionRecorder;
+
+    @PostMapping("/use")
+    public Mono<CreateBalance.Response> useBalance(
+            @RequestBody @Valid CreateBalance.Request request) {
+        return lockService.withLock(request.getAccountNumber(),
+                        transactionService.useBalance(request.getUserId(), request.getAccountNumber(), request.getAmount())
+                                .onErrorResume(AccountException.class, e -> recordFailure(USE,
+                                        request.getAccountNumber(), request.getAmount(), e)))
+                .map(CreateBalance.Response::toResponse);
+    }
+
+    @PostMapping("/cancel")
+    public Mono<CancelBalance.Response> cancelBalance(
+            @Valid @RequestBody CancelBalance.Request request
+    ) {
+        return lockService.withLock(request.getAccountNumber(),
+                        transactionService.cancelBalance(request.getTransactionId(), request.getAccountNumber(),
+                                        request.getAmount())
+                                .onErrorResume(AccountException.class, e -> recordFailure(CANCEL,
+                                        request.getAccountNumber(), request.getAmount(), e)))
+                .map(CancelBalance.Response::toResponse);
+    }
+
+    @GetMapping("/{transactionId}")
+    public Mono<QueryTransactionResponse> queryTransaction(
+            @PathVariable String transactionId) {
+        return transactionService.getTransaction(transactionId)
+                .map(QueryTransactionResponse::toResponse);
+    }
+
+    /**
+     * 큐가 가득 차 caller-runs 가 되면 record 가 JDBC 배치를 직접 실행하므로 이벤트 루프 밖에서 호출한다.
+     */
+    private <T> Mono<T> recordFailure(TransactionType transactionType, String accountNumber, Long amount,
+                                      AccountException e) {
+        return Mono.fromRunnable(() -> {
+                    log.debug("Failed to {} balance. ", transactionType == USE ? "use" : "cancel");
+                    failedTransactionRecorder.record(transactionType, accountNumber, amount, null);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(Mono.error(e));
+    }
+}
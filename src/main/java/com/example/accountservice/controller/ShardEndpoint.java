@@ -0,0 +1,37 @@
+package com.example.accountservice.controller;
+
+import com.example.accountservice.shard.ReshardingService;
+import com.example.accountservice.shard.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 슬롯 → 샤드 디렉터리를 /actuator/shards 로 노출하고, POST { "slot": 3, "shard": 1 } 로 슬롯을 옮긴다.
+ * 슬롯 이동은 쓰기 작업이므로 기본 web 노출 목록에 넣지 않는다. 운영 네트워크에서만
+ * management.endpoints.web.exposure.include 에 shards 를 더해 연다.
+ */
+@Component
+@Endpoint(id = "shards")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.shard.enabled", havingValue = "true")
+public class ShardEndpoint {
+
+    private final ShardRouter shardRouter;
+    private final ReshardingService reshardingService;
+
+    @ReadOperation
+    public List<Integer> slots() {
+        return shardRouter.slots();
+    }
+
+    @WriteOperation
+    public ReshardingService.MoveResult move(int slot, int shard) {
+        return reshardingService.moveSlot(slot, shard);
+    }
+}
@@ -1,62 +1,97 @@
 package com.example.accountservice.controller;
 
-import com.example.accountservice.aop.AccountLock;
-import com.example.accountservice.dto.CancelBalance;
-import com.example.accountservice.dto.CreateBalance;
+import com.example.accountservice.config.AsyncRequestTimeoutConfig;
+import com.example.accountservice.dto.BatchBalance;
 import com.example.accountservice.dto.QueryTransactionResponse;
-import com.example.accountservice.exception.AccountException;
+import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.dto.TransactionExport;
+import com.example.accountservice.dto.TransactionHistory;
+import com.example.accountservice.ledger.LedgerEngine;
+import com.example.accountservice.service.BatchTransactionService;
+import com.example.accountservice.service.TransactionExportService;
+import com.example.accountservice.service.TransactionLookupStore;
 import com.example.accountservice.service.TransactionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/transaction")
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final BatchTransactionService batchTransactionService;
+    private final LedgerEngine ledgerEngine;
+    private final TransactionLookupStore transactionLookupStore;
+    private final TransactionExportService transactionExportService;
 
-    @PostMapping("/use")
-    @AccountLock
-    public CreateBalance.Response useBalance(
-            @RequestBody @Valid CreateBalance.Request request) {
-        try {
-            return CreateBalance.Response.toResponse(
-                    transactionService.useBalance(request.getUserId(), request.getAccountNumber(),
-                            request.getAmount())
-            );
-        } catch (AccountException e) {
-            log.error("Failed to use balance. ");
-            transactionService.useBalanceFailed(request.getAccountNumber(), request.getAmount());
-            throw e;
-        }
+    @PostMapping("/batch")
+    public List<BatchBalance.Response> batchBalance(
+            @Valid @RequestBody BatchBalance.Request request
+    ) {
+        return batchTransactionService.applyBatch(request.getItems()).stream()
+                .map(BatchBalance.Response::toResponse)
+                .collect(Collectors.toList());
     }
 
-    @PostMapping("/cancel")
-    @AccountLock
-    public CancelBalance.Response cancelBalance(
-            @Valid @RequestBody CancelBalance.Request request
+    /**
+     * 내역과 내보내기는 Transaction 테이블만 읽으므로 원장 엔진이 켜져 있으면 먼저 스냅샷을 기록한다.
+     */
+    @GetMapping("/history")
+    public TransactionHistory.Response transactionHistory(
+            @Valid TransactionHistory.Request request
     ) {
-        try {
-            return CancelBalance.Response.toResponse(
-                    transactionService.cancelBalance(request.getTransactionId(),
-                            request.getAccountNumber(), request.getAmount())
-            );
-        } catch (AccountException e) {
-            log.error("Failed to use balance. ");
-            transactionService.useBalanceFailed(request.getAccountNumber(), request.getAmount());
-            throw e;
-        }
+        ledgerEngine.flush();
+        return TransactionHistory.Response.toResponse(
+                transactionService.getTransactionHistory(request.toCondition()), request.getSize());
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @Valid TransactionExport.Request request,
+            HttpServletRequest servletRequest
+    ) {
+        ledgerEngine.flush();
+        StreamingResponseBody body = transactionExportService.export(request);
+        servletRequest.setAttribute(AsyncRequestTimeoutConfig.TIMEOUT_ATTRIBUTE, transactionExportService.getTimeout());
+        return ResponseEntity.ok()
+                .contentType(request.isGzip()
+                        ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(request.getFormat().getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(request.getFileName()).build().toString())
+                .body(body);
     }
 
     @GetMapping("/{transactionId}")
     public QueryTransactionResponse queryTransaction(
             @PathVariable String transactionId) {
-        return QueryTransactionResponse.toResponse(
-                transactionService.getTransaction(transactionId));
+        return QueryTransactionResponse.toResponse(findTransaction(transactionId));
+    }
+
+    private TransactionDto findTransaction(String transactionId) {
+        if (ledgerEngine.isEnabled()) {
+            Optional<TransactionDto> unsnapshotted = ledgerEngine.findTransaction(transactionId);
+            if (unsnapshotted.isPresent()) {
+                return unsnapshotted.get();
+            }
+        }
+        return transactionLookupStore.find(transactionId)
+                .orElseGet(() -> transactionService.getTransaction(transactionId));
     }
 }
@@ -0,0 +1,114 @@
+package com.example.accountservice.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * 복제 지연 동안 방금 쓴 데이터를 replica 에서 읽지 않도록, 최근 쓰기가 있었던 사용자/계좌/거래의 읽기를 primary 로 돌린다.
+ * 쓰기 시점과 커밋 시점에 기록하고 read-after-write-millis 가 지나면 잊는다.
+ * 읽기 쪽은 read-only 트랜잭션의 첫 쿼리 전에 호출해야 한다. 커넥션은 LazyConnectionDataSourceProxy 가 첫 쿼리 때 고른다.
+ * account.datasource.replica.enabled 가 꺼져 있으면 아무것도 하지 않는다.
+ */
+@Component
+public class ReadAfterWriteGuard {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final Cache<String, Boolean> recentWrites;
+    private final Counter primaryReadCounter;
+
+    public ReadAfterWriteGuard(MeterRegistry meterRegistry,
+                               @Value("${account.datasource.replica.enabled:false}") boolean enabled,
+                               @Value("${account.datasource.replica.read-after-write-millis:1000}") long windowMillis,
+                               @Value("${account.datasource.replica.tracked-keys:100000}") long trackedKeys) {
+        this.enabled = enabled;
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(trackedKeys)
+                .expireAfterWrite(Duration.ofMillis(windowMillis))
+                .build();
+        this.primaryReadCounter = meterRegistry.counter("datasource.read-after-write.primary");
+    }
+
+    public void markUserWritten(Long userId) {
+        markWritten(userKey(userId));
+    }
+
+    public void markAccountWritten(String accountNumber) {
+        markWritten(accountKey(accountNumber));
+    }
+
+    public void markTransactionWritten(String transactionId) {
+        markWritten(transactionKey(transactionId));
+    }
+
+    public void readUser(Long userId) {
+        readAfterWrite(userKey(userId));
+    }
+
+    public void readAccount(String accountNumber) {
+        readAfterWrite(accountKey(accountNumber));
+    }
+
+    public void readTransaction(String transactionId) {
+        readAfterWrite(transactionKey(transactionId));
+    }
+
+    static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    private void markWritten(String key) {
+        if (!enabled) {
+            return;
+        }
+        recentWrites.put(key, Boolean.TRUE);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWrites.put(key, Boolean.TRUE);
+            }
+        });
+    }
+
+    /**
+     * 트랜잭션 밖에서는 어차피 primary 를 쓰므로 표시하지 않는다. 표시는 트랜잭션이 끝나면 지운다.
+     */
+    private void readAfterWrite(String key) {
+        if (!enabled || !TransactionSynchronizationManager.isSynchronizationActive()
+                || recentWrites.getIfPresent(key) == null) {
+            return;
+        }
+        primaryReadCounter.increment();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                PRIMARY_REQUIRED.remove();
+            }
+        });
+    }
+
+    private static String userKey(Long userId) {
+        return "user:" + userId;
+    }
+
+    private static String accountKey(String accountNumber) {
+        return "account:" + accountNumber;
+    }
+
+    private static String transactionKey(String transactionId) {
+        return "transaction:" + transactionId;
+    }
+}
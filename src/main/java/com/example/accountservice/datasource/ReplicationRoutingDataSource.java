@@ -0,0 +1,92 @@
+package com.example.accountservice.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * read-only 트랜잭션은 replica 로, 나머지와 ReadAfterWriteGuard 가 표시한 읽기는 primary 로 보낸다.
+ * replica 커넥션을 얻지 못하면 primary 로 읽고, retry-after-millis 동안은 replica 를 시도하지 않는다.
+ * 실패를 빨리 알 수 있도록 replica 풀의 connection-timeout 은 짧게 둔다.
+ * 트랜잭션의 read-only 여부가 정해진 뒤에 커넥션을 고르도록 LazyConnectionDataSourceProxy 로 감싸서 쓴다.
+ * MeterRegistry 가 DataSource 풀 메트릭 때문에 DataSource 에 의존하므로, 라우팅 건수는 MeterBinder 로 내보낸다.
+ */
+@Slf4j
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final LongAdder primaryCount = new LongAdder();
+    private final LongAdder replicaCount = new LongAdder();
+    private final LongAdder fallbackCount = new LongAdder();
+    private final long retryAfterNanos;
+    private volatile long replicaRetryAt;
+
+    public ReplicationRoutingDataSource(DataSource primary, DataSource replica, long retryAfterMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryAfterNanos = TimeUnit.MILLISECONDS.toNanos(retryAfterMillis);
+        this.replicaRetryAt = System.nanoTime();
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadAfterWriteGuard.isPrimaryRequired()) {
+            return REPLICA;
+        }
+        return PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (PRIMARY.equals(determineCurrentLookupKey())) {
+            primaryCount.increment();
+            return primary.getConnection();
+        }
+        if (System.nanoTime() - replicaRetryAt < 0) {
+            fallbackCount.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.getConnection();
+            replicaCount.increment();
+            return connection;
+        } catch (SQLException e) {
+            log.warn("Replica connection failed, reading from primary for {} ms : {}",
+                    TimeUnit.NANOSECONDS.toMillis(retryAfterNanos), e.getMessage());
+            replicaRetryAt = System.nanoTime() + retryAfterNanos;
+            fallbackCount.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindRoutingCounter(registry, PRIMARY, primaryCount);
+        bindRoutingCounter(registry, REPLICA, replicaCount);
+        bindRoutingCounter(registry, "replica-fallback", fallbackCount);
+    }
+
+    private static void bindRoutingCounter(MeterRegistry registry, String target, LongAdder count) {
+        FunctionCounter.builder("datasource.routing", count, LongAdder::sum)
+                .tag("target", target)
+                .register(registry);
+    }
+}
@@ -22,10 +22,11 @@ public class Account extends BaseTimeEntity {
     @Id @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private AccountUser accountUser;
 
+    @Column(unique = true)
     private String accountNumber;
 
     @Enumerated(EnumType.STRING)
@@ -35,6 +36,9 @@ public class Account extends BaseTimeEntity {
     private LocalDateTime registeredAt;
     private LocalDateTime unRegisteredAt;
 
+    @Version
+    private Long version;
+
     @Builder
     private Account(AccountUser accountUser, String accountNumber, AccountStatus accountStatus, Long balance, LocalDateTime registeredAt, LocalDateTime unRegisteredAt) {
         this.accountUser = accountUser;
@@ -52,14 +56,14 @@ public class Account extends BaseTimeEntity {
 
     public void useBalance(Long amount) {
         if(this.balance < amount) {
-            throw new AccountException(AMOUNT_EXCEED_BALANCE);
+            throw AccountException.of(AMOUNT_EXCEED_BALANCE);
         }
         this.balance -= amount;
     }
 
     public void cancelBalance(Long amount) {
         if(amount < 0) {
-            throw new AccountException(INVALID_REQUEST);
+            throw AccountException.of(INVALID_REQUEST);
         }
         this.balance += amount;
     }
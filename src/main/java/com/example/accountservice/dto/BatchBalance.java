@@ -0,0 +1,114 @@
+package com.example.accountservice.dto;
+
+import com.example.accountservice.type.ErrorCode;
+import com.example.accountservice.type.TransactionResultType;
+import com.example.accountservice.type.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.validator.group.GroupSequenceProvider;
+import org.hibernate.validator.spi.group.DefaultGroupSequenceProvider;
+
+import javax.validation.Valid;
+import javax.validation.constraints.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchBalance {
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+        @NotEmpty
+        @Size(max = 1000)
+        private List<@Valid @NotNull Item> items;
+    }
+
+    /**
+     * 사용 항목은 userId, 취소 항목은 transactionId 가 필요하다.
+     * 거래 유형에 따라 검증 그룹을 더해 해당 필드에만 @NotNull 을 적용한다.
+     */
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @GroupSequenceProvider(Item.TransactionTypeGroupProvider.class)
+    public static class Item {
+        @NotNull
+        private TransactionType transactionType;
+
+        @NotNull(groups = Use.class)
+        @Min(1)
+        private Long userId;
+
+        @NotNull(groups = Cancel.class)
+        private String transactionId;
+
+        @NotBlank
+        @Size(min = 10, max = 10)
+        private String accountNumber;
+
+        @NotNull
+        @Min(10)
+        @Max(1000_000_000)
+        private Long amount;
+
+        interface Use {
+        }
+
+        interface Cancel {
+        }
+
+        public static class TransactionTypeGroupProvider implements DefaultGroupSequenceProvider<Item> {
+            @Override
+            public List<Class<?>> getValidationGroups(Item item) {
+                List<Class<?>> groups = new ArrayList<>();
+                groups.add(Item.class);
+                if (item != null && item.transactionType == TransactionType.USE) {
+                    groups.add(Use.class);
+                } else if (item != null && item.transactionType == TransactionType.CANCEL) {
+                    groups.add(Cancel.class);
+                }
+                return groups;
+            }
+        }
+    }
+
+    @Getter
+    public static class Response {
+        private final int index;
+        private final String accountNumber;
+        private final TransactionType transactionType;
+        private final TransactionResultType transactionResult;
+        private final String transactionId;
+        private final Long amount;
+        private final LocalDateTime transactedAt;
+        private final ErrorCode errorCode;
+
+        @Builder
+        private Response(int index, String accountNumber, TransactionType transactionType, TransactionResultType transactionResult, String transactionId, Long amount, LocalDateTime transactedAt, ErrorCode errorCode) {
+            this.index = index;
+            this.accountNumber = accountNumber;
+            this.transactionType = transactionType;
+            this.transactionResult = transactionResult;
+            this.transactionId = transactionId;
+            this.amount = amount;
+            this.transactedAt = transactedAt;
+            this.errorCode = errorCode;
+        }
+
+        public static Response toResponse(BatchTransactionDto dto) {
+            return Response.builder()
+                    .index(dto.getIndex())
+                    .accountNumber(dto.getAccountNumber())
+                    .transactionType(dto.getTransactionType())
+                    .transactionResult(dto.getTransactionResultType())
+                    .transactionId(dto.getTransactionId())
+                    .amount(dto.getAmount())
+                    .transactedAt(dto.getTransactedAt())
+                    .errorCode(dto.getErrorCode())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.accountservice.dto;
+
+import com.example.accountservice.domain.Transaction;
+import com.example.accountservice.type.ErrorCode;
+import com.example.accountservice.type.TransactionResultType;
+import com.example.accountservice.type.TransactionType;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+import static com.example.accountservice.type.TransactionResultType.FAIL;
+
+@Getter
+public class BatchTransactionDto {
+    private final int index;
+    private final String accountNumber;
+    private final TransactionType transactionType;
+    private final TransactionResultType transactionResultType;
+    private final Long amount;
+    private final Long balanceSnapshot;
+    private final String transactionId;
+    private final LocalDateTime transactedAt;
+    private final ErrorCode errorCode;
+
+    @Builder
+    private BatchTransactionDto(int index, String accountNumber, TransactionType transactionType, TransactionResultType transactionResultType, Long amount, Long balanceSnapshot, String transactionId, LocalDateTime transactedAt, ErrorCode errorCode) {
+        this.index = index;
+        this.accountNumber = accountNumber;
+        this.transactionType = transactionType;
+        this.transactionResultType = transactionResultType;
+        this.amount = amount;
+        this.balanceSnapshot = balanceSnapshot;
+        this.transactionId = transactionId;
+        this.transactedAt = transactedAt;
+        this.errorCode = errorCode;
+    }
+
+    public static BatchTransactionDto toResponse(int index, String accountNumber, Transaction transaction, ErrorCode errorCode) {
+        return BatchTransactionDto.builder()
+                .index(index)
+                .accountNumber(accountNumber)
+                .transactionType(transaction.getTransactionType())
+                .transactionResultType(transaction.getTransactionResultType())
+                .amount(transaction.getAmount())
+                .balanceSnapshot(transaction.getBalanceSnapshot())
+                .transactionId(transaction.getTransactionId())
+                .transactedAt(transaction.getTransactedAt())
+                .errorCode(errorCode)
+                .build();
+    }
+
+    public static BatchTransactionDto toResponse(int index, TransactionDto transactionDto) {
+        return BatchTransactionDto.builder()
+                .index(index)
+                .accountNumber(transactionDto.getAccountNumber())
+                .transactionType(transactionDto.getTransactionType())
+                .transactionResultType(transactionDto.getTransactionResultType())
+                .amount(transactionDto.getAmount())
+                .balanceSnapshot(transactionDto.getBalanceSnapshot())
+                .transactionId(transactionDto.getTransactionId())
+                .transactedAt(transactionDto.getTransactedAt())
+                .build();
+    }
+
+    public static BatchTransactionDto failed(int index, BatchBalance.Item item, ErrorCode errorCode) {
+        return BatchTransactionDto.builder()
+                .index(index)
+                .accountNumber(item.getAccountNumber())
+                .transactionType(item.getTransactionType())
+                .transactionResultType(FAIL)
+                .amount(item.getAmount())
+                .errorCode(errorCode)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.accountservice.dto;
 
+import com.example.accountservice.aop.AccountLockId;
 import com.example.accountservice.type.TransactionResultType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,7 +14,7 @@ public class CancelBalance {
     @Getter
     @NoArgsConstructor
     @AllArgsConstructor
-    public static class Request {
+    public static class Request implements AccountLockId {
         @NotBlank
         private String transactionId;
 
@@ -0,0 +1,53 @@
+package com.example.accountservice.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+
+public class TransactionExport {
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Request {
+        @Size(min = 10, max = 10)
+        private String accountNumber;
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        private LocalDateTime from;
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        private LocalDateTime to;
+
+        @NotNull
+        private Format format = Format.NDJSON;
+
+        private boolean gzip;
+
+        @AssertTrue
+        public boolean isBounded() {
+            return accountNumber != null || (from != null && to != null);
+        }
+
+        public String getFileName() {
+            return "transactions-" + (accountNumber == null ? "all" : accountNumber)
+                    + "." + format.getExtension() + (gzip ? ".gz" : "");
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+    }
+}
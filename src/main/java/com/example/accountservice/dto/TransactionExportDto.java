@@ -0,0 +1,33 @@
+package com.example.accountservice.dto;
+
+import com.example.accountservice.type.TransactionResultType;
+import com.example.accountservice.type.TransactionType;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 원장 내보내기용 JPQL 생성자 projection.
+ * 엔티티가 아니므로 영속성 컨텍스트에 쌓이지 않는다.
+ */
+@Getter
+public class TransactionExportDto {
+
+    private final String transactionId;
+    private final String accountNumber;
+    private final TransactionType transactionType;
+    private final TransactionResultType transactionResultType;
+    private final Long amount;
+    private final Long balanceSnapshot;
+    private final LocalDateTime transactedAt;
+
+    public TransactionExportDto(String transactionId, String accountNumber, TransactionType transactionType, TransactionResultType transactionResultType, Long amount, Long balanceSnapshot, LocalDateTime transactedAt) {
+        this.transactionId = transactionId;
+        this.accountNumber = accountNumber;
+        this.transactionType = transactionType;
+        this.transactionResultType = transactionResultType;
+        this.amount = amount;
+        this.balanceSnapshot = balanceSnapshot;
+        this.transactedAt = transactedAt;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.accountservice.dto;
+
+import com.example.accountservice.exception.AccountException;
+import com.example.accountservice.type.TransactionResultType;
+import com.example.accountservice.type.TransactionType;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import javax.validation.constraints.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.example.accountservice.type.ErrorCode.INVALID_REQUEST;
+
+public class TransactionHistory {
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Request {
+        @NotBlank
+        @Size(min = 10, max = 10)
+        private String accountNumber;
+
+        private TransactionType transactionType;
+
+        private TransactionResultType transactionResultType;
+
+        @Min(0)
+        private Long minAmount;
+
+        @Min(0)
+        private Long maxAmount;
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        private LocalDateTime from;
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        private LocalDateTime to;
+
+        private String cursor;
+
+        @Min(1)
+        @Max(100)
+        private int size = 20;
+
+        public TransactionHistoryCondition toCondition() {
+            TransactionHistoryCondition.TransactionHistoryConditionBuilder builder = TransactionHistoryCondition.builder()
+                    .accountNumber(accountNumber)
+                    .transactionType(transactionType)
+                    .transactionResultType(transactionResultType)
+                    .minAmount(minAmount)
+                    .maxAmount(maxAmount)
+                    .from(from)
+                    .to(to)
+                    .size(size);
+            if (cursor != null && !cursor.isEmpty()) {
+                decodeCursor(cursor, builder);
+            }
+            return builder.build();
+        }
+    }
+
+    @Getter
+    public static class Response {
+        private final List<Item> transactions;
+        private final String nextCursor;
+
+        @Builder
+        private Response(List<Item> transactions, String nextCursor) {
+            this.transactions = transactions;
+            this.nextCursor = nextCursor;
+        }
+
+        /**
+         * size + 1 건을 조회해 다음 페이지가 있을 때만 마지막 행으로 커서를 만든다.
+         */
+        public static Response toResponse(List<TransactionHistoryDto> rows, int size) {
+            List<TransactionHistoryDto> page = rows.size() > size ? rows.subList(0, size) : rows;
+            return Response.builder()
+                    .transactions(page.stream().map(Item::toResponse).collect(Collectors.toList()))
+                    .nextCursor(rows.size() > size ? encodeCursor(page.get(page.size() - 1)) : null)
+                    .build();
+        }
+    }
+
+    @Getter
+    public static class Item {
+        private final String transactionId;
+        private final TransactionType transactionType;
+        private final TransactionResultType transactionResult;
+        private final Long amount;
+        private final Long balanceSnapshot;
+        private final LocalDateTime transactedAt;
+
+        @Builder
+        private Item(String transactionId, TransactionType transactionType, TransactionResultType transactionResult, Long amount, Long balanceSnapshot, LocalDateTime transactedAt) {
+            this.transactionId = transactionId;
+            this.transactionType = transactionType;
+            this.transactionResult = transactionResult;
+            this.amount = amount;
+            this.balanceSnapshot = balanceSnapshot;
+            this.transactedAt = transactedAt;
+        }
+
+        public static Item toResponse(TransactionHistoryDto dto) {
+            return Item.builder()
+                    .transactionId(dto.getTransactionId())
+                    .transactionType(dto.getTransactionType())
+                    .transactionResult(dto.getTransactionResultType())
+                    .amount(dto.getAmount())
+                    .balanceSnapshot(dto.getBalanceSnapshot())
+                    .transactedAt(dto.getTransactedAt())
+                    .build();
+        }
+    }
+
+    static String encodeCursor(TransactionHistoryDto last) {
+        String cursor = last.getTransactedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void decodeCursor(String cursor,
+                                     TransactionHistoryCondition.TransactionHistoryConditionBuilder builder) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('|');
+            builder.cursorTransactedAt(LocalDateTime.parse(decoded.substring(0, separator)))
+                    .cursorId(Long.parseLong(decoded.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw AccountException.of(INVALID_REQUEST);
+        }
+    }
+}
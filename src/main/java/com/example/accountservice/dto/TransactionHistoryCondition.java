@@ -0,0 +1,37 @@
+package com.example.accountservice.dto;
+
+import com.example.accountservice.type.TransactionResultType;
+import com.example.accountservice.type.TransactionType;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class TransactionHistoryCondition {
+
+    private final String accountNumber;
+    private final TransactionType transactionType;
+    private final TransactionResultType transactionResultType;
+    private final Long minAmount;
+    private final Long maxAmount;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final LocalDateTime cursorTransactedAt;
+    private final Long cursorId;
+    private final int size;
+
+    @Builder
+    private TransactionHistoryCondition(String accountNumber, TransactionType transactionType, TransactionResultType transactionResultType, Long minAmount, Long maxAmount, LocalDateTime from, LocalDateTime to, LocalDateTime cursorTransactedAt, Long cursorId, int size) {
+        this.accountNumber = accountNumber;
+        this.transactionType = transactionType;
+        this.transactionResultType = transactionResultType;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+        this.from = from;
+        this.to = to;
+        this.cursorTransactedAt = cursorTransactedAt;
+        this.cursorId = cursorId;
+        this.size = size;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.accountservice.dto;
+
+import com.example.accountservice.type.TransactionResultType;
+import com.example.accountservice.type.TransactionType;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 거래 이력 조회용 JPQL 생성자 projection.
+ */
+@Getter
+public class TransactionHistoryDto {
+
+    private final Long id;
+    private final TransactionType transactionType;
+    private final TransactionResultType transactionResultType;
+    private final Long amount;
+    private final Long balanceSnapshot;
+    private final String transactionId;
+    private final LocalDateTime transactedAt;
+
+    public TransactionHistoryDto(Long id, TransactionType transactionType, TransactionResultType transactionResultType, Long amount, Long balanceSnapshot, String transactionId, LocalDateTime transactedAt) {
+        this.id = id;
+        this.transactionType = transactionType;
+        this.transactionResultType = transactionResultType;
+        this.amount = amount;
+        this.balanceSnapshot = balanceSnapshot;
+        this.transactionId = transactionId;
+        this.transactedAt = transactedAt;
+    }
+}
@@ -3,8 +3,19 @@ package com.example.accountservice.exception;
 import com.example.accountservice.type.ErrorCode;
 import lombok.Getter;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 @Getter
 public class AccountException extends RuntimeException {
+    private static final Map<ErrorCode, AccountException> STACKLESS = new EnumMap<>(ErrorCode.class);
+
+    static {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            STACKLESS.put(errorCode, new AccountException(errorCode, false));
+        }
+    }
+
     private final ErrorCode errorCode;
     private final String errorMessage;
 
@@ -12,4 +23,21 @@ public class AccountException extends RuntimeException {
         this.errorCode = errorCode;
         this.errorMessage = errorCode.getDescription();
     }
+
+    private AccountException(ErrorCode errorCode, boolean writableStackTrace) {
+        super(null, null, false, writableStackTrace);
+        this.errorCode = errorCode;
+        this.errorMessage = errorCode.getDescription();
+    }
+
+    /**
+     * 비즈니스 오류는 발생 위치가 ErrorCode 로 충분히 드러나므로
+     * 스택 트레이스 없이 ErrorCode 별로 미리 만든 인스턴스를 재사용한다.
+     * 공유 인스턴스이므로 suppressed 예외도 쌓지 않는다.
+     * 빈에서는 account.error.stackless 설정을 따르는 AccountExceptionFactory 를 쓰고,
+     * 빈이 아닌 엔티티와 요청 파싱 코드만 이 인스턴스를 직접 던진다.
+     */
+    public static AccountException of(ErrorCode errorCode) {
+        return STACKLESS.get(errorCode);
+    }
 }
@@ -0,0 +1,24 @@
+package com.example.accountservice.exception;
+
+import com.example.accountservice.type.ErrorCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 빈에서 던지는 AccountException 을 만든다.
+ * 기본은 ErrorCode 별로 공유하는 스택 없는 인스턴스이고,
+ * 오류 원인을 추적해야 할 때는 account.error.stackless=false 로 호출 위치 스택을 다시 남긴다.
+ */
+@Component
+public class AccountExceptionFactory {
+
+    private final boolean stackless;
+
+    public AccountExceptionFactory(@Value("${account.error.stackless:true}") boolean stackless) {
+        this.stackless = stackless;
+    }
+
+    public AccountException create(ErrorCode errorCode) {
+        return stackless ? AccountException.of(errorCode) : new AccountException(errorCode);
+    }
+}
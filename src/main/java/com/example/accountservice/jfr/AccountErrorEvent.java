@@ -0,0 +1,28 @@
+package com.example.accountservice.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * 클라이언트에 돌려준 오류 응답 한 건.
+ */
+@Name("com.example.accountservice.AccountError")
+@Label("Account Error")
+@Category({"Account Service", "Error"})
+@StackTrace(false)
+public class AccountErrorEvent extends Event {
+
+    @Label("Error Code")
+    private String errorCode;
+
+    @Label("Exception")
+    private Class<?> exceptionClass;
+
+    public static void emit(String errorCode, Throwable cause) {
+        AccountErrorEvent event = new AccountErrorEvent();
+        if (event.shouldCommit()) {
+            event.errorCode = errorCode;
+            event.exceptionClass = cause.getClass();
+            event.commit();
+        }
+    }
+}
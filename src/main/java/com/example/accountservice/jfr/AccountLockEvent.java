@@ -0,0 +1,33 @@
+package com.example.accountservice.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * 계좌 락 획득 시도 한 번. 이벤트 구간이 곧 대기 시간이다.
+ */
+@Name("com.example.accountservice.AccountLock")
+@Label("Account Lock")
+@Category({"Account Service", "Lock"})
+@StackTrace(false)
+public class AccountLockEvent extends Event {
+
+    @Label("Account Number")
+    private String accountNumber;
+
+    @Label("Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    private long waitNanos;
+
+    @Label("Acquired")
+    private boolean acquired;
+
+    public void complete(String accountNumber, long waitNanos, boolean acquired) {
+        if (!shouldCommit()) {
+            return;
+        }
+        this.accountNumber = accountNumber;
+        this.waitNanos = waitNanos;
+        this.acquired = acquired;
+        commit();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.accountservice.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * 잔액 사용/취소/배치 한 건. 단계별 소요 시간과 기록한 행 수를 함께 남긴다.
+ */
+@Name("com.example.accountservice.BalanceTransaction")
+@Label("Balance Transaction")
+@Category({"Account Service", "Transaction"})
+@StackTrace(false)
+public class BalanceTransactionEvent extends Event {
+
+    @Label("Operation")
+    private final String operation;
+
+    @Label("Account Number")
+    private final String accountNumber;
+
+    @Label("Lookup")
+    @Timespan(Timespan.NANOSECONDS)
+    private long lookupNanos;
+
+    @Label("Validate")
+    @Timespan(Timespan.NANOSECONDS)
+    private long validateNanos;
+
+    @Label("Debit")
+    @Timespan(Timespan.NANOSECONDS)
+    private long debitNanos;
+
+    @Label("Persist")
+    @Timespan(Timespan.NANOSECONDS)
+    private long persistNanos;
+
+    @Label("Rows Written")
+    private int rowsWritten;
+
+    public BalanceTransactionEvent(String operation, String accountNumber) {
+        this.operation = operation;
+        this.accountNumber = accountNumber;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void addPhase(String phase, long nanos) {
+        switch (phase) {
+            case "lookup":
+                lookupNanos += nanos;
+                break;
+            case "validate":
+                validateNanos += nanos;
+                break;
+            case "debit":
+                debitNanos += nanos;
+                break;
+            case "persist":
+                persistNanos += nanos;
+                break;
+            default:
+                break;
+        }
+    }
+
+    public void addRowsWritten(int rows) {
+        rowsWritten += rows;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.accountservice.ledger;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 링 버퍼 슬롯. 생산자가 값을 채우고 writer 스레드가 처리한 뒤 재사용된다.
+ */
+class LedgerCommand {
+    enum Type {
+        LOAD,
+        USE,
+        CANCEL,
+        SNAPSHOT,
+        EVICT
+    }
+
+    Type type;
+    String accountNumber;
+    String transactionId;
+    LocalDateTime transactedAt;
+    long accountId;
+    long userId;
+    long amount;
+    long balance;
+    boolean inUse;
+    CompletableFuture<Long> future;
+
+    void clear() {
+        type = null;
+        accountNumber = null;
+        transactionId = null;
+        transactedAt = null;
+        future = null;
+    }
+}
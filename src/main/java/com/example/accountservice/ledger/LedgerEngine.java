@@ -0,0 +1,578 @@
+package com.example.accountservice.ledger;
+
+import com.example.accountservice.domain.Account;
+import com.example.accountservice.domain.Transaction;
+import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.exception.AccountException;
+import com.example.accountservice.exception.AccountExceptionFactory;
+import com.example.accountservice.policy.TransactionIdGenerator;
+import com.example.accountservice.repository.AccountRepository;
+import com.example.accountservice.repository.TransactionRepository;
+import com.example.accountservice.service.AccountLookupCache;
+import com.example.accountservice.type.ErrorCode;
+import com.example.accountservice.type.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.example.accountservice.type.AccountStatus.IN_USE;
+import static com.example.accountservice.type.ErrorCode.*;
+import static com.example.accountservice.type.TransactionType.CANCEL;
+import static com.example.accountservice.type.TransactionType.USE;
+
+/**
+ * 잔액 사용/취소를 단일 writer 스레드가 메모리 상의 잔액 테이블에 순서대로 적용한다.
+ * 요청 스레드는 링 버퍼에 명령을 넣고 기다리며, writer 는 처리한 묶음을 저널에 기록하고 force 한 뒤 응답한다.
+ * Account / Transaction 테이블에는 주기적인 스냅샷으로 반영되고, 재시작 시 체크포인트 이후의 저널을 재생한다.
+ */
+@Slf4j
+@Component
+public class LedgerEngine {
+    private static final int MAX_DRAIN = 256;
+    private static final long IDLE_NANOS = 50_000L;
+
+    private final AccountLookupCache accountLookupCache;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final LedgerSnapshotStore snapshotStore;
+    private final AccountExceptionFactory accountExceptionFactory;
+    private final boolean enabled;
+    private final int ringSize;
+    private final String journalDir;
+    private final int segmentBytes;
+    private final long snapshotIntervalMillis;
+
+    // 요청 스레드에서도 읽는 상태
+    private final Set<String> loadedAccounts = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, LedgerEntry> unsnapshotted = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Tombstone> tombstones = new ConcurrentHashMap<>();
+
+    // writer 스레드 전용 상태
+    private final Map<String, Integer> slots = new HashMap<>();
+    private long[] accountIds = new long[1024];
+    private long[] ownerIds = new long[1024];
+    private long[] balances = new long[1024];
+    private boolean[] inUse = new boolean[1024];
+    private final BitSet dirty = new BitSet();
+    private List<LedgerEntry> pending = new ArrayList<>();
+    private int slotCount;
+    private long sequence;
+
+    private LedgerRingBuffer ring;
+    private LedgerJournal journal;
+    private Thread writer;
+    private ScheduledExecutorService snapshotScheduler;
+    private ExecutorService snapshotExecutor;
+    private volatile Snapshot failedSnapshot;
+    private volatile boolean running;
+
+    public LedgerEngine(AccountLookupCache accountLookupCache,
+                        AccountRepository accountRepository,
+                        TransactionRepository transactionRepository,
+                        TransactionIdGenerator transactionIdGenerator,
+                        JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        AccountExceptionFactory accountExceptionFactory,
+                        @Value("${transaction.ledger-engine.enabled:false}") boolean enabled,
+                        @Value("${transaction.ledger-engine.ring-size:4096}") int ringSize,
+                        @Value("${transaction.ledger-engine.journal-dir:./ledger-journal}") String journalDir,
+                        @Value("${transaction.ledger-engine.segment-bytes:67108864}") int segmentBytes,
+                        @Value("${transaction.ledger-engine.snapshot-interval-millis:1000}") long snapshotIntervalMillis) {
+        this.accountLookupCache = accountLookupCache;
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.snapshotStore = new LedgerSnapshotStore(jdbcTemplate, new TransactionTemplate(transactionManager), 100);
+        this.accountExceptionFactory = accountExceptionFactory;
+        this.enabled = enabled;
+        this.ringSize = ringSize;
+        this.journalDir = journalDir;
+        this.segmentBytes = segmentBytes;
+        this.snapshotIntervalMillis = snapshotIntervalMillis;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        ring = new LedgerRingBuffer(ringSize);
+        journal = new LedgerJournal(Paths.get(journalDir), segmentBytes);
+        sequence = recover();
+        journal.open(journal.lastSegment() + 1);
+
+        running = true;
+        writer = new Thread(this::writeLoop, "ledger-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        snapshotExecutor = Executors.newSingleThreadExecutor(daemon("ledger-snapshot"));
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(daemon("ledger-snapshot-scheduler"));
+        snapshotScheduler.scheduleWithFixedDelay(this::requestSnapshot,
+                snapshotIntervalMillis, snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        snapshotScheduler.shutdownNow();
+        try {
+            submit(LedgerCommand.Type.SNAPSHOT, null, 0L, 0L, null, null).get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("Final ledger snapshot failed. Journal will be replayed on next start", e);
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        snapshotExecutor.shutdown();
+        snapshotExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        journal.close();
+    }
+
+    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        ensureLoaded(accountNumber);
+        String transactionId = transactionIdGenerator.generate();
+        LocalDateTime transactedAt = LocalDateTime.now();
+        long balance;
+        try {
+            balance = await(submit(LedgerCommand.Type.USE, accountNumber, userId, amount, transactionId, transactedAt));
+        } catch (AccountException e) {
+            if (e.getErrorCode() == USER_ACCOUNT_NOT_MATCHED && !accountLookupCache.findAccountUser(userId).isPresent()) {
+                throw accountExceptionFactory.create(USER_NOT_FOUND);
+            }
+            throw e;
+        }
+        return toTransactionDto(USE, accountNumber, amount, balance, transactionId, transactedAt);
+    }
+
+    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long cancelAmount) {
+        TransactionDto target = findTransaction(transactionId)
+                .orElseGet(() -> transactionRepository.findByTransactionId(transactionId)
+                        .map(TransactionDto::toResponse)
+                        .orElseThrow(() -> accountExceptionFactory.create(TRANSACTION_NOT_FOUND)));
+        ensureLoaded(accountNumber);
+        validateCancel(target, accountNumber, cancelAmount);
+
+        String cancelTransactionId = transactionIdGenerator.generate();
+        LocalDateTime transactedAt = LocalDateTime.now();
+        long balance = await(submit(LedgerCommand.Type.CANCEL, accountNumber, 0L, cancelAmount,
+                cancelTransactionId, transactedAt));
+        return toTransactionDto(CANCEL, accountNumber, cancelAmount, balance, cancelTransactionId, transactedAt);
+    }
+
+    /**
+     * 아직 스냅샷에 포함되지 않아 Transaction 테이블에 없는 거래를 조회한다.
+     */
+    public Optional<TransactionDto> findTransaction(String transactionId) {
+        LedgerEntry entry = unsnapshotted.get(transactionId);
+        return entry == null ? Optional.empty() : Optional.of(entry.toTransactionDto());
+    }
+
+    /**
+     * 스냅샷에 포함되지 않은 거래가 있으면 스냅샷을 기록할 때까지 기다린다.
+     * 내역 조회와 내보내기처럼 Transaction 테이블만 읽는 경로가 읽기 전에 호출한다.
+     */
+    public void flush() {
+        if (!enabled || !dirtyHint()) {
+            return;
+        }
+        await(submit(LedgerCommand.Type.SNAPSHOT, null, 0L, 0L, null, null));
+    }
+
+    /**
+     * 계좌를 엔진에서 내리고, 내린 시점의 잔액이 다음 주기 스냅샷으로 테이블에 반영될 때까지 기다린다.
+     * 해지처럼 엔진 밖에서 계좌 상태를 바꾸기 전에 호출한다. writer 는 tombstone 만 저널에 남기고 기다리지 않는다.
+     */
+    public void evict(String accountNumber) {
+        if (loadedAccounts.contains(accountNumber)) {
+            await(submit(LedgerCommand.Type.EVICT, accountNumber, 0L, 0L, null, null));
+        }
+        Tombstone tombstone = tombstones.get(accountNumber);
+        if (tombstone != null) {
+            await(tombstone.snapshotted);
+        }
+    }
+
+    /**
+     * tombstone 이 스냅샷에 반영되기 전에는 테이블 잔액이 오래된 값일 수 있으므로 다시 적재하지 않는다.
+     */
+    private void ensureLoaded(String accountNumber) {
+        if (loadedAccounts.contains(accountNumber)) {
+            return;
+        }
+        if (tombstones.containsKey(accountNumber)) {
+            throw accountExceptionFactory.create(ACCOUNT_TRANSACTION_LOCK);
+        }
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> accountExceptionFactory.create(ACCOUNT_NOT_FOUND));
+
+        long claimed = ring.claim();
+        LedgerCommand command = ring.get(claimed);
+        command.type = LedgerCommand.Type.LOAD;
+        command.accountNumber = accountNumber;
+        command.accountId = account.getId();
+        command.userId = account.getAccountUser().getId();
+        command.balance = account.getBalance();
+        command.inUse = account.getAccountStatus() == IN_USE;
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        command.future = future;
+        ring.publish(claimed);
+        await(future);
+    }
+
+    private CompletableFuture<Long> submit(LedgerCommand.Type type, String accountNumber, long userId, long amount,
+                                           String transactionId, LocalDateTime transactedAt) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        long claimed = ring.claim();
+        LedgerCommand command = ring.get(claimed);
+        command.type = type;
+        command.accountNumber = accountNumber;
+        command.userId = userId;
+        command.amount = amount;
+        command.transactionId = transactionId;
+        command.transactedAt = transactedAt;
+        command.future = future;
+        ring.publish(claimed);
+        return future;
+    }
+
+    private void requestSnapshot() {
+        if (!dirtyHint()) {
+            return;
+        }
+        submit(LedgerCommand.Type.SNAPSHOT, null, 0L, 0L, null, null);
+    }
+
+    private boolean dirtyHint() {
+        return !unsnapshotted.isEmpty() || !tombstones.isEmpty() || failedSnapshot != null;
+    }
+
+    private void writeLoop() {
+        List<CompletableFuture<Long>> futures = new ArrayList<>(MAX_DRAIN);
+        List<Object> results = new ArrayList<>(MAX_DRAIN);
+        long next = ring.getConsumed() + 1;
+
+        while (running || next <= ring.getClaimed()) {
+            if (!ring.isPublished(next)) {
+                LockSupport.parkNanos(IDLE_NANOS);
+                continue;
+            }
+
+            long last = next;
+            while (last - next < MAX_DRAIN && ring.isPublished(last)) {
+                LedgerCommand command = ring.get(last);
+                futures.add(command.future);
+                results.add(handle(command));
+                command.clear();
+                last++;
+            }
+            ring.markConsumed(last - 1);
+            next = last;
+
+            journal.force();
+            for (int i = 0; i < futures.size(); i++) {
+                complete(futures.get(i), results.get(i));
+            }
+            futures.clear();
+            results.clear();
+        }
+    }
+
+    private Object handle(LedgerCommand command) {
+        try {
+            switch (command.type) {
+                case LOAD:
+                    return load(command);
+                case USE:
+                    return use(command);
+                case CANCEL:
+                    return cancel(command);
+                case SNAPSHOT:
+                    return snapshot();
+                case EVICT:
+                    return evict(command);
+                default:
+                    throw new IllegalStateException("Unknown ledger command : " + command.type);
+            }
+        } catch (AccountException e) {
+            return e.getErrorCode();
+        } catch (CompletionException e) {
+            log.error("Ledger command failed : {}", command.type, e.getCause());
+            return e.getCause();
+        } catch (RuntimeException e) {
+            log.error("Ledger command failed : {}", command.type, e);
+            return e;
+        }
+    }
+
+    private long load(LedgerCommand command) {
+        Integer slot = slots.get(command.accountNumber);
+        if (slot != null) {
+            return balances[slot];
+        }
+        if (tombstones.containsKey(command.accountNumber)) {
+            throw accountExceptionFactory.create(ACCOUNT_TRANSACTION_LOCK);
+        }
+        if (slotCount == balances.length) {
+            int capacity = slotCount * 2;
+            accountIds = Arrays.copyOf(accountIds, capacity);
+            ownerIds = Arrays.copyOf(ownerIds, capacity);
+            balances = Arrays.copyOf(balances, capacity);
+            inUse = Arrays.copyOf(inUse, capacity);
+        }
+        slot = slotCount++;
+        accountIds[slot] = command.accountId;
+        ownerIds[slot] = command.userId;
+        balances[slot] = command.balance;
+        inUse[slot] = command.inUse;
+        slots.put(command.accountNumber, slot);
+        loadedAccounts.add(command.accountNumber);
+        return command.balance;
+    }
+
+    private long use(LedgerCommand command) {
+        int slot = slotOf(command.accountNumber);
+        if (ownerIds[slot] != command.userId) {
+            throw accountExceptionFactory.create(USER_ACCOUNT_NOT_MATCHED);
+        }
+        if (!inUse[slot]) {
+            throw accountExceptionFactory.create(ACCOUNT_ALREADY_UNREGISTERED);
+        }
+        if (balances[slot] < command.amount) {
+            throw accountExceptionFactory.create(AMOUNT_EXCEED_BALANCE);
+        }
+        balances[slot] -= command.amount;
+        return append(USE, slot, command);
+    }
+
+    private long cancel(LedgerCommand command) {
+        int slot = slotOf(command.accountNumber);
+        balances[slot] += command.amount;
+        return append(CANCEL, slot, command);
+    }
+
+    /**
+     * 계좌를 내리고 tombstone 을 저널에 남긴다. 잔액은 dirty 로 표시해 다음 주기 스냅샷이 테이블에 반영한다.
+     * 요청 스레드가 적재 여부를 보기 전에 tombstone 을 먼저 등록해 그 사이의 재적재를 막는다.
+     */
+    private long evict(LedgerCommand command) {
+        Integer slot = slots.remove(command.accountNumber);
+        if (slot == null) {
+            return sequence;
+        }
+        LedgerEntry tombstone = LedgerEntry.tombstone(++sequence, command.accountNumber,
+                accountIds[slot], balances[slot]);
+        journal.append(tombstone);
+        dirty.set(slot);
+        tombstones.put(command.accountNumber, new Tombstone(tombstone.getSequence()));
+        loadedAccounts.remove(command.accountNumber);
+        return tombstone.getSequence();
+    }
+
+    private int slotOf(String accountNumber) {
+        Integer slot = slots.get(accountNumber);
+        if (slot == null) {
+            throw accountExceptionFactory.create(tombstones.containsKey(accountNumber)
+                    ? ACCOUNT_TRANSACTION_LOCK : ACCOUNT_NOT_FOUND);
+        }
+        return slot;
+    }
+
+    private long append(TransactionType transactionType, int slot, LedgerCommand command) {
+        LedgerEntry entry = new LedgerEntry(++sequence, transactionType, command.accountNumber,
+                command.transactionId, accountIds[slot], command.amount, balances[slot], command.transactedAt);
+        journal.append(entry);
+        pending.add(entry);
+        unsnapshotted.put(entry.getTransactionId(), entry);
+        dirty.set(slot);
+        return balances[slot];
+    }
+
+    /**
+     * writer 스레드에서 변경분을 떼어내고 저널 세그먼트를 넘긴 뒤 DB 기록은 스냅샷 스레드에 맡긴다.
+     */
+    private CompletableFuture<Long> snapshot() {
+        Map<Long, Long> dirtyBalances = new HashMap<>();
+        for (int slot = dirty.nextSetBit(0); slot >= 0; slot = dirty.nextSetBit(slot + 1)) {
+            dirtyBalances.put(accountIds[slot], balances[slot]);
+        }
+        dirty.clear();
+
+        Snapshot snapshot = new Snapshot(sequence, dirtyBalances, pending, journal.roll());
+        pending = new ArrayList<>();
+        return CompletableFuture.supplyAsync(() -> writeSnapshot(snapshot), snapshotExecutor);
+    }
+
+    private long writeSnapshot(Snapshot snapshot) {
+        Snapshot merged = failedSnapshot == null ? snapshot : failedSnapshot.merge(snapshot);
+        try {
+            snapshotStore.write(merged.lastSequence, merged.balances, merged.entries);
+        } catch (RuntimeException e) {
+            failedSnapshot = merged;
+            tombstones.replaceAll((accountNumber, tombstone) -> tombstone.failIfCovered(merged.lastSequence, e));
+            log.error("Ledger snapshot failed. sequence : {}", merged.lastSequence, e);
+            throw e;
+        }
+        failedSnapshot = null;
+        merged.entries.forEach(entry -> unsnapshotted.remove(entry.getTransactionId()));
+        tombstones.values().removeIf(tombstone -> tombstone.complete(merged.lastSequence));
+        journal.deleteUpTo(merged.lastSegment);
+        log.debug("Ledger snapshot written. sequence : {}, accounts : {}, transactions : {}",
+                merged.lastSequence, merged.balances.size(), merged.entries.size());
+        return merged.lastSequence;
+    }
+
+    /**
+     * 체크포인트 이후의 저널 레코드를 테이블에 반영하고 마지막 시퀀스를 돌려준다.
+     */
+    private long recover() {
+        long checkpoint = snapshotStore.readCheckpoint();
+        List<LedgerEntry> replay = new ArrayList<>();
+        Map<Long, Long> recovered = new HashMap<>();
+        long lastSequence = checkpoint;
+        for (LedgerEntry entry : journal.readAll()) {
+            if (entry.getSequence() <= checkpoint) {
+                continue;
+            }
+            if (!entry.isTombstone()) {
+                replay.add(entry);
+            }
+            recovered.put(entry.getAccountId(), entry.getBalanceSnapshot());
+            lastSequence = Math.max(lastSequence, entry.getSequence());
+        }
+
+        if (!recovered.isEmpty()) {
+            snapshotStore.write(lastSequence, recovered, replay);
+            log.info("Replayed ledger journal. entries : {}, sequence : {}", replay.size(), lastSequence);
+        }
+        journal.deleteUpTo(journal.lastSegment());
+        return lastSequence;
+    }
+
+    private void complete(CompletableFuture<Long> future, Object result) {
+        if (result instanceof Long) {
+            future.complete((Long) result);
+        } else if (result instanceof ErrorCode) {
+            future.completeExceptionally(accountExceptionFactory.create((ErrorCode) result));
+        } else if (result instanceof Throwable) {
+            future.completeExceptionally((Throwable) result);
+        } else {
+            @SuppressWarnings("unchecked")
+            CompletableFuture<Long> snapshot = (CompletableFuture<Long>) result;
+            snapshot.whenComplete((value, e) -> {
+                if (e != null) {
+                    future.completeExceptionally(e);
+                } else {
+                    future.complete(value);
+                }
+            });
+        }
+    }
+
+    private static long await(CompletableFuture<Long> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void validateCancel(TransactionDto target, String accountNumber, Long cancelAmount) {
+        if (!Objects.equals(target.getAccountNumber(), accountNumber)) {
+            throw accountExceptionFactory.create(TRANSACTION_ACCOUNT_UN_MATCH);
+        }
+        if (!Objects.equals(target.getAmount(), cancelAmount)) {
+            throw accountExceptionFactory.create(CANCEL_MUST_FULLY);
+        }
+        if (target.getTransactedAt().isBefore(LocalDateTime.now().minusYears(1))) {
+            throw accountExceptionFactory.create(TOO_OLD_ORDER_TO_CANCEL);
+        }
+    }
+
+    private static TransactionDto toTransactionDto(TransactionType transactionType, String accountNumber, Long amount,
+                                                   long balance, String transactionId, LocalDateTime transactedAt) {
+        return new LedgerEntry(0L, transactionType, accountNumber, transactionId, 0L, amount, balance, transactedAt)
+                .toTransactionDto();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class Tombstone {
+        private final long sequence;
+        private final CompletableFuture<Long> snapshotted = new CompletableFuture<>();
+
+        private Tombstone(long sequence) {
+            this.sequence = sequence;
+        }
+
+        /**
+         * 스냅샷이 이 tombstone 까지 반영했으면 기다리는 요청을 깨우고 true 를 돌려준다.
+         */
+        private boolean complete(long snapshotSequence) {
+            if (snapshotSequence < sequence) {
+                return false;
+            }
+            snapshotted.complete(snapshotSequence);
+            return true;
+        }
+
+        /**
+         * 스냅샷이 실패하면 기다리던 요청은 실패시키고, 계좌는 다음 스냅샷까지 계속 내린 상태로 둔다.
+         */
+        private Tombstone failIfCovered(long snapshotSequence, RuntimeException e) {
+            if (snapshotSequence < sequence) {
+                return this;
+            }
+            snapshotted.completeExceptionally(e);
+            return new Tombstone(sequence);
+        }
+    }
+
+    private static class Snapshot {
+        private final long lastSequence;
+        private final Map<Long, Long> balances;
+        private final List<LedgerEntry> entries;
+        private final int lastSegment;
+
+        private Snapshot(long lastSequence, Map<Long, Long> balances, List<LedgerEntry> entries, int lastSegment) {
+            this.lastSequence = lastSequence;
+            this.balances = balances;
+            this.entries = entries;
+            this.lastSegment = lastSegment;
+        }
+
+        private Snapshot merge(Snapshot next) {
+            Map<Long, Long> mergedBalances = new HashMap<>(balances);
+            mergedBalances.putAll(next.balances);
+            List<LedgerEntry> mergedEntries = new ArrayList<>(entries);
+            mergedEntries.addAll(next.entries);
+            return new Snapshot(next.lastSequence, mergedBalances, mergedEntries, next.lastSegment);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.accountservice.ledger;
+
+import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.type.TransactionType;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+import static com.example.accountservice.type.TransactionResultType.SUCCESS;
+
+@Getter
+class LedgerEntry {
+    private final long sequence;
+    private final TransactionType transactionType;
+    private final String accountNumber;
+    private final String transactionId;
+    private final long accountId;
+    private final long amount;
+    private final long balanceSnapshot;
+    private final LocalDateTime transactedAt;
+
+    LedgerEntry(long sequence, TransactionType transactionType, String accountNumber, String transactionId,
+                long accountId, long amount, long balanceSnapshot, LocalDateTime transactedAt) {
+        this.sequence = sequence;
+        this.transactionType = transactionType;
+        this.accountNumber = accountNumber;
+        this.transactionId = transactionId;
+        this.accountId = accountId;
+        this.amount = amount;
+        this.balanceSnapshot = balanceSnapshot;
+        this.transactedAt = transactedAt;
+    }
+
+    /**
+     * 계좌를 엔진에서 내렸다는 기록. 거래가 아니므로 transactionType, transactionId 가 없고
+     * 내린 시점의 잔액만 담아 재생 시 테이블 잔액으로 반영한다.
+     */
+    static LedgerEntry tombstone(long sequence, String accountNumber, long accountId, long balance) {
+        return new LedgerEntry(sequence, null, accountNumber, null, accountId, 0L, balance, LocalDateTime.now());
+    }
+
+    boolean isTombstone() {
+        return transactionType == null;
+    }
+
+    TransactionDto toTransactionDto() {
+        return TransactionDto.builder()
+                .accountNumber(accountNumber)
+                .transactionType(transactionType)
+                .transactionResultType(SUCCESS)
+                .amount(amount)
+                .balanceSnapshot(balanceSnapshot)
+                .transactionId(transactionId)
+                .transactedAt(transactedAt)
+                .build();
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.accountservice.ledger;
+
+import com.example.accountservice.type.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 메모리 맵 파일에 고정 길이 레코드를 순서대로 기록한다.
+ * 유형 바이트가 0 인 레코드는 계좌를 엔진에서 내린 tombstone 이다.
+ * 세그먼트가 가득 차거나 스냅샷이 시작되면 다음 세그먼트로 넘어가고,
+ * 스냅샷이 커밋된 세그먼트는 삭제된다.
+ */
+@Slf4j
+class LedgerJournal implements Closeable {
+    static final int RECORD_SIZE = 64;
+    private static final int KEY_LENGTH = 10;
+    private static final byte TOMBSTONE = 0;
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentBytes;
+
+    private int segment;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private boolean dirty;
+
+    LedgerJournal(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes - segmentBytes % RECORD_SIZE;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 남아있는 모든 세그먼트의 레코드를 세그먼트 순서대로 읽는다.
+     */
+    List<LedgerEntry> readAll() {
+        List<LedgerEntry> entries = new ArrayList<>();
+        for (Path path : listSegments()) {
+            try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer readBuffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                while (readBuffer.remaining() >= RECORD_SIZE) {
+                    LedgerEntry entry = read(readBuffer);
+                    if (entry == null) {
+                        break;
+                    }
+                    entries.add(entry);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return entries;
+    }
+
+    int lastSegment() {
+        List<Path> segments = listSegments();
+        return segments.isEmpty() ? 0 : segmentNumber(segments.get(segments.size() - 1));
+    }
+
+    void open(int segment) {
+        try {
+            this.segment = segment;
+            this.channel = FileChannel.open(segmentPath(segment),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            this.dirty = false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void append(LedgerEntry entry) {
+        if (buffer.remaining() < RECORD_SIZE) {
+            roll();
+        }
+        buffer.putLong(entry.getSequence());
+        buffer.put(entry.isTombstone() ? TOMBSTONE : (byte) (entry.getTransactionType().ordinal() + 1));
+        buffer.put(encodeKey(entry.getAccountNumber()));
+        buffer.put(encodeKey(entry.getTransactionId()));
+        buffer.position(buffer.position() + 3);
+        buffer.putLong(entry.getAccountId());
+        buffer.putLong(entry.getAmount());
+        buffer.putLong(entry.getBalanceSnapshot());
+        buffer.putLong(toEpochMillis(entry.getTransactedAt()));
+        dirty = true;
+    }
+
+    void force() {
+        if (dirty) {
+            buffer.force();
+            dirty = false;
+        }
+    }
+
+    /**
+     * 현재 세그먼트를 닫고 다음 세그먼트를 연다.
+     *
+     * @return 닫힌 세그먼트 번호
+     */
+    int roll() {
+        int closed = segment;
+        close();
+        open(closed + 1);
+        return closed;
+    }
+
+    void deleteUpTo(int segment) {
+        for (Path path : listSegments()) {
+            if (segmentNumber(path) <= segment) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.error("Failed to delete journal segment : {}", path, e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            channel = null;
+            buffer = null;
+        }
+    }
+
+    private static LedgerEntry read(ByteBuffer buffer) {
+        int start = buffer.position();
+        long sequence = buffer.getLong();
+        if (sequence == 0) {
+            return null;
+        }
+        byte type = buffer.get();
+        TransactionType transactionType = type == TOMBSTONE ? null : TransactionType.values()[type - 1];
+        String accountNumber = decodeKey(buffer);
+        String transactionId = decodeKey(buffer);
+        buffer.position(start + 32);
+        long accountId = buffer.getLong();
+        long amount = buffer.getLong();
+        long balanceSnapshot = buffer.getLong();
+        LocalDateTime transactedAt = fromEpochMillis(buffer.getLong());
+        return new LedgerEntry(sequence, transactionType, accountNumber, transactionId,
+                accountId, amount, balanceSnapshot, transactedAt);
+    }
+
+    private static byte[] encodeKey(String key) {
+        if (key == null) {
+            return new byte[KEY_LENGTH];
+        }
+        byte[] bytes = key.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length != KEY_LENGTH) {
+            throw new IllegalArgumentException("journal key must be " + KEY_LENGTH + " characters : " + key);
+        }
+        return bytes;
+    }
+
+    private static String decodeKey(ByteBuffer buffer) {
+        byte[] bytes = new byte[KEY_LENGTH];
+        buffer.get(bytes);
+        return bytes[0] == 0 ? null : new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromEpochMillis(long epochMillis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000L),
+                (int) Math.floorMod(epochMillis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    private List<Path> listSegments() {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path segmentPath(int segment) {
+        return directory.resolve(String.format("%s%010d%s", PREFIX, segment, SUFFIX));
+    }
+
+    private static int segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.accountservice.ledger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 다중 생산자 / 단일 소비자 링 버퍼.
+ * 생산자는 시퀀스를 CAS 로 선점하고 슬롯을 채운 뒤 publish 하며, 소비자는 publish 된 순서대로 처리한다.
+ */
+class LedgerRingBuffer {
+    private final LedgerCommand[] slots;
+    private final int mask;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private volatile long consumed = -1;
+
+    LedgerRingBuffer(int size) {
+        if (Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("ring size must be a power of two");
+        }
+        this.slots = new LedgerCommand[size];
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new LedgerCommand();
+            published.set(i, -1);
+        }
+    }
+
+    long claim() {
+        long sequence = claimed.incrementAndGet();
+        while (sequence - slots.length > consumed) {
+            LockSupport.parkNanos(1_000L);
+        }
+        return sequence;
+    }
+
+    LedgerCommand get(long sequence) {
+        return slots[(int) (sequence & mask)];
+    }
+
+    void publish(long sequence) {
+        published.set((int) (sequence & mask), sequence);
+    }
+
+    boolean isPublished(long sequence) {
+        return published.get((int) (sequence & mask)) == sequence;
+    }
+
+    long getConsumed() {
+        return consumed;
+    }
+
+    long getClaimed() {
+        return claimed.get();
+    }
+
+    void markConsumed(long sequence) {
+        consumed = sequence;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.accountservice.ledger;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.accountservice.type.TransactionResultType.SUCCESS;
+
+/**
+ * 엔진 상태를 Account / Transaction 테이블에 반영한다.
+ * 잔액, 거래 내역, 체크포인트 시퀀스를 한 트랜잭션으로 기록하므로 재시작 시 재생이 중복되지 않는다.
+ * 테이블에 없는 계좌의 레코드는 건너뛴다.
+ */
+class LedgerSnapshotStore {
+    private static final String CREATE_CHECKPOINT_SQL =
+            "create table if not exists ledger_checkpoint (id int primary key, last_sequence bigint not null)";
+    private static final String SELECT_CHECKPOINT_SQL =
+            "select last_sequence from ledger_checkpoint where id = 1";
+    private static final String UPDATE_CHECKPOINT_SQL =
+            "update ledger_checkpoint set last_sequence = ? where id = 1";
+    private static final String INSERT_CHECKPOINT_SQL =
+            "insert into ledger_checkpoint (id, last_sequence) values (1, ?)";
+    private static final String UPDATE_BALANCE_SQL =
+            "update account set balance = ?, version = version + 1, last_modified_date = ? where id = ?";
+    private static final String INSERT_TRANSACTION_SQL =
+            "insert into transaction (id, account_id, transaction_type, transaction_result_type, amount, " +
+                    "balance_snapshot, transaction_id, transacted_at, created_date, last_modified_date) " +
+                    "select next value for transaction_seq, a.id, ?, ?, ?, ?, ?, ?, ?, ? from account a where a.id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    LedgerSnapshotStore(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    long readCheckpoint() {
+        jdbcTemplate.execute(CREATE_CHECKPOINT_SQL);
+        List<Long> checkpoints = jdbcTemplate.queryForList(SELECT_CHECKPOINT_SQL, Long.class);
+        return checkpoints.isEmpty() ? 0L : checkpoints.get(0);
+    }
+
+    void write(long lastSequence, Map<Long, Long> balances, List<LedgerEntry> entries) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(UPDATE_BALANCE_SQL, new ArrayList<>(balances.entrySet()), batchSize,
+                    (ps, balance) -> {
+                        ps.setLong(1, balance.getValue());
+                        ps.setTimestamp(2, now);
+                        ps.setLong(3, balance.getKey());
+                    });
+            jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, entries, batchSize, (ps, entry) -> {
+                Timestamp transactedAt = Timestamp.valueOf(entry.getTransactedAt());
+                ps.setString(1, entry.getTransactionType().name());
+                ps.setString(2, SUCCESS.name());
+                ps.setLong(3, entry.getAmount());
+                ps.setLong(4, entry.getBalanceSnapshot());
+                ps.setString(5, entry.getTransactionId());
+                ps.setTimestamp(6, transactedAt);
+                ps.setTimestamp(7, transactedAt);
+                ps.setTimestamp(8, transactedAt);
+                ps.setLong(9, entry.getAccountId());
+            });
+            if (jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, lastSequence) == 0) {
+                jdbcTemplate.update(INSERT_CHECKPOINT_SQL, lastSequence);
+            }
+        });
+    }
+}
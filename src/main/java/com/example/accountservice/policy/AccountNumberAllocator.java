@@ -0,0 +1,5 @@
+package com.example.accountservice.policy;
+
+public interface AccountNumberAllocator {
+    String allocate();
+}
@@ -0,0 +1,74 @@
+package com.example.accountservice.policy;
+
+import com.example.accountservice.exception.AccountExceptionFactory;
+import com.example.accountservice.type.AccountStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import static com.example.accountservice.type.ErrorCode.*;
+
+/**
+ * 계좌 생성/해지와 잔액 사용/취소의 검증 규칙.
+ * JPA 엔티티와 R2DBC 조회 결과 모두에서 쓸 수 있도록 값만 받는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountPolicy {
+
+    public static final int MAX_ACCOUNT_PER_USER = 10;
+
+    private final AccountExceptionFactory accountExceptionFactory;
+
+    public void validateAccountCount(long accountCount) {
+        if (accountCount >= MAX_ACCOUNT_PER_USER) {
+            throw accountExceptionFactory.create(ACCOUNT_MAX_OVER);
+        }
+    }
+
+    public void validateDelete(Long userId, Long ownerId, AccountStatus accountStatus, Long balance) {
+        if (!Objects.equals(userId, ownerId)) {
+            throw accountExceptionFactory.create(USER_ACCOUNT_NOT_MATCHED);
+        }
+        if (accountStatus == AccountStatus.UNREGISTERED) {
+            throw accountExceptionFactory.create(ACCOUNT_ALREADY_UNREGISTERED);
+        }
+        if (balance > 0) {
+            throw accountExceptionFactory.create(ACCOUNT_BALANCE_NOT_EMPTY);
+        }
+    }
+
+    /**
+     * 소유자와 해지 상태는 되돌아가지 않으므로 잔액 없이 캐시된 값만으로도 검증할 수 있다.
+     */
+    public void validateOwner(Long userId, Long ownerId, AccountStatus accountStatus) {
+        if (!Objects.equals(userId, ownerId)) {
+            throw accountExceptionFactory.create(USER_ACCOUNT_NOT_MATCHED);
+        }
+        if (accountStatus != AccountStatus.IN_USE) {
+            throw accountExceptionFactory.create(ACCOUNT_ALREADY_UNREGISTERED);
+        }
+    }
+
+    public void validateUse(Long userId, Long ownerId, AccountStatus accountStatus, Long balance, Long amount) {
+        validateOwner(userId, ownerId, accountStatus);
+        if (balance < amount) {
+            throw accountExceptionFactory.create(AMOUNT_EXCEED_BALANCE);
+        }
+    }
+
+    public void validateCancel(Long transactionAccountId, Long accountId,
+                               Long transactionAmount, LocalDateTime transactedAt, Long cancelAmount) {
+        if (!Objects.equals(transactionAccountId, accountId)) {
+            throw accountExceptionFactory.create(TRANSACTION_ACCOUNT_UN_MATCH);
+        }
+        if (!Objects.equals(transactionAmount, cancelAmount)) {
+            throw accountExceptionFactory.create(CANCEL_MUST_FULLY);
+        }
+        if (transactedAt.isBefore(LocalDateTime.now().minusYears(1))) {
+            throw accountExceptionFactory.create(TOO_OLD_ORDER_TO_CANCEL);
+        }
+    }
+}
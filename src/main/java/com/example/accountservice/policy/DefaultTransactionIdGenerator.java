@@ -1,10 +1,12 @@
 package com.example.accountservice.policy;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.util.UUID;
 
 @Component
+@ConditionalOnProperty(name = "transaction.id.generator", havingValue = "uuid")
 public class DefaultTransactionIdGenerator implements TransactionIdGenerator {
 
     private static final int MAX_UUID_GENERATE_LENGTH = 10;
@@ -15,4 +17,19 @@ public class DefaultTransactionIdGenerator implements TransactionIdGenerator {
                 .replace("-", "")
                 .substring(0, MAX_UUID_GENERATE_LENGTH);
     }
+
+    @Override
+    public boolean supportsSlot() {
+        return false;
+    }
+
+    @Override
+    public String generate(int slot) {
+        throw new UnsupportedOperationException("UUID transaction ids cannot encode a shard slot");
+    }
+
+    @Override
+    public int slotOf(String transactionId) {
+        throw new UnsupportedOperationException("UUID transaction ids cannot decode a shard slot");
+    }
 }
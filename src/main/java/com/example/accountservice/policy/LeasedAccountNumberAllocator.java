@@ -0,0 +1,77 @@
+package com.example.accountservice.policy;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 계좌번호를 블록 단위로 임대(lease)받아 메모리에서 lock-free 로 발급한다.
+ * 블록이 소진된 경우에만 {@link #leaseBlock(int)} 를 통해 저장소에 접근한다.
+ */
+public abstract class LeasedAccountNumberAllocator implements AccountNumberAllocator {
+
+    static final long ACCOUNT_NUMBER_BASE = 1_000_000_000L;
+    static final long ACCOUNT_NUMBER_MAX = 9_999_999_999L;
+
+    private final int blockSize;
+    // 임대 중에는 저장소 I/O 가 일어나므로 synchronized 대신 사용해 virtual thread 가 carrier 에 고정되지 않게 한다.
+    private final ReentrantLock renewLock = new ReentrantLock();
+    private volatile Block block = new Block(0, 0);
+
+    protected LeasedAccountNumberAllocator(int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be positive");
+        }
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public String allocate() {
+        while (true) {
+            Block current = block;
+            long sequence = current.next.getAndIncrement();
+            if (sequence < current.end) {
+                return toAccountNumber(sequence);
+            }
+            renew(current);
+        }
+    }
+
+    /**
+     * blockSize 만큼의 번호를 임대하고 블록의 시작 시퀀스(0부터 시작)를 반환한다.
+     */
+    protected abstract long leaseBlock(int blockSize);
+
+    protected static long toSequence(String accountNumber) {
+        return Long.parseLong(accountNumber) - ACCOUNT_NUMBER_BASE;
+    }
+
+    private void renew(Block exhausted) {
+        renewLock.lock();
+        try {
+            if (block == exhausted) {
+                long start = leaseBlock(blockSize);
+                block = new Block(start, start + blockSize);
+            }
+        } finally {
+            renewLock.unlock();
+        }
+    }
+
+    private static String toAccountNumber(long sequence) {
+        long accountNumber = ACCOUNT_NUMBER_BASE + sequence;
+        if (accountNumber > ACCOUNT_NUMBER_MAX) {
+            throw new IllegalStateException("account number exhausted");
+        }
+        return Long.toString(accountNumber);
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.accountservice.policy;
+
+import com.example.accountservice.repository.AccountRepository;
+import com.example.accountservice.shard.ShardRouter;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "account.number.allocator", havingValue = "redis", matchIfMissing = true)
+public class RedisAccountNumberAllocator extends LeasedAccountNumberAllocator {
+
+    private static final String COUNTER_KEY = "ACNO:SEQ";
+
+    private final RedissonClient redissonClient;
+    private final AccountRepository accountRepository;
+    private final ShardRouter shardRouter;
+
+    public RedisAccountNumberAllocator(RedissonClient redissonClient,
+                                       AccountRepository accountRepository,
+                                       ShardRouter shardRouter,
+                                       @Value("${account.number.block-size:100}") int blockSize) {
+        super(blockSize);
+        this.redissonClient = redissonClient;
+        this.accountRepository = accountRepository;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    protected long leaseBlock(int blockSize) {
+        RAtomicLong counter = redissonClient.getAtomicLong(COUNTER_KEY);
+        if (!counter.isExists()) {
+            counter.compareAndSet(0, nextSequenceFromStorage());
+        }
+        return counter.addAndGet(blockSize) - blockSize;
+    }
+
+    /**
+     * 계좌번호는 고정 길이 숫자이므로 문자열 정렬로 가장 큰 번호를 찾는다.
+     * 샤딩 중에는 샤드마다 가장 큰 번호를 찾아 그중 최댓값 다음부터 발급한다.
+     */
+    private long nextSequenceFromStorage() {
+        return shardRouter.scatter(() -> accountRepository.findFirstByOrderByAccountNumberDesc()
+                        .map(account -> toSequence(account.getAccountNumber()) + 1)
+                        .stream()
+                        .collect(Collectors.toList()))
+                .stream()
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(0L);
+    }
+}
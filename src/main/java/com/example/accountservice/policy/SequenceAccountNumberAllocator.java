@@ -0,0 +1,49 @@
+package com.example.accountservice.policy;
+
+import com.example.accountservice.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+@Component
+@ConditionalOnProperty(name = "account.number.allocator", havingValue = "sequence")
+public class SequenceAccountNumberAllocator extends LeasedAccountNumberAllocator {
+
+    private static final String SEQUENCE_NAME = "account_number_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AccountRepository accountRepository;
+    private final int blockSize;
+
+    public SequenceAccountNumberAllocator(JdbcTemplate jdbcTemplate,
+                                          AccountRepository accountRepository,
+                                          @Value("${account.number.block-size:100}") int blockSize) {
+        super(blockSize);
+        this.jdbcTemplate = jdbcTemplate;
+        this.accountRepository = accountRepository;
+        this.blockSize = blockSize;
+    }
+
+    @PostConstruct
+    public void createSequence() {
+        long start = accountRepository.findFirstByOrderByAccountNumberDesc()
+                .map(account -> toSequence(account.getAccountNumber()) + 1)
+                .orElse(0L);
+
+        jdbcTemplate.execute("create sequence if not exists " + SEQUENCE_NAME
+                + " start with " + start + " increment by " + blockSize + " minvalue 0");
+    }
+
+    @Override
+    protected long leaseBlock(int blockSize) {
+        Long start = jdbcTemplate.queryForObject(
+                "select next value for " + SEQUENCE_NAME, Long.class);
+        if (start == null) {
+            throw new IllegalStateException("account number sequence returned null");
+        }
+        return start;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.accountservice.policy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * timestamp(41bit) + nodeId(8bit) + sequence(10bit) 를 고정 10자리 base-62 로 인코딩한다.
+ * 같은 노드에서 발급된 아이디는 유일하며 발급 순서대로 정렬된다.
+ * 샤드 슬롯을 담을 때는 node 자리의 상위 slot-bits 에 슬롯, 나머지에 nodeId 를 넣는다.
+ */
+@Component
+@ConditionalOnProperty(name = "transaction.id.generator", havingValue = "snowflake", matchIfMissing = true)
+public class SnowflakeTransactionIdGenerator implements TransactionIdGenerator {
+
+    static final long EPOCH = 1640995200000L; // 2022-01-01T00:00:00Z
+
+    static final int NODE_BITS = 8;
+    static final int SEQUENCE_BITS = 10;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final int ID_LENGTH = 10;
+    private static final char[] ALPHABET =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private final long nodeId;
+    private final int slotBits;
+    private final LongSupplier clock;
+
+    // (timestamp << SEQUENCE_BITS) | sequence
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public SnowflakeTransactionIdGenerator(@Value("${transaction.id.node-id:0}") long nodeId,
+                                           @Value("${account.shard.slot-bits:6}") int slotBits) {
+        this(nodeId, slotBits, System::currentTimeMillis);
+    }
+
+    public SnowflakeTransactionIdGenerator(long nodeId) {
+        this(nodeId, 0, System::currentTimeMillis);
+    }
+
+    SnowflakeTransactionIdGenerator(long nodeId, LongSupplier clock) {
+        this(nodeId, 0, clock);
+    }
+
+    SnowflakeTransactionIdGenerator(long nodeId, int slotBits, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("nodeId must be between 0 and " + MAX_NODE_ID);
+        }
+        if (slotBits < 0 || slotBits > NODE_BITS) {
+            throw new IllegalArgumentException("slotBits must be between 0 and " + NODE_BITS);
+        }
+        this.nodeId = nodeId;
+        this.slotBits = slotBits;
+        this.clock = clock;
+    }
+
+    @Override
+    public String generate() {
+        return generateWithNode(nodeId);
+    }
+
+    /**
+     * 슬롯이 node 자리의 상위 비트를 쓰므로 nodeId 가 나머지 비트 안에 들어가야 한다.
+     */
+    @Override
+    public boolean supportsSlot() {
+        return nodeId >>> (NODE_BITS - slotBits) == 0;
+    }
+
+    @Override
+    public String generate(int slot) {
+        if (slot < 0 || slot >= 1 << slotBits) {
+            throw new IllegalArgumentException("slot must be between 0 and " + ((1 << slotBits) - 1));
+        }
+        if (!supportsSlot()) {
+            throw new UnsupportedOperationException("nodeId must be below " + (1 << (NODE_BITS - slotBits))
+                    + " to encode a shard slot");
+        }
+        return generateWithNode(((long) slot << (NODE_BITS - slotBits)) | nodeId);
+    }
+
+    @Override
+    public int slotOf(String transactionId) {
+        long node = (decode(transactionId) >>> SEQUENCE_BITS) & MAX_NODE_ID;
+        return (int) (node >>> (NODE_BITS - slotBits));
+    }
+
+    private String generateWithNode(long node) {
+        long state = nextState();
+        long timestamp = state >>> SEQUENCE_BITS;
+        long id = (timestamp << (NODE_BITS + SEQUENCE_BITS))
+                | (node << SEQUENCE_BITS)
+                | (state & SEQUENCE_MASK);
+        return encode(id);
+    }
+
+    /**
+     * 현재 시각과 직전 상태 + 1 중 큰 값을 사용하므로 시퀀스가 넘치거나 시계가 뒤로 가도
+     * 다음 밀리초를 앞당겨 쓸 뿐 중복이나 역순이 발생하지 않는다.
+     */
+    private long nextState() {
+        long now = (clock.getAsLong() - EPOCH) << SEQUENCE_BITS;
+        while (true) {
+            long last = lastState.get();
+            long next = Math.max(last + 1, now);
+            if (lastState.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    static String encode(long id) {
+        char[] chars = new char[ID_LENGTH];
+        for (int i = ID_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id % ALPHABET.length)];
+            id /= ALPHABET.length;
+        }
+        return new String(chars);
+    }
+
+    static long decode(String transactionId) {
+        if (transactionId == null || transactionId.length() != ID_LENGTH) {
+            throw new IllegalArgumentException("transactionId must be " + ID_LENGTH + " characters");
+        }
+        long id = 0;
+        for (int i = 0; i < ID_LENGTH; i++) {
+            int digit = indexOf(transactionId.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("transactionId must be base-62");
+            }
+            id = id * ALPHABET.length + digit;
+        }
+        return id;
+    }
+
+    private static int indexOf(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 36;
+        }
+        return -1;
+    }
+}
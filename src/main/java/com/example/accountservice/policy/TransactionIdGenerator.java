@@ -2,4 +2,19 @@ package com.example.accountservice.policy;
 
 public interface TransactionIdGenerator {
     String generate();
+
+    /**
+     * 아이디에 샤드 슬롯을 담을 수 있는지. 샤딩을 켤 때 확인한다.
+     */
+    boolean supportsSlot();
+
+    /**
+     * 계좌가 속한 샤드 슬롯을 아이디에 담는다. supportsSlot 이 false 이면 UnsupportedOperationException 을 던진다.
+     */
+    String generate(int slot);
+
+    /**
+     * 아이디에 담긴 샤드 슬롯을 꺼낸다. 슬롯을 읽을 수 없는 아이디면 IllegalArgumentException 을 던진다.
+     */
+    int slotOf(String transactionId);
 }
@@ -0,0 +1,7 @@
+package com.example.accountservice.repository;
+
+public interface AccountBalanceProjection {
+    Long getId();
+
+    Long getBalance();
+}
@@ -0,0 +1,11 @@
+package com.example.accountservice.repository;
+
+import com.example.accountservice.type.AccountStatus;
+
+public interface AccountOwnerProjection {
+    Long getId();
+
+    Long getOwnerId();
+
+    AccountStatus getAccountStatus();
+}
@@ -3,6 +3,8 @@ package com.example.accountservice.repository;
 import com.example.accountservice.domain.Account;
 import com.example.accountservice.domain.AccountUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,9 +13,26 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 
     Integer countByAccountUser(AccountUser accountUser);
 
-    Optional<Account> findFirstByOrderByIdDesc();
+    Optional<Account> findFirstByOrderByAccountNumberDesc();
 
     Optional<Account> findByAccountNumber(String accountNumber);
 
     List<Account> findAllByAccountUser(AccountUser accountUser);
+
+    @Query(value = "select id, balance from final table (" +
+            "update account set balance = balance - :amount, version = version + 1 " +
+            "where account_number = :accountNumber " +
+            "and user_id = :userId " +
+            "and account_status = 'IN_USE' " +
+            "and balance >= :amount)", nativeQuery = true)
+    Optional<AccountBalanceProjection> debitBalance(@Param("accountNumber") String accountNumber,
+                                                    @Param("userId") Long userId,
+                                                    @Param("amount") Long amount);
+
+    @Query("select a.id as id, a.balance as balance from Account a where a.accountNumber = :accountNumber")
+    Optional<AccountBalanceProjection> findBalanceByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    @Query("select a.id as id, a.accountUser.id as ownerId, a.accountStatus as accountStatus " +
+            "from Account a where a.accountNumber = :accountNumber")
+    Optional<AccountOwnerProjection> findOwnerByAccountNumber(@Param("accountNumber") String accountNumber);
 }
@@ -0,0 +1,29 @@
+package com.example.accountservice.repository;
+
+import com.example.accountservice.dto.TransactionDto;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 잔액 사용과 거래 조회처럼 요청마다 실행되는 쿼리만 모은 저장소.
+ * account.repository.mode 로 JPA 구현(jpa, 기본값)과 JdbcTemplate 구현(jdbc) 중 하나를 고른다.
+ * 두 구현은 BalanceRepositoryConformanceTest 로 같은 결과를 내는지 확인한다.
+ */
+public interface BalanceRepository {
+
+    /**
+     * 사용 중인 본인 계좌의 잔액이 충분할 때만 차감하고 version 을 올린다.
+     * 차감된 계좌의 id 와 차감 후 잔액을 같은 문장(H2 의 FINAL TABLE)에서 돌려주고, 차감하지 않았으면 빈 값이다.
+     */
+    Optional<AccountBalanceProjection> debitBalance(String accountNumber, Long userId, Long amount);
+
+    Optional<AccountBalanceProjection> findBalanceByAccountNumber(String accountNumber);
+
+    Optional<TransactionDto> findByTransactionId(String transactionId);
+
+    /**
+     * 같은 계좌의 거래를 한 번에 저장한다. accountNumber 는 쓰지 않고 accountId 로 연결한다.
+     */
+    void insertTransactions(Long accountId, List<TransactionDto> transactions);
+}
@@ -0,0 +1,104 @@
+package com.example.accountservice.repository;
+
+import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.type.TransactionResultType;
+import com.example.accountservice.type.TransactionType;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * BalanceRepository 의 JdbcTemplate 구현. 행을 바로 DTO 로 옮기므로 엔티티 스냅샷, dirty checking, 연관관계 로딩이 없다.
+ * SQL 은 상수로 고정해 드라이버의 문장 캐시(H2 는 세션별 쿼리 캐시)를 그대로 타고,
+ * 거래 저장은 batch-size 단위 JDBC 배치로 보낸다.
+ * JPA 트랜잭션 안에서 호출되면 같은 커넥션을 쓰므로 JPA 로 읽고 쓴 내용과 섞여도 된다.
+ * 거래 id 는 Hibernate 와 같은 transaction_seq 에서 받는다. 한 번 받은 값은 Hibernate 가 할당 범위로 쓰지 않는다.
+ */
+@Repository
+@ConditionalOnProperty(name = "account.repository.mode", havingValue = "jdbc")
+public class JdbcBalanceRepository implements BalanceRepository {
+
+    private static final String DEBIT_BALANCE_SQL =
+            "select id, balance from final table (update account set balance = balance - ?, version = version + 1 " +
+                    "where account_number = ? and user_id = ? and account_status = 'IN_USE' and balance >= ?)";
+    private static final String FIND_BALANCE_SQL =
+            "select id, balance from account where account_number = ?";
+    private static final String FIND_TRANSACTION_SQL =
+            "select a.account_number, t.transaction_type, t.transaction_result_type, t.amount, " +
+                    "t.balance_snapshot, t.transaction_id, t.transacted_at " +
+                    "from transaction t join account a on a.id = t.account_id where t.transaction_id = ?";
+    private static final String INSERT_TRANSACTION_SQL =
+            "insert into transaction (id, account_id, transaction_type, transaction_result_type, amount, " +
+                    "balance_snapshot, transaction_id, transacted_at, created_date, last_modified_date) " +
+                    "values (next value for transaction_seq, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final RowMapper<AccountBalanceProjection> BALANCE_MAPPER = (rs, rowNum) ->
+            new AccountBalance(rs.getLong("id"), rs.getLong("balance"));
+
+    private static final RowMapper<TransactionDto> TRANSACTION_MAPPER = (rs, rowNum) -> TransactionDto.builder()
+            .accountNumber(rs.getString("account_number"))
+            .transactionType(TransactionType.valueOf(rs.getString("transaction_type")))
+            .transactionResultType(TransactionResultType.valueOf(rs.getString("transaction_result_type")))
+            .amount(rs.getLong("amount"))
+            .balanceSnapshot(rs.getObject("balance_snapshot", Long.class))
+            .transactionId(rs.getString("transaction_id"))
+            .transactedAt(rs.getTimestamp("transacted_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public JdbcBalanceRepository(JdbcTemplate jdbcTemplate,
+                                 @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Optional<AccountBalanceProjection> debitBalance(String accountNumber, Long userId, Long amount) {
+        return jdbcTemplate.query(DEBIT_BALANCE_SQL, BALANCE_MAPPER, amount, accountNumber, userId, amount)
+                .stream().findFirst();
+    }
+
+    @Override
+    public Optional<AccountBalanceProjection> findBalanceByAccountNumber(String accountNumber) {
+        return jdbcTemplate.query(FIND_BALANCE_SQL, BALANCE_MAPPER, accountNumber).stream().findFirst();
+    }
+
+    @Override
+    public Optional<TransactionDto> findByTransactionId(String transactionId) {
+        return jdbcTemplate.query(FIND_TRANSACTION_SQL, TRANSACTION_MAPPER, transactionId).stream().findFirst();
+    }
+
+    @Override
+    public void insertTransactions(Long accountId, List<TransactionDto> transactions) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, transactions, batchSize, (ps, transaction) -> {
+            ps.setLong(1, accountId);
+            ps.setString(2, transaction.getTransactionType().name());
+            ps.setString(3, transaction.getTransactionResultType().name());
+            ps.setLong(4, transaction.getAmount());
+            ps.setLong(5, transaction.getBalanceSnapshot());
+            ps.setString(6, transaction.getTransactionId());
+            ps.setTimestamp(7, Timestamp.valueOf(transaction.getTransactedAt()));
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+        });
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class AccountBalance implements AccountBalanceProjection {
+        private final Long id;
+        private final Long balance;
+    }
+}
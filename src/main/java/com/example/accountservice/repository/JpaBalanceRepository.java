@@ -0,0 +1,56 @@
+package com.example.accountservice.repository;
+
+import com.example.accountservice.domain.Account;
+import com.example.accountservice.domain.Transaction;
+import com.example.accountservice.dto.TransactionDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.repository.mode", havingValue = "jpa", matchIfMissing = true)
+public class JpaBalanceRepository implements BalanceRepository {
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+
+    @Override
+    public Optional<AccountBalanceProjection> debitBalance(String accountNumber, Long userId, Long amount) {
+        return accountRepository.debitBalance(accountNumber, userId, amount);
+    }
+
+    @Override
+    public Optional<AccountBalanceProjection> findBalanceByAccountNumber(String accountNumber) {
+        return accountRepository.findBalanceByAccountNumber(accountNumber);
+    }
+
+    @Override
+    public Optional<TransactionDto> findByTransactionId(String transactionId) {
+        return transactionRepository.findByTransactionId(transactionId)
+                .map(TransactionDto::toResponse);
+    }
+
+    /**
+     * persist 단계 시간에 쓰기가 포함되도록 바로 flush 한다.
+     */
+    @Override
+    public void insertTransactions(Long accountId, List<TransactionDto> transactions) {
+        Account account = accountRepository.getReferenceById(accountId);
+        transactionRepository.saveAllAndFlush(transactions.stream()
+                .map(transaction -> Transaction.builder()
+                        .account(account)
+                        .transactionType(transaction.getTransactionType())
+                        .transactionResultType(transaction.getTransactionResultType())
+                        .amount(transaction.getAmount())
+                        .balanceSnapshot(transaction.getBalanceSnapshot())
+                        .transactionId(transaction.getTransactionId())
+                        .transactedAt(transaction.getTransactedAt())
+                        .build())
+                .collect(Collectors.toList()));
+    }
+}
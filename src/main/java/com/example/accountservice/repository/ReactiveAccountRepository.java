@@ -0,0 +1,156 @@
+package com.example.accountservice.repository;
+
+import com.example.accountservice.dto.AccountDto;
+import com.example.accountservice.type.AccountStatus;
+import io.r2dbc.spi.Row;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * AccountRepository 와 AccountUserRepository 의 R2DBC 버전.
+ * 같은 테이블을 쓰므로 잔액을 바꾸는 쿼리는 JPA 의 낙관적 락과 어긋나지 않도록 version 도 함께 올린다.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAccountRepository {
+
+    private static final String COLUMNS = "id, user_id, account_number, account_status, balance, " +
+            "registered_at, un_registered_at ";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Boolean> existsAccountUser(Long userId) {
+        return databaseClient.sql("select count(*) from account_user where id = :userId")
+                .bind("userId", userId)
+                .map(row -> row.get(0, Long.class) > 0)
+                .one();
+    }
+
+    public Mono<Long> countByUserId(Long userId) {
+        return databaseClient.sql("select count(*) from account where user_id = :userId")
+                .bind("userId", userId)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<AccountRow> findByAccountNumber(String accountNumber) {
+        return databaseClient.sql("select " + COLUMNS + "from account where account_number = :accountNumber")
+                .bind("accountNumber", accountNumber)
+                .map((row, metadata) -> AccountRow.from(row))
+                .one();
+    }
+
+    public Flux<AccountRow> findAllByUserId(Long userId) {
+        return databaseClient.sql("select " + COLUMNS + "from account where user_id = :userId order by id")
+                .bind("userId", userId)
+                .map((row, metadata) -> AccountRow.from(row))
+                .all();
+    }
+
+    public Mono<AccountRow> insert(Long userId, String accountNumber, Long balance, LocalDateTime registeredAt) {
+        return databaseClient.sql("insert into account (id, user_id, account_number, account_status, balance, " +
+                        "registered_at, version, created_date, last_modified_date) " +
+                        "values (next value for hibernate_sequence, :userId, :accountNumber, :accountStatus, " +
+                        ":balance, :registeredAt, 0, :now, :now)")
+                .bind("userId", userId)
+                .bind("accountNumber", accountNumber)
+                .bind("accountStatus", AccountStatus.IN_USE.name())
+                .bind("balance", balance)
+                .bind("registeredAt", registeredAt)
+                .bind("now", registeredAt)
+                .then()
+                .then(findByAccountNumber(accountNumber));
+    }
+
+    /**
+     * AccountRepository.debitBalance 와 같은 조건부 차감. 차감된 행 수를 돌려준다.
+     */
+    public Mono<Integer> debitBalance(String accountNumber, Long userId, Long amount) {
+        return databaseClient.sql("update account set balance = balance - :amount, version = version + 1, " +
+                        "last_modified_date = :now " +
+                        "where account_number = :accountNumber and user_id = :userId " +
+                        "and account_status = 'IN_USE' and balance >= :amount")
+                .bind("amount", amount)
+                .bind("now", LocalDateTime.now())
+                .bind("accountNumber", accountNumber)
+                .bind("userId", userId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> creditBalance(Long accountId, Long amount) {
+        return databaseClient.sql("update account set balance = balance + :amount, version = version + 1, " +
+                        "last_modified_date = :now where id = :accountId")
+                .bind("amount", amount)
+                .bind("now", LocalDateTime.now())
+                .bind("accountId", accountId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> unregister(Long accountId, LocalDateTime unRegisteredAt) {
+        return databaseClient.sql("update account set account_status = :accountStatus, " +
+                        "un_registered_at = :unRegisteredAt, version = version + 1, last_modified_date = :unRegisteredAt " +
+                        "where id = :accountId")
+                .bind("accountStatus", AccountStatus.UNREGISTERED.name())
+                .bind("unRegisteredAt", unRegisteredAt)
+                .bind("accountId", accountId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    @Getter
+    public static class AccountRow {
+        private final Long id;
+        private final Long userId;
+        private final String accountNumber;
+        private final AccountStatus accountStatus;
+        private final Long balance;
+        private final LocalDateTime registeredAt;
+        private final LocalDateTime unRegisteredAt;
+
+        @Builder
+        private AccountRow(Long id, Long userId, String accountNumber, AccountStatus accountStatus, Long balance,
+                           LocalDateTime registeredAt, LocalDateTime unRegisteredAt) {
+            this.id = id;
+            this.userId = userId;
+            this.accountNumber = accountNumber;
+            this.accountStatus = accountStatus;
+            this.balance = balance;
+            this.registeredAt = registeredAt;
+            this.unRegisteredAt = unRegisteredAt;
+        }
+
+        private static AccountRow from(Row row) {
+            return AccountRow.builder()
+                    .id(row.get("id", Long.class))
+                    .userId(row.get("user_id", Long.class))
+                    .accountNumber(row.get("account_number", String.class))
+                    .accountStatus(AccountStatus.valueOf(row.get("account_status", String.class)))
+                    .balance(row.get("balance", Long.class))
+                    .registeredAt(row.get("registered_at", LocalDateTime.class))
+                    .unRegisteredAt(row.get("un_registered_at", LocalDateTime.class))
+                    .build();
+        }
+
+        public AccountDto toDto() {
+            return AccountDto.builder()
+                    .userId(userId)
+                    .accountNumber(accountNumber)
+                    .accountStatus(accountStatus)
+                    .balance(balance)
+                    .registeredAt(registeredAt)
+                    .unRegisteredAt(unRegisteredAt)
+                    .build();
+        }
+    }
+}
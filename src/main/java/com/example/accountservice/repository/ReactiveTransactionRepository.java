@@ -0,0 +1,105 @@
+package com.example.accountservice.repository;
+
+import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.type.TransactionResultType;
+import com.example.accountservice.type.TransactionType;
+import io.r2dbc.spi.Row;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * TransactionRepository 의 R2DBC 버전. 거래 조회는 계좌번호를 함께 읽도록 계좌를 조인한다.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTransactionRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<TransactionRow> findByTransactionId(String transactionId) {
+        return databaseClient.sql("select t.account_id, a.account_number, t.transaction_type, " +
+                        "t.transaction_result_type, t.amount, t.balance_snapshot, t.transaction_id, t.transacted_at " +
+                        "from transaction t join account a on a.id = t.account_id " +
+                        "where t.transaction_id = :transactionId")
+                .bind("transactionId", transactionId)
+                .map((row, metadata) -> TransactionRow.from(row))
+                .one();
+    }
+
+    public Mono<Void> insert(Long accountId, TransactionDto transaction) {
+        return databaseClient.sql("insert into transaction (id, account_id, transaction_type, " +
+                        "transaction_result_type, amount, balance_snapshot, transaction_id, transacted_at, " +
+                        "created_date, last_modified_date) " +
+                        "values (next value for transaction_seq, :accountId, :transactionType, " +
+                        ":transactionResultType, :amount, :balanceSnapshot, :transactionId, :transactedAt, " +
+                        ":transactedAt, :transactedAt)")
+                .bind("accountId", accountId)
+                .bind("transactionType", transaction.getTransactionType().name())
+                .bind("transactionResultType", transaction.getTransactionResultType().name())
+                .bind("amount", transaction.getAmount())
+                .bind("balanceSnapshot", transaction.getBalanceSnapshot())
+                .bind("transactionId", transaction.getTransactionId())
+                .bind("transactedAt", transaction.getTransactedAt())
+                .then();
+    }
+
+    @Getter
+    public static class TransactionRow {
+        private final Long accountId;
+        private final String accountNumber;
+        private final TransactionType transactionType;
+        private final TransactionResultType transactionResultType;
+        private final Long amount;
+        private final Long balanceSnapshot;
+        private final String transactionId;
+        private final LocalDateTime transactedAt;
+
+        @Builder
+        private TransactionRow(Long accountId, String accountNumber, TransactionType transactionType,
+                               TransactionResultType transactionResultType, Long amount, Long balanceSnapshot,
+                               String transactionId, LocalDateTime transactedAt) {
+            this.accountId = accountId;
+            this.accountNumber = accountNumber;
+            this.transactionType = transactionType;
+            this.transactionResultType = transactionResultType;
+            this.amount = amount;
+            this.balanceSnapshot = balanceSnapshot;
+            this.transactionId = transactionId;
+            this.transactedAt = transactedAt;
+        }
+
+        private static TransactionRow from(Row row) {
+            return TransactionRow.builder()
+                    .accountId(row.get("account_id", Long.class))
+                    .accountNumber(row.get("account_number", String.class))
+                    .transactionType(TransactionType.valueOf(row.get("transaction_type", String.class)))
+                    .transactionResultType(TransactionResultType.valueOf(
+                            row.get("transaction_result_type", String.class)))
+                    .amount(row.get("amount", Long.class))
+                    .balanceSnapshot(row.get("balance_snapshot", Long.class))
+                    .transactionId(row.get("transaction_id", String.class))
+                    .transactedAt(row.get("transacted_at", LocalDateTime.class))
+                    .build();
+        }
+
+        public TransactionDto toDto() {
+            return TransactionDto.builder()
+                    .accountNumber(accountNumber)
+                    .transactionType(transactionType)
+                    .transactionResultType(transactionResultType)
+                    .amount(amount)
+                    .balanceSnapshot(balanceSnapshot)
+                    .transactionId(transactionId)
+                    .transactedAt(transactedAt)
+                    .build();
+        }
+    }
+}
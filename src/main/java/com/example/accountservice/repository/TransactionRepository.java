@@ -1,11 +1,17 @@
 package com.example.accountservice.repository;
 
 import com.example.accountservice.domain.Transaction;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
 
+    @EntityGraph(attributePaths = "account")
     Optional<Transaction> findByTransactionId(String transactionId);
+
+    List<Transaction> findAllByTransactionIdIn(Collection<String> transactionIds);
 }
@@ -0,0 +1,19 @@
+package com.example.accountservice.repository;
+
+import com.example.accountservice.dto.TransactionHistoryCondition;
+import com.example.accountservice.dto.TransactionExportDto;
+import com.example.accountservice.dto.TransactionHistoryDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TransactionRepositoryCustom {
+
+    List<TransactionHistoryDto> findHistory(Long accountId, TransactionHistoryCondition condition, int limit);
+
+    /**
+     * 전진 전용 커서로 조회한다. 호출 측 트랜잭션 안에서 소비하고 닫아야 한다.
+     */
+    Stream<TransactionExportDto> streamExport(Long accountId, LocalDateTime from, LocalDateTime to, int fetchSize);
+}
@@ -0,0 +1,103 @@
+package com.example.accountservice.repository;
+
+import com.example.accountservice.dto.TransactionHistoryCondition;
+import com.example.accountservice.dto.TransactionExportDto;
+import com.example.accountservice.dto.TransactionHistoryDto;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.QueryHints;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * (account_id, transacted_at, id) 인덱스를 역순으로 따라가는 keyset 페이지네이션.
+ * 조건이 주어진 필터만 where 절에 넣어 인덱스 범위 스캔을 방해하지 않는다.
+ */
+@RequiredArgsConstructor
+public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<TransactionHistoryDto> findHistory(Long accountId, TransactionHistoryCondition condition, int limit) {
+        StringBuilder jpql = new StringBuilder(
+                "select new com.example.accountservice.dto.TransactionHistoryDto(" +
+                        "t.id, t.transactionType, t.transactionResultType, t.amount, " +
+                        "t.balanceSnapshot, t.transactionId, t.transactedAt) " +
+                        "from Transaction t where t.account.id = :accountId");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("accountId", accountId);
+
+        if (condition.getCursorTransactedAt() != null && condition.getCursorId() != null) {
+            jpql.append(" and (t.transactedAt < :cursorTransactedAt" +
+                    " or (t.transactedAt = :cursorTransactedAt and t.id < :cursorId))");
+            parameters.put("cursorTransactedAt", condition.getCursorTransactedAt());
+            parameters.put("cursorId", condition.getCursorId());
+        }
+        if (condition.getFrom() != null) {
+            jpql.append(" and t.transactedAt >= :from");
+            parameters.put("from", condition.getFrom());
+        }
+        if (condition.getTo() != null) {
+            jpql.append(" and t.transactedAt < :to");
+            parameters.put("to", condition.getTo());
+        }
+        if (condition.getTransactionType() != null) {
+            jpql.append(" and t.transactionType = :transactionType");
+            parameters.put("transactionType", condition.getTransactionType());
+        }
+        if (condition.getTransactionResultType() != null) {
+            jpql.append(" and t.transactionResultType = :transactionResultType");
+            parameters.put("transactionResultType", condition.getTransactionResultType());
+        }
+        if (condition.getMinAmount() != null) {
+            jpql.append(" and t.amount >= :minAmount");
+            parameters.put("minAmount", condition.getMinAmount());
+        }
+        if (condition.getMaxAmount() != null) {
+            jpql.append(" and t.amount <= :maxAmount");
+            parameters.put("maxAmount", condition.getMaxAmount());
+        }
+        jpql.append(" order by t.transactedAt desc, t.id desc");
+
+        TypedQuery<TransactionHistoryDto> query = entityManager.createQuery(jpql.toString(), TransactionHistoryDto.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<TransactionExportDto> streamExport(Long accountId, LocalDateTime from, LocalDateTime to, int fetchSize) {
+        StringBuilder jpql = new StringBuilder(
+                "select new com.example.accountservice.dto.TransactionExportDto(" +
+                        "t.transactionId, a.accountNumber, t.transactionType, t.transactionResultType, " +
+                        "t.amount, t.balanceSnapshot, t.transactedAt) " +
+                        "from Transaction t join t.account a where 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (accountId != null) {
+            jpql.append(" and a.id = :accountId");
+            parameters.put("accountId", accountId);
+        }
+        if (from != null) {
+            jpql.append(" and t.transactedAt >= :from");
+            parameters.put("from", from);
+        }
+        if (to != null) {
+            jpql.append(" and t.transactedAt < :to");
+            parameters.put("to", to);
+        }
+        jpql.append(accountId != null ? " order by t.transactedAt, t.id" : " order by t.id");
+
+        TypedQuery<TransactionExportDto> query = entityManager.createQuery(jpql.toString(), TransactionExportDto.class);
+        parameters.forEach(query::setParameter);
+        return query
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream();
+    }
+}
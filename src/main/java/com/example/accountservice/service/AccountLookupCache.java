@@ -0,0 +1,107 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.domain.AccountUser;
+import com.example.accountservice.repository.AccountRepository;
+import com.example.accountservice.repository.AccountUserRepository;
+import com.example.accountservice.type.AccountStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 사용자와 계좌번호 → 계좌 id / 소유자 / 상태 매핑을 로컬에 캐시한다.
+ * 잔액은 캐시하지 않으므로 잔액 변경 시에는 무효화가 필요 없고, 계좌 생성 / 해지 시에만 무효화한다.
+ * 존재하지 않는 키는 캐시하지 않는다.
+ * 적중률과 크기는 cache.* 메트릭으로 cache=accountUsers, accounts 태그를 달아 내보낸다.
+ */
+@Component
+public class AccountLookupCache implements MeterBinder {
+
+    private final AccountUserRepository accountUserRepository;
+    private final AccountRepository accountRepository;
+    private final Cache<Long, AccountUser> accountUsers;
+    private final Cache<String, CachedAccount> accounts;
+
+    public AccountLookupCache(AccountUserRepository accountUserRepository,
+                              AccountRepository accountRepository,
+                              @Value("${account.cache.maximum-size:10000}") long maximumSize,
+                              @Value("${account.cache.expire-after-write-seconds:600}") long expireAfterWriteSeconds) {
+        this.accountUserRepository = accountUserRepository;
+        this.accountRepository = accountRepository;
+        this.accountUsers = newCache(maximumSize, expireAfterWriteSeconds);
+        this.accounts = newCache(maximumSize, expireAfterWriteSeconds);
+    }
+
+    public Optional<AccountUser> findAccountUser(Long userId) {
+        return Optional.ofNullable(accountUsers.get(userId,
+                id -> accountUserRepository.findById(id).orElse(null)));
+    }
+
+    public Optional<CachedAccount> findAccount(String accountNumber) {
+        return Optional.ofNullable(accounts.get(accountNumber,
+                number -> accountRepository.findOwnerByAccountNumber(number)
+                        .map(owner -> new CachedAccount(owner.getId(), owner.getOwnerId(), owner.getAccountStatus()))
+                        .orElse(null)));
+    }
+
+    /**
+     * 커밋 전에 다른 요청이 이전 상태를 다시 적재할 수 있으므로 트랜잭션 종료 후에도 한 번 더 무효화한다.
+     */
+    public void evictAccount(String accountNumber) {
+        accounts.invalidate(accountNumber);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    accounts.invalidate(accountNumber);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, accountUsers, "accountUsers");
+        CaffeineCacheMetrics.monitor(registry, accounts, "accounts");
+    }
+
+    public CacheStats accountUserStats() {
+        return accountUsers.stats();
+    }
+
+    public CacheStats accountStats() {
+        return accounts.stats();
+    }
+
+    private static <K, V> Cache<K, V> newCache(long maximumSize, long expireAfterWriteSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .build();
+    }
+
+    @Getter
+    public static class CachedAccount {
+        private final Long id;
+        private final Long ownerId;
+        private final AccountStatus accountStatus;
+
+        public CachedAccount(Long id, Long ownerId, AccountStatus accountStatus) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.accountStatus = accountStatus;
+        }
+    }
+}
@@ -1,22 +1,26 @@
 package com.example.accountservice.service;
 
 import com.example.accountservice.domain.Account;
+import com.example.accountservice.datasource.ReadAfterWriteGuard;
 import com.example.accountservice.domain.AccountUser;
 import com.example.accountservice.dto.AccountDto;
-import com.example.accountservice.exception.AccountException;
+import com.example.accountservice.exception.AccountExceptionFactory;
+import com.example.accountservice.ledger.LedgerEngine;
+import com.example.accountservice.policy.AccountNumberAllocator;
+import com.example.accountservice.policy.AccountPolicy;
 import com.example.accountservice.repository.AccountRepository;
-import com.example.accountservice.repository.AccountUserRepository;
+import com.example.accountservice.shard.ShardRouter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Objects;
 import java.util.stream.Collectors;
 
 import static com.example.accountservice.type.AccountStatus.IN_USE;
-import static com.example.accountservice.type.AccountStatus.UNREGISTERED;
 import static com.example.accountservice.type.ErrorCode.*;
 
 @RequiredArgsConstructor
@@ -24,23 +28,32 @@ import static com.example.accountservice.type.ErrorCode.*;
 @Service
 public class AccountService {
 
-    private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
-
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final LedgerEngine ledgerEngine;
+    private final AccountLookupCache accountLookupCache;
+    private final ReadAfterWriteGuard readAfterWriteGuard;
+    private final ShardRouter shardRouter;
+    private final AccountExceptionFactory accountExceptionFactory;
+    private final AccountPolicy accountPolicy;
+
+    /**
+     * 샤딩 중에는 계좌번호가 샤드를 정하므로 첫 쿼리 전에 번호를 먼저 발급한다.
+     * 발급기가 재시드되며 기존 번호와 겹치면 unique 제약 위반을 DUPLICATED_ACCOUNT_NUMBER 로 돌려준다.
+     */
     @Transactional
     public AccountDto createAccount(Long userId, Long initBalance) {
-        AccountUser findAccountUser = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
+        String shardedAccountNumber = shardRouter.isEnabled() ? allocateAccountNumber() : null;
 
-        accountCountValidate(findAccountUser);
+        AccountUser findAccountUser = accountLookupCache.findAccountUser(userId)
+                .orElseThrow(() -> accountExceptionFactory.create(USER_NOT_FOUND));
 
-        String accountNumber = accountRepository.findFirstByOrderByIdDesc()
-                .map(account -> Integer.parseInt(account.getAccountNumber()) + 1 + "")
-                .orElse("1000000000");
+        accountCountValidate(findAccountUser);
 
-        accountNumberDuplicateValidate(accountNumber);
+        String accountNumber = shardedAccountNumber != null ? shardedAccountNumber : allocateAccountNumber();
+        readAfterWriteGuard.markUserWritten(userId);
 
-        return AccountDto.toResponse(accountRepository.save(Account.builder()
+        return AccountDto.toResponse(saveAccount(Account.builder()
                 .accountUser(findAccountUser)
                 .accountNumber(accountNumber)
                 .accountStatus(IN_USE)
@@ -49,55 +62,71 @@ public class AccountService {
                 .build()));
     }
 
+    private Account saveAccount(Account account) {
+        try {
+            return accountRepository.saveAndFlush(account);
+        } catch (DataIntegrityViolationException e) {
+            throw accountExceptionFactory.create(DUPLICATED_ACCOUNT_NUMBER);
+        }
+    }
+
+    private String allocateAccountNumber() {
+        String accountNumber = accountNumberAllocator.allocate();
+        accountLookupCache.evictAccount(accountNumber);
+        shardRouter.routeAccount(accountNumber);
+        return accountNumber;
+    }
+
     @Transactional
     public AccountDto deleteAccount(Long userId, String accountNumber) {
-        AccountUser findAccountUser = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
+        shardRouter.routeAccount(accountNumber);
+        AccountUser findAccountUser = accountLookupCache.findAccountUser(userId)
+                .orElseThrow(() -> accountExceptionFactory.create(USER_NOT_FOUND));
+
+        if (ledgerEngine.isEnabled()) {
+            ledgerEngine.evict(accountNumber);
+        }
 
         Account findAccount = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+                .orElseThrow(() -> accountExceptionFactory.create(ACCOUNT_NOT_FOUND));
 
         validateDeleteAccount(findAccountUser, findAccount);
         findAccount.unRegistered();
+        accountLookupCache.evictAccount(accountNumber);
+        readAfterWriteGuard.markUserWritten(userId);
 
         return AccountDto.toResponse(findAccount);
     }
 
     private void validateDeleteAccount(AccountUser accountUser, Account account) {
-        if (!Objects.equals(accountUser.getId(), account.getAccountUser().getId())) {
-            throw new AccountException(USER_ACCOUNT_NOT_MATCHED);
-        }
-
-        if (account.getAccountStatus() == UNREGISTERED) {
-            throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
-        }
-
-        if (account.getBalance() > 0) {
-            throw new AccountException(ACCOUNT_BALANCE_NOT_EMPTY);
-        }
+        accountPolicy.validateDelete(accountUser.getId(), account.getAccountUser().getId(),
+                account.getAccountStatus(), account.getBalance());
     }
 
     public List<AccountDto> findAllAccount(Long userId) {
-        AccountUser findAccountUser = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
+        readAfterWriteGuard.readUser(userId);
+        AccountUser findAccountUser = accountLookupCache.findAccountUser(userId)
+                .orElseThrow(() -> accountExceptionFactory.create(USER_NOT_FOUND));
+
+        if (shardRouter.isEnabled()) {
+            return shardRouter.scatter(() -> findAllAccount(findAccountUser)).stream()
+                    .sorted(Comparator.comparing(AccountDto::getAccountNumber))
+                    .collect(Collectors.toList());
+        }
+        return findAllAccount(findAccountUser);
+    }
 
-        return accountRepository.findAllByAccountUser(findAccountUser)
+    private List<AccountDto> findAllAccount(AccountUser accountUser) {
+        return accountRepository.findAllByAccountUser(accountUser)
                 .stream().map(AccountDto::toResponse)
                 .collect(Collectors.toList());
     }
 
-
-    private void accountNumberDuplicateValidate(String accountNumber) {
-        accountRepository.findByAccountNumber(accountNumber)
-                .ifPresent(m -> {
-                    throw new AccountException(DUPLICATED_ACCOUNT_NUMBER);
-                });
-    }
-
     private void accountCountValidate(AccountUser accountUser) {
-        Integer accountCount = accountRepository.countByAccountUser(accountUser);
-        if (accountCount >= 10) {
-            throw new AccountException(ACCOUNT_MAX_OVER);
-        }
+        long accountCount = shardRouter.isEnabled()
+                ? shardRouter.scatter(() -> List.of(accountRepository.countByAccountUser(accountUser)))
+                .stream().mapToLong(Integer::longValue).sum()
+                : accountRepository.countByAccountUser(accountUser);
+        accountPolicy.validateAccountCount(accountCount);
     }
 }
@@ -0,0 +1,78 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.exception.AccountExceptionFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.example.accountservice.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+
+/**
+ * 비동기 락 모드에서 락을 획득한 뒤의 DB 작업을 실행하는 bounded executor.
+ * 요청 스레드는 락 대기와 DB 작업 모두를 기다리지 않고 반환되고,
+ * 큐가 가득 차면 작업을 거절하고 계좌 사용 중 오류로 응답한다.
+ * 스레드 수와 큐 길이는 account.lock.async.* 로 조정하고 account.lock.async 메트릭으로 관찰한다.
+ */
+@Slf4j
+@Component
+public class AsyncLockExecutor {
+
+    private final boolean enabled;
+    private final ThreadPoolExecutor executor;
+    private final AccountExceptionFactory accountExceptionFactory;
+
+    public AsyncLockExecutor(MeterRegistry meterRegistry,
+                             AccountExceptionFactory accountExceptionFactory,
+                             @Value("${account.lock.async.enabled:false}") boolean enabled,
+                             @Value("${account.lock.async.threads:32}") int threads,
+                             @Value("${account.lock.async.queue-capacity:1000}") int queueCapacity) {
+        this.accountExceptionFactory = accountExceptionFactory;
+        this.enabled = enabled;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "account-lock-async-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        if (enabled) {
+            new ExecutorServiceMetrics(executor, "account.lock.async", Collections.emptyList()).bindTo(meterRegistry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 작업을 실행기에 넣는다. 거절되면 실패한 future 를 돌려주므로 호출자는 항상 완료 콜백에서 정리할 수 있다.
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            log.error("Async lock executor saturated, active : {}, queued : {}",
+                    executor.getActiveCount(), executor.getQueue().size());
+            return CompletableFuture.failedFuture(accountExceptionFactory.create(ACCOUNT_TRANSACTION_LOCK));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Async lock executor did not terminate in time");
+        }
+    }
+}
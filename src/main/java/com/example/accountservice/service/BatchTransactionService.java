@@ -0,0 +1,114 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.dto.BatchBalance;
+import com.example.accountservice.dto.BatchTransactionDto;
+import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.exception.AccountException;
+import com.example.accountservice.ledger.LedgerEngine;
+import com.example.accountservice.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.example.accountservice.type.ErrorCode.SERVER_ERROR;
+import static com.example.accountservice.type.TransactionType.USE;
+
+/**
+ * 배치 요청을 계좌 단위로 묶어 계좌번호 순서대로 락을 획득하고,
+ * 계좌마다 하나의 DB 트랜잭션으로 처리한다.
+ * 원장 엔진이 켜져 있으면 잔액의 원본이 엔진 메모리에 있으므로 항목마다 엔진의 writer 로 보낸다.
+ * 예상하지 못한 예외는 다른 계좌 그룹으로 번지지 않도록 해당 그룹(원장 엔진은 해당 항목)만 SERVER_ERROR 로 돌려준다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchTransactionService {
+
+    private final LockService lockService;
+    private final TransactionService transactionService;
+    private final LedgerEngine ledgerEngine;
+    private final FailedTransactionRecorder failedTransactionRecorder;
+
+    public List<BatchTransactionDto> applyBatch(List<BatchBalance.Item> items) {
+        SortedMap<String, SortedMap<Integer, BatchBalance.Item>> groups = new TreeMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            BatchBalance.Item item = items.get(i);
+            groups.computeIfAbsent(item.getAccountNumber(), key -> new TreeMap<>()).put(i, item);
+        }
+
+        List<BatchTransactionDto> results = new ArrayList<>(items.size());
+        groups.forEach((accountNumber, group) -> results.addAll(applyGroup(accountNumber, group)));
+
+        return results.stream()
+                .sorted(Comparator.comparingInt(BatchTransactionDto::getIndex))
+                .collect(Collectors.toList());
+    }
+
+    private List<BatchTransactionDto> applyGroup(String accountNumber, SortedMap<Integer, BatchBalance.Item> group) {
+        if (ledgerEngine.isEnabled()) {
+            return applyOnLedger(group);
+        }
+
+        try {
+            lockService.lock(accountNumber);
+        } catch (AccountException e) {
+            return failAll(accountNumber, group, e.getErrorCode());
+        } catch (RuntimeException e) {
+            log.error("Failed to lock batch group of {}.", accountNumber, e);
+            return failAll(accountNumber, group, SERVER_ERROR);
+        }
+
+        try {
+            return transactionService.applyBatch(accountNumber, group);
+        } catch (AccountException e) {
+            return failAll(accountNumber, group, e.getErrorCode());
+        } catch (RuntimeException e) {
+            log.error("Failed to apply batch group of {}.", accountNumber, e);
+            return failAll(accountNumber, group, SERVER_ERROR);
+        } finally {
+            lockService.unlock(accountNumber);
+        }
+    }
+
+    /**
+     * writer 스레드가 계좌 변경을 한 줄로 세우므로 분산 락을 잡지 않는다.
+     * 실패한 항목은 /use, /cancel 과 같이 FailedTransactionRecorder 로 기록한다.
+     */
+    private List<BatchTransactionDto> applyOnLedger(SortedMap<Integer, BatchBalance.Item> group) {
+        List<BatchTransactionDto> results = new ArrayList<>(group.size());
+        group.forEach((index, item) -> {
+            try {
+                results.add(BatchTransactionDto.toResponse(index, applyOnLedger(item)));
+            } catch (AccountException e) {
+                failedTransactionRecorder.record(item.getTransactionType(), item.getAccountNumber(), item.getAmount(),
+                        null);
+                results.add(BatchTransactionDto.failed(index, item, e.getErrorCode()));
+            } catch (RuntimeException e) {
+                log.error("Failed to apply batch item {} on ledger.", index, e);
+                results.add(BatchTransactionDto.failed(index, item, SERVER_ERROR));
+            }
+        });
+        return results;
+    }
+
+    /**
+     * userId, transactionId 는 BatchBalance.Item 의 검증 그룹에서 확인한다.
+     */
+    private TransactionDto applyOnLedger(BatchBalance.Item item) {
+        if (item.getTransactionType() == USE) {
+            return ledgerEngine.useBalance(item.getUserId(), item.getAccountNumber(), item.getAmount());
+        }
+        return ledgerEngine.cancelBalance(item.getTransactionId(), item.getAccountNumber(), item.getAmount());
+    }
+
+    private static List<BatchTransactionDto> failAll(String accountNumber, SortedMap<Integer, BatchBalance.Item> group,
+                                                     ErrorCode errorCode) {
+        log.error("Failed to apply batch group of {}. {}", accountNumber, errorCode);
+        return group.entrySet().stream()
+                .map(entry -> BatchTransactionDto.failed(entry.getKey(), entry.getValue(), errorCode))
+                .collect(Collectors.toList());
+    }
+}
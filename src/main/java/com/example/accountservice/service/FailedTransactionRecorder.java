@@ -0,0 +1,221 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.policy.TransactionIdGenerator;
+import com.example.accountservice.shard.ShardRouter;
+import com.example.accountservice.type.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static com.example.accountservice.type.TransactionResultType.FAIL;
+
+/**
+ * 실패 거래 기록을 요청 스레드에서 분리한다.
+ * 요청 스레드는 bounded queue 에 적재만 하고, 백그라운드 writer 가 JDBC batch 로 저장한다.
+ * 샤딩 중에는 계좌가 속한 샤드별로 나누어 저장한다.
+ * 잔액 스냅샷은 저장 시점의 계좌 잔액이 아니라 기록을 요청할 때 넘겨받은 값(모르면 null)을 쓴다.
+ */
+@Slf4j
+@Component
+public class FailedTransactionRecorder {
+
+    private static final String INSERT_SQL =
+            "insert into transaction (id, account_id, transaction_type, transaction_result_type, amount, " +
+                    "balance_snapshot, transaction_id, transacted_at, created_date, last_modified_date) " +
+                    "select next value for transaction_seq, a.id, ?, ?, ?, ?, ?, ?, ?, ? " +
+                    "from account a where a.account_number = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final ShardRouter shardRouter;
+    private final BlockingQueue<FailedTransaction> queue;
+    private final int flushSize;
+    private final long flushIntervalMillis;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public FailedTransactionRecorder(JdbcTemplate jdbcTemplate,
+                                     TransactionIdGenerator transactionIdGenerator,
+                                     ShardRouter shardRouter,
+                                     @Value("${transaction.failed-recorder.capacity:10000}") int capacity,
+                                     @Value("${transaction.failed-recorder.flush-size:100}") int flushSize,
+                                     @Value("${transaction.failed-recorder.flush-interval-millis:50}") long flushIntervalMillis,
+                                     @Value("${transaction.failed-recorder.overflow-policy:caller-runs}") String overflowPolicy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.shardRouter = shardRouter;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.flushSize = flushSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.overflowPolicy = OverflowPolicy.from(overflowPolicy);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "failed-transaction-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+
+        List<FailedTransaction> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        flush(remaining);
+    }
+
+    /**
+     * @param balanceSnapshot 실패 시점의 잔액. 호출 측이 모르면 null 로 남긴다.
+     */
+    public void record(TransactionType transactionType, String accountNumber, Long amount, Long balanceSnapshot) {
+        String transactionId = shardRouter.isEnabled()
+                ? transactionIdGenerator.generate(shardRouter.slotOf(accountNumber))
+                : transactionIdGenerator.generate();
+        FailedTransaction failedTransaction = new FailedTransaction(transactionType, accountNumber, amount,
+                balanceSnapshot, transactionId, LocalDateTime.now());
+
+        if (queue.offer(failedTransaction)) {
+            return;
+        }
+
+        if (overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+            flush(List.of(failedTransaction));
+        } else {
+            log.warn("Failed transaction queue is full. dropped : {}", droppedCount.incrementAndGet());
+        }
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            List<FailedTransaction> batch = new ArrayList<>(flushSize);
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            flush(batch);
+        }
+    }
+
+    private void collect(List<FailedTransaction> batch) throws InterruptedException {
+        FailedTransaction first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        while (batch.size() < flushSize) {
+            queue.drainTo(batch, flushSize - batch.size());
+            long remainNanos = deadline - System.nanoTime();
+            if (batch.size() >= flushSize || remainNanos <= 0) {
+                return;
+            }
+            FailedTransaction next = queue.poll(remainNanos, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<FailedTransaction> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (shardRouter.isEnabled()) {
+            batch.stream()
+                    .collect(Collectors.groupingBy(failed -> shardRouter.shardOf(failed.accountNumber)))
+                    .forEach((shard, shardBatch) -> shardRouter.onShard(shard, () -> {
+                        insert(shardBatch);
+                        return null;
+                    }));
+            return;
+        }
+        insert(batch);
+    }
+
+    private void insert(List<FailedTransaction> batch) {
+        try {
+            int[][] updateCounts = jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, failedTransaction) -> {
+                Timestamp transactedAt = Timestamp.valueOf(failedTransaction.transactedAt);
+                ps.setString(1, failedTransaction.transactionType.name());
+                ps.setString(2, FAIL.name());
+                ps.setLong(3, failedTransaction.amount);
+                ps.setObject(4, failedTransaction.balanceSnapshot, Types.BIGINT);
+                ps.setString(5, failedTransaction.transactionId);
+                ps.setTimestamp(6, transactedAt);
+                ps.setTimestamp(7, transactedAt);
+                ps.setTimestamp(8, transactedAt);
+                ps.setString(9, failedTransaction.accountNumber);
+            });
+            log.debug("Flushed failed transactions : {}, written : {}", batch.size(), countRows(updateCounts));
+        } catch (Exception e) {
+            log.error("Failed to record failed transactions : {}", batch.size(), e);
+        }
+    }
+
+    private static int countRows(int[][] updateCounts) {
+        int rows = 0;
+        for (int[] counts : updateCounts) {
+            for (int count : counts) {
+                rows += Math.max(count, 0);
+            }
+        }
+        return rows;
+    }
+
+    private static class FailedTransaction {
+        private final TransactionType transactionType;
+        private final String accountNumber;
+        private final Long amount;
+        private final Long balanceSnapshot;
+        private final String transactionId;
+        private final LocalDateTime transactedAt;
+
+        private FailedTransaction(TransactionType transactionType, String accountNumber, Long amount,
+                                  Long balanceSnapshot, String transactionId, LocalDateTime transactedAt) {
+            this.transactionType = transactionType;
+            this.accountNumber = accountNumber;
+            this.amount = amount;
+            this.balanceSnapshot = balanceSnapshot;
+            this.transactionId = transactionId;
+            this.transactedAt = transactedAt;
+        }
+    }
+
+    enum OverflowPolicy {
+        CALLER_RUNS,
+        DROP;
+
+        static OverflowPolicy from(String policy) {
+            return OverflowPolicy.valueOf(policy.trim().replace('-', '_').toUpperCase());
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.dto.BatchBalance;
+import com.example.accountservice.dto.BatchTransactionDto;
+import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.exception.AccountExceptionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.example.accountservice.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.accountservice.type.TransactionType.CANCEL;
+import static com.example.accountservice.type.TransactionType.USE;
+
+/**
+ * 같은 계좌에 대한 잔액 사용/취소 요청을 계좌별 큐에 모은다.
+ * 큐의 리더가 된 요청 스레드가 계좌 락을 획득하고 대기 중인 요청을 한 번에 적용한 뒤 한 번만 커밋한다.
+ * 대기자는 자신의 요청이 끝나거나 리더가 빠질 때까지 잠들어 있다가, 리더가 빠지면 다음 리더가 되려고 깨어난다.
+ */
+@Slf4j
+@Service
+public class GroupCommitService {
+
+    private static final int EXTRA_ROUNDS_AFTER_OWN = 2;
+
+    private final LockService lockService;
+    private final TransactionService transactionService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitMillis;
+    private final ConcurrentHashMap<String, Combiner> combiners = new ConcurrentHashMap<>();
+    private final AccountExceptionFactory accountExceptionFactory;
+
+    public GroupCommitService(LockService lockService,
+                              TransactionService transactionService,
+                              AccountExceptionFactory accountExceptionFactory,
+                              @Value("${transaction.group-commit.enabled:false}") boolean enabled,
+                              @Value("${transaction.group-commit.max-batch-size:100}") int maxBatchSize,
+                              @Value("${transaction.group-commit.max-wait-millis:1000}") long maxWaitMillis) {
+        this.accountExceptionFactory = accountExceptionFactory;
+        this.lockService = lockService;
+        this.transactionService = transactionService;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        return submit(new BatchBalance.Item(USE, userId, null, accountNumber, amount));
+    }
+
+    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long cancelAmount) {
+        return submit(new BatchBalance.Item(CANCEL, null, transactionId, accountNumber, cancelAmount));
+    }
+
+    private TransactionDto submit(BatchBalance.Item item) {
+        Combiner combiner = combiners.computeIfAbsent(item.getAccountNumber(), Combiner::new);
+        Pending pending = new Pending(item);
+        combiner.queue.add(pending);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        while (!pending.future.isDone()) {
+            // 리더 획득을 시도하기 전에 읽어야, 실패한 뒤 리더가 빠져도 그 신호를 놓치지 않는다.
+            CompletableFuture<Void> leaderExit = combiner.leaderExit.get();
+            if (combiner.leader.compareAndSet(false, true)) {
+                try {
+                    combine(combiner, pending);
+                } finally {
+                    combiner.leader.set(false);
+                    combiner.leaderExit.getAndSet(new CompletableFuture<>()).complete(null);
+                    if (combiner.queue.isEmpty()) {
+                        combiners.remove(combiner.accountNumber, combiner);
+                    }
+                }
+                continue;
+            }
+
+            long remainNanos = deadline - System.nanoTime();
+            if (remainNanos <= 0) {
+                if (combiner.queue.remove(pending)) {
+                    throw accountExceptionFactory.create(ACCOUNT_TRANSACTION_LOCK);
+                }
+                // 이미 리더가 꺼내 간 요청은 결과가 나올 때까지 기다린다.
+                remainNanos = Long.MAX_VALUE;
+            }
+            awaitQuietly(CompletableFuture.anyOf(pending.future, leaderExit), remainNanos);
+        }
+
+        return toTransactionDto(pending.join());
+    }
+
+    /**
+     * 자신의 요청이 처리된 뒤에도 몇 라운드는 더 처리해 대기자에게 리더를 넘기는 지연을 줄인다.
+     * 리더가 빠지면 대기 중인 스레드가 다음 리더가 된다.
+     */
+    private void combine(Combiner combiner, Pending own) {
+        int extraRounds = 0;
+        while (!own.future.isDone() || extraRounds++ < EXTRA_ROUNDS_AFTER_OWN) {
+            List<Pending> batch = new ArrayList<>(maxBatchSize);
+            Pending next;
+            while (batch.size() < maxBatchSize && (next = combiner.queue.poll()) != null) {
+                batch.add(next);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            apply(combiner.accountNumber, batch);
+        }
+    }
+
+    private void apply(String accountNumber, List<Pending> batch) {
+        SortedMap<Integer, BatchBalance.Item> items = new TreeMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            items.put(i, batch.get(i).item);
+        }
+
+        try {
+            lockService.lock(accountNumber);
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+            return;
+        }
+
+        try {
+            List<BatchTransactionDto> results = transactionService.applyBatch(accountNumber, items, false);
+            for (BatchTransactionDto result : results) {
+                batch.get(result.getIndex()).future.complete(result);
+            }
+            log.debug("Group committed {} operations for accountNumber : {}", batch.size(), accountNumber);
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+        } finally {
+            lockService.unlock(accountNumber);
+        }
+    }
+
+    private void awaitQuietly(CompletableFuture<?> signal, long timeoutNanos) {
+        try {
+            signal.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // 완료 여부는 호출 측 루프에서 다시 확인한다.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw accountExceptionFactory.create(ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    private TransactionDto toTransactionDto(BatchTransactionDto result) {
+        if (result.getErrorCode() != null) {
+            throw accountExceptionFactory.create(result.getErrorCode());
+        }
+        return TransactionDto.builder()
+                .accountNumber(result.getAccountNumber())
+                .transactionType(result.getTransactionType())
+                .transactionResultType(result.getTransactionResultType())
+                .amount(result.getAmount())
+                .balanceSnapshot(result.getBalanceSnapshot())
+                .transactionId(result.getTransactionId())
+                .transactedAt(result.getTransactedAt())
+                .build();
+    }
+
+    private static class Combiner {
+        private final String accountNumber;
+        private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean leader = new AtomicBoolean();
+        private final AtomicReference<CompletableFuture<Void>> leaderExit =
+                new AtomicReference<>(new CompletableFuture<>());
+
+        private Combiner(String accountNumber) {
+            this.accountNumber = accountNumber;
+        }
+    }
+
+    private static class Pending {
+        private final BatchBalance.Item item;
+        private final CompletableFuture<BatchTransactionDto> future = new CompletableFuture<>();
+
+        private Pending(BatchBalance.Item item) {
+            this.item = item;
+        }
+
+        private BatchTransactionDto join() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+}
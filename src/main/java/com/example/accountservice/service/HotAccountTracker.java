@@ -0,0 +1,278 @@
+package com.example.accountservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 계좌별 락 대기 시간과 획득 실패 횟수를 count-min sketch 로 근사 집계하고,
+ * 경합 점수(대기 시간 + 실패 횟수 × 실패 가중치)가 가장 큰 상위 K 개 계좌만 후보로 유지한다.
+ * sketch 의 각 행은 서로 다른 seed 의 murmur3 해시로 칸을 고르므로 한 행에서 겹친 계좌가 다른 행에서도 겹칠 가능성은 낮다.
+ * 락을 잡을 때마다 호출되고 hot 계좌일수록 같은 칸에 몰리므로, sketch 의 각 칸은 LongAdder 로 두어 갱신을 스레드별 셀로 흩는다.
+ * 후보는 점수를 캐시한 min-heap 으로 유지한다. 점수는 decay 사이에 줄지 않으므로
+ * 교체가 필요할 때만 잠그고 루트의 점수만 새로 계산해 가장 작은 후보를 찾는다.
+ * decay 주기마다 모든 값을 절반으로 줄여 최근 경합이 우선하도록 한다.
+ */
+@Component
+public class HotAccountTracker {
+
+    private static final int DEPTH = 4;
+    private static final int[] SEEDS = {0x2F0B3C1D, 0x6A09E667, 0x3C6EF372, 0x510E527F};
+    private static final long PUBLISH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final int width;
+    private final int topK;
+    private final long decayIntervalNanos;
+    private final long failurePenaltyMicros;
+    private final LongAdder[] waitMicros;
+    private final LongAdder[] failures;
+    private final Set<String> candidates = ConcurrentHashMap.newKeySet();
+    // candidates 로 잠근 상태에서만 접근한다.
+    private final PriorityQueue<Candidate> coldest = new PriorityQueue<>(Comparator.comparingLong(Candidate::getScore));
+    private final AtomicLong nextDecayAt;
+    private final AtomicLong nextPublishAt;
+    private final MultiGauge hotAccountGauge;
+
+    private volatile long admissionThreshold;
+
+    public HotAccountTracker(MeterRegistry meterRegistry,
+                             @Value("${account.hot-tracker.top-k:20}") int topK,
+                             @Value("${account.hot-tracker.width:2048}") int width,
+                             @Value("${account.hot-tracker.decay-interval-seconds:60}") long decayIntervalSeconds,
+                             @Value("${account.hot-tracker.failure-penalty-micros:1000000}") long failurePenaltyMicros) {
+        this.width = Integer.highestOneBit(Math.max(width, 2) * 2 - 1);
+        this.topK = Math.max(topK, 1);
+        this.decayIntervalNanos = TimeUnit.SECONDS.toNanos(decayIntervalSeconds);
+        this.failurePenaltyMicros = Math.max(failurePenaltyMicros, 0);
+        this.waitMicros = adders(DEPTH * this.width);
+        this.failures = adders(DEPTH * this.width);
+        long now = System.nanoTime();
+        this.nextDecayAt = new AtomicLong(now + decayIntervalNanos);
+        this.nextPublishAt = new AtomicLong(now + PUBLISH_INTERVAL_NANOS);
+        this.hotAccountGauge = MultiGauge.builder("account.lock.hot.wait")
+                .description("Decayed lock wait of the hottest accounts")
+                .baseUnit("microseconds")
+                .register(meterRegistry);
+    }
+
+    public void record(String accountNumber, long waitNanos, boolean failed) {
+        long now = System.nanoTime();
+        decayIfDue(now);
+
+        long waited = TimeUnit.NANOSECONDS.toMicros(waitNanos);
+        long waitEstimate = Long.MAX_VALUE;
+        long failureEstimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = cell(row, accountNumber);
+            waitMicros[index].add(waited);
+            if (failed) {
+                failures[index].increment();
+            }
+            waitEstimate = Math.min(waitEstimate, waitMicros[index].sum());
+            failureEstimate = Math.min(failureEstimate, failures[index].sum());
+        }
+
+        long estimate = score(waitEstimate, failureEstimate);
+        if (estimate > admissionThreshold && !candidates.contains(accountNumber)) {
+            admit(accountNumber, estimate);
+        }
+        publishIfDue(now);
+    }
+
+    /**
+     * 경합 점수가 큰 순으로 후보를 돌려준다. 값은 decay 가 반영된 근사치다.
+     */
+    public List<HotAccount> topAccounts() {
+        return candidates.stream()
+                .map(this::hotAccount)
+                .sorted(Comparator.comparingLong(HotAccount::getScore).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 후보가 가득 찼으면 현재 값이 가장 작은 후보와 비교해 교체하고, 다음 진입 기준을 갱신한다.
+     */
+    private void admit(String accountNumber, long estimate) {
+        synchronized (candidates) {
+            if (candidates.contains(accountNumber)) {
+                return;
+            }
+            if (candidates.size() >= topK) {
+                Candidate coldestCandidate = coldestCandidate();
+                if (coldestCandidate.getScore() >= estimate) {
+                    admissionThreshold = coldestCandidate.getScore();
+                    return;
+                }
+                coldest.poll();
+                candidates.remove(coldestCandidate.getAccountNumber());
+            }
+            candidates.add(accountNumber);
+            coldest.add(new Candidate(accountNumber, estimate));
+            if (candidates.size() >= topK) {
+                admissionThreshold = coldestCandidate().getScore();
+            }
+        }
+    }
+
+    /**
+     * 캐시한 점수는 실제 점수보다 작거나 같으므로, 루트의 점수가 최신이 될 때까지 루트만 다시 계산해 넣는다.
+     * 동시에 갱신되는 계좌 때문에 끝없이 돌지 않도록 후보 수만큼만 반복한다.
+     */
+    private Candidate coldestCandidate() {
+        for (int i = 0; i < coldest.size(); i++) {
+            Candidate root = coldest.peek();
+            long current = score(root.getAccountNumber());
+            if (current == root.getScore()) {
+                break;
+            }
+            coldest.poll();
+            coldest.add(new Candidate(root.getAccountNumber(), current));
+        }
+        return coldest.peek();
+    }
+
+    private HotAccount hotAccount(String accountNumber) {
+        long lockWaitMicros = estimate(waitMicros, accountNumber);
+        long lockFailures = estimate(failures, accountNumber);
+        return new HotAccount(accountNumber, lockWaitMicros, lockFailures, score(lockWaitMicros, lockFailures));
+    }
+
+    private long score(String accountNumber) {
+        return score(estimate(waitMicros, accountNumber), estimate(failures, accountNumber));
+    }
+
+    private long score(long lockWaitMicros, long lockFailures) {
+        return lockWaitMicros + lockFailures * failurePenaltyMicros;
+    }
+
+    private void decayIfDue(long now) {
+        long due = nextDecayAt.get();
+        if (now - due >= 0 && nextDecayAt.compareAndSet(due, now + decayIntervalNanos)) {
+            decay();
+        }
+    }
+
+    /**
+     * 반으로 줄이는 동안 들어온 값은 일부만 줄어들 수 있지만 근사 집계이므로 허용한다.
+     */
+    void decay() {
+        for (int i = 0; i < waitMicros.length; i++) {
+            halve(waitMicros[i]);
+            halve(failures[i]);
+        }
+        synchronized (candidates) {
+            List<Candidate> halved = new ArrayList<>(coldest.size());
+            for (Candidate candidate : coldest) {
+                halved.add(new Candidate(candidate.getAccountNumber(), candidate.getScore() >> 1));
+            }
+            coldest.clear();
+            coldest.addAll(halved);
+            admissionThreshold >>= 1;
+        }
+    }
+
+    private static void halve(LongAdder adder) {
+        long value = adder.sum();
+        if (value != 0) {
+            adder.add(-(value >> 1) - (value & 1));
+        }
+    }
+
+    private void publishIfDue(long now) {
+        long due = nextPublishAt.get();
+        if (now - due >= 0 && nextPublishAt.compareAndSet(due, now + PUBLISH_INTERVAL_NANOS)) {
+            publish();
+        }
+    }
+
+    void publish() {
+        hotAccountGauge.register(topAccounts().stream()
+                .map(hotAccount -> MultiGauge.Row.of(Tags.of("accountNumber", hotAccount.getAccountNumber()),
+                        hotAccount.getLockWaitMicros()))
+                .collect(Collectors.toList()), true);
+    }
+
+    private long estimate(LongAdder[] counts, String accountNumber) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counts[cell(row, accountNumber)].sum());
+        }
+        return estimate;
+    }
+
+    private static LongAdder[] adders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    int cell(int row, String accountNumber) {
+        return row * width + (murmur3(accountNumber, SEEDS[row]) & (width - 1));
+    }
+
+    /**
+     * UTF-16 문자 두 개씩을 한 블록으로 묶는 32비트 murmur3 해시.
+     */
+    private static int murmur3(CharSequence value, int seed) {
+        int h = seed;
+        int length = value.length();
+        for (int i = 1; i < length; i += 2) {
+            h = mixH(h, mixK(value.charAt(i - 1) | (value.charAt(i) << 16)));
+        }
+        if ((length & 1) == 1) {
+            h ^= mixK(value.charAt(length - 1));
+        }
+        h ^= length * 2;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    private static int mixK(int k) {
+        return Integer.rotateLeft(k * 0xCC9E2D51, 15) * 0x1B873593;
+    }
+
+    private static int mixH(int h, int k) {
+        return Integer.rotateLeft(h ^ k, 13) * 5 + 0xE6546B64;
+    }
+
+    @Getter
+    private static class Candidate {
+        private final String accountNumber;
+        private final long score;
+
+        private Candidate(String accountNumber, long score) {
+            this.accountNumber = accountNumber;
+            this.score = score;
+        }
+    }
+
+    @Getter
+    public static class HotAccount {
+        private final String accountNumber;
+        private final long lockWaitMicros;
+        private final long lockFailures;
+        private final long score;
+
+        HotAccount(String accountNumber, long lockWaitMicros, long lockFailures, long score) {
+            this.accountNumber = accountNumber;
+            this.lockWaitMicros = lockWaitMicros;
+            this.lockFailures = lockFailures;
+            this.score = score;
+        }
+    }
+}
@@ -1,14 +1,27 @@
 package com.example.accountservice.service;
 
+import com.example.accountservice.aop.AccountLock;
 import com.example.accountservice.aop.AccountLockId;
-import com.example.accountservice.service.LockService;
+import com.example.accountservice.aop.LockStrategy;
+import com.example.accountservice.exception.AccountExceptionFactory;
+import com.example.accountservice.ledger.LedgerEngine;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 
+import javax.persistence.OptimisticLockException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.example.accountservice.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+
 @Aspect
 @Component
 @Slf4j
@@ -16,9 +29,30 @@ import org.springframework.stereotype.Component;
 public class LockAopAspect {
 
     private final LockService lockService;
+    private final GroupCommitService groupCommitService;
+    private final LedgerEngine ledgerEngine;
+    private final MeterRegistry meterRegistry;
+    private final AsyncLockExecutor asyncLockExecutor;
+    private final AccountExceptionFactory accountExceptionFactory;
+
+    @Around("@annotation(accountLock) && args(request)")
+    public Object aroundMethod(ProceedingJoinPoint pjp, AccountLock accountLock, AccountLockId request) throws Throwable {
+        if (groupCommitService.isEnabled() || ledgerEngine.isEnabled()) {
+            // 그룹 커밋 리더가 계좌 락을 획득하거나, 원장 엔진의 단일 writer 가 순서를 보장한다.
+            return pjp.proceed();
+        }
+        if (accountLock.strategy() == LockStrategy.OPTIMISTIC) {
+            if (asyncLockExecutor.isEnabled()) {
+                // 재시도 대기가 요청 스레드를 붙잡지 않도록 실행기에서 처리한다.
+                return asyncLockExecutor.supply(() -> proceedWithRetry(pjp, accountLock, request))
+                        .thenCompose(LockAopAspect::toFuture);
+            }
+            return proceedWithRetry(pjp, accountLock, request);
+        }
+        if (asyncLockExecutor.isEnabled()) {
+            return proceedAsync(pjp, request.getAccountNumber());
+        }
 
-    @Around("@annotation(com.example.accountservice.aop.AccountLock) && args(request)")
-    public Object aroundMethod(ProceedingJoinPoint pjp, AccountLockId request) throws Throwable {
         // lock 취득 시도
         lockService.lock(request.getAccountNumber());
 
@@ -29,4 +63,78 @@ public class LockAopAspect {
             lockService.unlock(request.getAccountNumber());
         }
     }
+
+    /**
+     * 요청 스레드는 future 만 돌려받고 반환된다. 락 대기는 Redisson 콜백으로, DB 작업은 bounded executor 에서 처리한다.
+     * 대상 메서드가 돌려준 future 를 기다리지 않고 이어 붙이며, 그 future 가 끝날 때 락을 푼다.
+     * local-only 모드의 로컬 락은 스레드에 묶여 있으므로 executor 스레드에서 획득부터 해제까지 처리한다.
+     * 그래서 이 모드의 대상 메서드는 완료된 future 를 돌려줘야 한다.
+     */
+    private CompletableFuture<Object> proceedAsync(ProceedingJoinPoint pjp, String accountNumber) {
+        if (lockService.isLocalOnly()) {
+            return asyncLockExecutor.supply(() -> {
+                lockService.lock(accountNumber);
+                try {
+                    return proceed(pjp);
+                } finally {
+                    lockService.unlock(accountNumber);
+                }
+            }).thenCompose(LockAopAspect::toFuture);
+        }
+        return lockService.lockAsync(accountNumber)
+                .thenCompose(lock -> asyncLockExecutor.supply(() -> proceed(pjp))
+                        .thenCompose(LockAopAspect::toFuture)
+                        .whenComplete((result, e) -> lockService.unlockAsync(lock)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<Object> toFuture(Object result) {
+        if (result instanceof CompletionStage) {
+            return ((CompletionStage<Object>) result).toCompletableFuture();
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    private static Object proceed(ProceedingJoinPoint pjp) {
+        try {
+            return pjp.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * 분산 락 없이 실행하고, 엔티티 version 충돌이 나면 backoff 후 대상 메서드를 새 트랜잭션으로 다시 실행한다.
+     */
+    private Object proceedWithRetry(ProceedingJoinPoint pjp, AccountLock accountLock, AccountLockId request) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return proceed(pjp);
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                meterRegistry.counter("account.lock.optimistic.conflicts").increment();
+                if (attempt >= accountLock.maxRetries()) {
+                    meterRegistry.counter("account.lock.failures", "reason", "retry-exhausted").increment();
+                    log.error("Optimistic lock retry exhausted for accountNumber : {}", request.getAccountNumber());
+                    throw accountExceptionFactory.create(ACCOUNT_TRANSACTION_LOCK);
+                }
+                log.debug("Optimistic lock conflict for accountNumber : {}, attempt : {}",
+                        request.getAccountNumber(), attempt + 1);
+                backoff(accountLock.retryBackoffMillis() << attempt);
+            }
+        }
+    }
+
+    private void backoff(long maxMillis) {
+        if (maxMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxMillis / 2, maxMillis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw accountExceptionFactory.create(ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
 }
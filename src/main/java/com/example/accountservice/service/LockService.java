@@ -1,46 +1,317 @@
 package com.example.accountservice.service;
 
 import com.example.accountservice.exception.AccountException;
-import lombok.RequiredArgsConstructor;
+import com.example.accountservice.exception.AccountExceptionFactory;
+import com.example.accountservice.jfr.AccountLockEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static com.example.accountservice.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
 
 
+/**
+ * 같은 노드의 경쟁자는 계좌별 로컬 락에서 먼저 대기하고, 로컬 락을 획득한 스레드만 Redis 락을 시도한다.
+ * Redis 락은 계좌마다 정한 소유자 id 로 잡으므로, 로컬 대기자가 남아 있으면 해제하지 않고 다음 보유자에게 넘긴다.
+ * 마지막 로컬 보유자가 떠날 때 해제하며, 넘겨받은 lease 의 절반이 지났으면 다른 노드도 기회를 얻도록 놓았다가 다시 잡는다.
+ * local-only 모드에서는 Redis 를 사용하지 않는다.
+ * 락 대기/보유 시간과 획득 실패, Redis 오류 횟수를 account.lock.* 메트릭으로 남긴다.
+ * 계좌별 대기 시간과 실패는 HotAccountTracker 에 넘겨 경합이 큰 계좌를 찾고, AccountLockEvent 로도 기록한다.
+ * lockAsync 는 로컬 락 없이 Redis 락만 비동기로 획득해 대기 중에 스레드를 점유하지 않는다.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class LockService {
+    private static final long WAIT_MILLIS = 1000L;
+    private static final long LEASE_MILLIS = 5000L;
+    private static final long HANDOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(LEASE_MILLIS / 2);
+    // Redisson 은 스레드 id 로 락 소유자를 구분하므로, 실제 스레드 id 와 겹치지 않는 음수 영역을 쓴다.
+    private static final AtomicLong ASYNC_OWNER_IDS = new AtomicLong(Long.MIN_VALUE);
+
     private final RedissonClient redissonClient;
+    private final HotAccountTracker hotAccountTracker;
+    private final boolean localOnly;
+    private final ConcurrentHashMap<String, LocalLock> localLocks = new ConcurrentHashMap<>();
+
+    private final Timer acquiredWaitTimer;
+    private final Timer failedWaitTimer;
+    private final Timer holdTimer;
+    private final Counter timeoutCounter;
+    private final Counter interruptedCounter;
+    private final Counter redisLockErrorCounter;
+    private final Counter redisUnlockErrorCounter;
+    private final Counter redisHandoffCounter;
+    private final AccountExceptionFactory accountExceptionFactory;
+
+    public LockService(RedissonClient redissonClient,
+                       HotAccountTracker hotAccountTracker,
+                       MeterRegistry meterRegistry,
+                       AccountExceptionFactory accountExceptionFactory,
+                       @Value("${account.lock.mode:distributed}") String mode) {
+        this.accountExceptionFactory = accountExceptionFactory;
+        this.redissonClient = redissonClient;
+        this.hotAccountTracker = hotAccountTracker;
+        this.localOnly = LockMode.from(mode) == LockMode.LOCAL_ONLY;
+
+        this.acquiredWaitTimer = meterRegistry.timer("account.lock.wait", "result", "acquired");
+        this.failedWaitTimer = meterRegistry.timer("account.lock.wait", "result", "failed");
+        this.holdTimer = meterRegistry.timer("account.lock.hold");
+        this.timeoutCounter = meterRegistry.counter("account.lock.failures", "reason", "timeout");
+        this.interruptedCounter = meterRegistry.counter("account.lock.failures", "reason", "interrupted");
+        this.redisLockErrorCounter = meterRegistry.counter("account.lock.redis.errors", "operation", "lock");
+        this.redisUnlockErrorCounter = meterRegistry.counter("account.lock.redis.errors", "operation", "unlock");
+        this.redisHandoffCounter = meterRegistry.counter("account.lock.redis.handoffs");
+    }
 
     public void lock(String accountNumber) {
-        RLock lock = redissonClient.getLock(getLockKey(accountNumber));
         log.debug("Trying lock for accountNumber : {}", accountNumber);
+        AccountLockEvent event = new AccountLockEvent();
+        event.begin();
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + TimeUnit.MILLISECONDS.toNanos(WAIT_MILLIS);
 
+        LocalLock localLock = enter(accountNumber);
         try {
-            boolean isLock = lock.tryLock(1, 5, TimeUnit.SECONDS);
-            if (!isLock) {
-                log.error("======Lock acquisition failed=====");
-                throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+            if (!localLock.lock.tryLock(WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                leave(accountNumber, localLock);
+                throw failed(event, accountNumber, startedAt, timeoutCounter);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            leave(accountNumber, localLock);
+            throw failed(event, accountNumber, startedAt, interruptedCounter);
+        }
+
+        if (!localOnly && localLock.lock.getHoldCount() == 1) {
+            Counter failure = acquireRedis(accountNumber, localLock, deadline);
+            if (failure != null) {
+                localLock.lock.unlock();
+                leave(accountNumber, localLock);
+                throw failed(event, accountNumber, startedAt, failure);
             }
-        } catch (AccountException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Redis lock failed");
         }
+        acquired(event, accountNumber, localLock, startedAt);
     }
 
     public void unlock(String accountNumber) {
         log.debug("Unlock for accountNumber : {}", accountNumber);
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
+        LocalLock localLock = localLocks.get(accountNumber);
+        if (localLock == null) {
+            throw new IllegalMonitorStateException("Lock is not held for accountNumber : " + accountNumber);
+        }
+        if (localLock.lock.getHoldCount() == 1) {
+            holdTimer.record(System.nanoTime() - localLock.acquiredAt, TimeUnit.NANOSECONDS);
+        }
+        localLock.lock.unlock();
+        leave(accountNumber, localLock);
+    }
+
+    public boolean isLocalOnly() {
+        return localOnly;
+    }
+
+    /**
+     * 요청마다 별도의 소유자 id 로 Redis 락을 비동기로 획득한다.
+     * 로컬 락은 스레드에 묶여 있어 사용하지 않으며, Redis 오류 시에는 락 없이 진행하지 않고 실패로 처리한다.
+     * 획득한 락은 반환된 AsyncLock 으로 unlockAsync 해야 한다.
+     */
+    public CompletableFuture<AsyncLock> lockAsync(String accountNumber) {
+        log.debug("Trying async lock for accountNumber : {}", accountNumber);
+        AccountLockEvent event = new AccountLockEvent();
+        event.begin();
+        long startedAt = System.nanoTime();
+        long ownerId = nextOwnerId();
+
+        return redissonClient.getLock(getLockKey(accountNumber))
+                .tryLockAsync(WAIT_MILLIS, LEASE_MILLIS, TimeUnit.MILLISECONDS, ownerId)
+                .toCompletableFuture()
+                .handle((isLock, e) -> {
+                    if (e != null) {
+                        log.error("Redis lock failed");
+                        throw failed(event, accountNumber, startedAt, redisLockErrorCounter);
+                    }
+                    if (!isLock) {
+                        throw failed(event, accountNumber, startedAt, timeoutCounter);
+                    }
+                    return new AsyncLock(accountNumber, ownerId, recordAcquired(event, accountNumber, startedAt));
+                });
+    }
+
+    /**
+     * 해제 결과를 기다리지 않는다. 실패하면 lease 만료 후 풀린다.
+     */
+    public void unlockAsync(AsyncLock lock) {
+        log.debug("Async unlock for accountNumber : {}", lock.getAccountNumber());
+        holdTimer.record(System.nanoTime() - lock.getAcquiredAt(), TimeUnit.NANOSECONDS);
+        redissonClient.getLock(getLockKey(lock.getAccountNumber())).unlockAsync(lock.getOwnerId())
+                .whenComplete((ignored, e) -> {
+                    if (e != null) {
+                        redisUnlockErrorCounter.increment();
+                        log.error("Redis unlock failed");
+                    }
+                });
+    }
+
+    /**
+     * 로컬 락에 들어온 스레드 수를 센다. 대기 중인 스레드도 포함하므로 0 이 되면 Redis 락을 넘겨받을 스레드가 없다.
+     */
+    private LocalLock enter(String accountNumber) {
+        return localLocks.compute(accountNumber, (key, current) -> {
+            LocalLock localLock = current == null ? new LocalLock(nextOwnerId()) : current;
+            localLock.users++;
+            return localLock;
+        });
+    }
+
+    private void leave(String accountNumber, LocalLock localLock) {
+        boolean[] releaseRedis = new boolean[1];
+        localLocks.computeIfPresent(accountNumber, (key, current) -> {
+            if (--current.users > 0) {
+                return current;
+            }
+            releaseRedis[0] = current.redisHeld;
+            current.redisHeld = false;
+            return null;
+        });
+        if (releaseRedis[0]) {
+            releaseRedis(accountNumber, localLock.ownerId);
+        }
     }
 
-    private static String getLockKey(String accountNumber) {
+    /**
+     * 앞선 보유자가 넘겨준 Redis 락이 있으면 그대로 쓴다. Redis 오류 시에는 로컬 락만으로 진행한다.
+     * 실패하면 실패 사유 카운터를, 성공하면 null 을 돌려준다.
+     */
+    private Counter acquireRedis(String accountNumber, LocalLock localLock, long deadline) {
+        if (localLock.redisHeld) {
+            if (System.nanoTime() - localLock.redisAcquiredAt < HANDOFF_NANOS) {
+                redisHandoffCounter.increment();
+                return null;
+            }
+            localLock.redisHeld = false;
+            releaseRedis(accountNumber, localLock.ownerId);
+        }
+
+        try {
+            long remainMillis = Math.max(0,
+                    TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+            RLock lock = redissonClient.getLock(getLockKey(accountNumber));
+            if (!lock.tryLockAsync(remainMillis, LEASE_MILLIS, TimeUnit.MILLISECONDS, localLock.ownerId).get()) {
+                return timeoutCounter;
+            }
+            localLock.redisAcquiredAt = System.nanoTime();
+            localLock.redisHeld = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return interruptedCounter;
+        } catch (Exception e) {
+            redisLockErrorCounter.increment();
+            log.error("Redis lock failed");
+        }
+        return null;
+    }
+
+    private void releaseRedis(String accountNumber, long ownerId) {
+        try {
+            redissonClient.getLock(getLockKey(accountNumber)).unlockAsync(ownerId).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            redisUnlockErrorCounter.increment();
+        } catch (Exception e) {
+            redisUnlockErrorCounter.increment();
+            log.error("Redis unlock failed");
+        }
+    }
+
+    /**
+     * 획득 시각은 로컬 락을 보유한 스레드만 읽고 쓴다. 재진입한 경우 처음 획득한 시각을 유지한다.
+     */
+    private void acquired(AccountLockEvent event, String accountNumber, LocalLock localLock, long startedAt) {
+        long now = recordAcquired(event, accountNumber, startedAt);
+        if (localLock.lock.getHoldCount() == 1) {
+            localLock.acquiredAt = now;
+        }
+    }
+
+    private long recordAcquired(AccountLockEvent event, String accountNumber, long startedAt) {
+        long now = System.nanoTime();
+        acquiredWaitTimer.record(now - startedAt, TimeUnit.NANOSECONDS);
+        hotAccountTracker.record(accountNumber, now - startedAt, false);
+        event.complete(accountNumber, now - startedAt, true);
+        return now;
+    }
+
+    private AccountException failed(AccountLockEvent event, String accountNumber, long startedAt, Counter reason) {
+        long waited = System.nanoTime() - startedAt;
+        failedWaitTimer.record(waited, TimeUnit.NANOSECONDS);
+        hotAccountTracker.record(accountNumber, waited, true);
+        event.complete(accountNumber, waited, false);
+        reason.increment();
+        log.error("======Lock acquisition failed=====");
+        return accountExceptionFactory.create(ACCOUNT_TRANSACTION_LOCK);
+    }
+
+    static long nextOwnerId() {
+        return ASYNC_OWNER_IDS.incrementAndGet();
+    }
+
+    int localUsers(String accountNumber) {
+        LocalLock localLock = localLocks.get(accountNumber);
+        return localLock == null ? 0 : localLock.users;
+    }
+
+    static String getLockKey(String accountNumber) {
         return "ACLK:" + accountNumber;
     }
+
+    @Getter(AccessLevel.PACKAGE)
+    public static class AsyncLock {
+        private final String accountNumber;
+        private final long ownerId;
+        private final long acquiredAt;
+
+        AsyncLock(String accountNumber, long ownerId, long acquiredAt) {
+            this.accountNumber = accountNumber;
+            this.ownerId = ownerId;
+            this.acquiredAt = acquiredAt;
+        }
+    }
+
+    /**
+     * users 는 localLocks 의 compute 안에서만 바꾼다.
+     */
+    private static class LocalLock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long ownerId;
+        private int users;
+        private volatile boolean redisHeld;
+        private volatile long redisAcquiredAt;
+        private long acquiredAt;
+
+        private LocalLock(long ownerId) {
+            this.ownerId = ownerId;
+        }
+    }
+
+    enum LockMode {
+        DISTRIBUTED,
+        LOCAL_ONLY;
+
+        static LockMode from(String mode) {
+            return LockMode.valueOf(mode.trim().replace('-', '_').toUpperCase());
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.dto.AccountDto;
+import com.example.accountservice.exception.AccountExceptionFactory;
+import com.example.accountservice.policy.AccountNumberAllocator;
+import com.example.accountservice.policy.AccountPolicy;
+import com.example.accountservice.repository.ReactiveAccountRepository;
+import com.example.accountservice.repository.ReactiveAccountRepository.AccountRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+
+import static com.example.accountservice.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static com.example.accountservice.type.ErrorCode.USER_NOT_FOUND;
+
+/**
+ * AccountService 의 R2DBC 버전. 검증 규칙은 AccountPolicy 를 함께 쓴다.
+ * 계좌번호 발급은 블록이 소진될 때 Redis 를 동기로 호출하므로 boundedElastic 에서 실행한다.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAccountService {
+
+    private final ReactiveAccountRepository accountRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final TransactionalOperator transactionalOperator;
+    private final AccountExceptionFactory accountExceptionFactory;
+    private final AccountPolicy accountPolicy;
+
+    public Mono<AccountDto> createAccount(Long userId, Long initBalance) {
+        return validateAccountUser(userId)
+                .then(accountRepository.countByUserId(userId))
+                .doOnNext(accountPolicy::validateAccountCount)
+                .then(Mono.fromCallable(accountNumberAllocator::allocate).subscribeOn(Schedulers.boundedElastic()))
+                .flatMap(accountNumber -> accountRepository.insert(userId, accountNumber, initBalance,
+                        LocalDateTime.now()))
+                .map(AccountRow::toDto)
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<AccountDto> deleteAccount(Long userId, String accountNumber) {
+        return validateAccountUser(userId)
+                .then(accountRepository.findByAccountNumber(accountNumber))
+                .switchIfEmpty(Mono.error(() -> accountExceptionFactory.create(ACCOUNT_NOT_FOUND)))
+                .flatMap(account -> {
+                    accountPolicy.validateDelete(userId, account.getUserId(),
+                            account.getAccountStatus(), account.getBalance());
+                    return accountRepository.unregister(account.getId(), LocalDateTime.now());
+                })
+                .then(accountRepository.findByAccountNumber(accountNumber))
+                .map(AccountRow::toDto)
+                .as(transactionalOperator::transactional);
+    }
+
+    public Flux<AccountDto> findAllAccount(Long userId) {
+        return validateAccountUser(userId)
+                .thenMany(accountRepository.findAllByUserId(userId))
+                .map(AccountRow::toDto);
+    }
+
+    private Mono<Void> validateAccountUser(Long userId) {
+        return accountRepository.existsAccountUser(userId)
+                .flatMap(exists -> exists ? Mono.empty() : Mono.error(accountExceptionFactory.create(USER_NOT_FOUND)));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.exception.AccountException;
+import com.example.accountservice.exception.AccountExceptionFactory;
+import com.example.accountservice.jfr.AccountLockEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonReactiveClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.example.accountservice.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+
+/**
+ * LockService 의 reactive 버전. RLockReactive 로 락을 기다리므로 event loop 스레드를 막지 않는다.
+ * 요청마다 소유자 id 를 새로 발급해 구독이 어느 스레드에서 이어지든 같은 소유자로 해제한다.
+ * 메트릭 이름은 LockService 와 같다.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveLockService {
+    private static final long WAIT_MILLIS = 1000L;
+    private static final long LEASE_MILLIS = 5000L;
+
+    private final RedissonReactiveClient redissonReactiveClient;
+    private final HotAccountTracker hotAccountTracker;
+
+    private final Timer acquiredWaitTimer;
+    private final Timer failedWaitTimer;
+    private final Timer holdTimer;
+    private final Counter timeoutCounter;
+    private final Counter redisLockErrorCounter;
+    private final Counter redisUnlockErrorCounter;
+    private final AccountExceptionFactory accountExceptionFactory;
+
+    public ReactiveLockService(RedissonReactiveClient redissonReactiveClient,
+                               HotAccountTracker hotAccountTracker,
+                               MeterRegistry meterRegistry,
+                               AccountExceptionFactory accountExceptionFactory) {
+        this.accountExceptionFactory = accountExceptionFactory;
+        this.redissonReactiveClient = redissonReactiveClient;
+        this.hotAccountTracker = hotAccountTracker;
+        this.acquiredWaitTimer = meterRegistry.timer("account.lock.wait", "result", "acquired");
+        this.failedWaitTimer = meterRegistry.timer("account.lock.wait", "result", "failed");
+        this.holdTimer = meterRegistry.timer("account.lock.hold");
+        this.timeoutCounter = meterRegistry.counter("account.lock.failures", "reason", "timeout");
+        this.redisLockErrorCounter = meterRegistry.counter("account.lock.redis.errors", "operation", "lock");
+        this.redisUnlockErrorCounter = meterRegistry.counter("account.lock.redis.errors", "operation", "unlock");
+    }
+
+    /**
+     * 락을 획득한 뒤 work 를 구독하고, 완료/오류/취소 어느 경우든 락을 해제한다.
+     */
+    public <T> Mono<T> withLock(String accountNumber, Mono<T> work) {
+        return Mono.usingWhen(lock(accountNumber), lock -> work, this::unlock);
+    }
+
+    private Mono<LockService.AsyncLock> lock(String accountNumber) {
+        return Mono.defer(() -> {
+            AccountLockEvent event = new AccountLockEvent();
+            event.begin();
+            long startedAt = System.nanoTime();
+            long ownerId = LockService.nextOwnerId();
+
+            return redissonReactiveClient.getLock(LockService.getLockKey(accountNumber))
+                    .tryLock(WAIT_MILLIS, LEASE_MILLIS, TimeUnit.MILLISECONDS, ownerId)
+                    .onErrorMap(e -> !(e instanceof AccountException), e -> {
+                        log.error("Redis lock failed");
+                        return failed(event, accountNumber, startedAt, redisLockErrorCounter);
+                    })
+                    .flatMap(isLock -> {
+                        if (!isLock) {
+                            return Mono.error(failed(event, accountNumber, startedAt, timeoutCounter));
+                        }
+                        long now = System.nanoTime();
+                        acquiredWaitTimer.record(now - startedAt, TimeUnit.NANOSECONDS);
+                        hotAccountTracker.record(accountNumber, now - startedAt, false);
+                        event.complete(accountNumber, now - startedAt, true);
+                        return Mono.just(new LockService.AsyncLock(accountNumber, ownerId, now));
+                    });
+        });
+    }
+
+    private Mono<Void> unlock(LockService.AsyncLock lock) {
+        holdTimer.record(System.nanoTime() - lock.getAcquiredAt(), TimeUnit.NANOSECONDS);
+        return redissonReactiveClient.getLock(LockService.getLockKey(lock.getAccountNumber()))
+                .unlock(lock.getOwnerId())
+                .onErrorResume(e -> {
+                    redisUnlockErrorCounter.increment();
+                    log.error("Redis unlock failed");
+                    return Mono.empty();
+                });
+    }
+
+    private AccountException failed(AccountLockEvent event, String accountNumber, long startedAt, Counter reason) {
+        long waited = System.nanoTime() - startedAt;
+        failedWaitTimer.record(waited, TimeUnit.NANOSECONDS);
+        hotAccountTracker.record(accountNumber, waited, true);
+        event.complete(accountNumber, waited, false);
+        reason.increment();
+        log.error("======Lock acquisition failed=====");
+        return accountExceptionFactory.create(ACCOUNT_TRANSACTION_LOCK);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.exception.AccountExceptionFactory;
+import com.example.accountservice.policy.AccountPolicy;
+import com.example.accountservice.policy.TransactionIdGenerator;
+import com.example.accountservice.repository.ReactiveAccountRepository;
+import com.example.accountservice.repository.ReactiveAccountRepository.AccountRow;
+import com.example.accountservice.repository.ReactiveTransactionRepository;
+import com.example.accountservice.repository.ReactiveTransactionRepository.TransactionRow;
+import com.example.accountservice.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+import static com.example.accountservice.type.ErrorCode.*;
+import static com.example.accountservice.type.TransactionResultType.SUCCESS;
+import static com.example.accountservice.type.TransactionType.CANCEL;
+import static com.example.accountservice.type.TransactionType.USE;
+
+/**
+ * TransactionService 의 잔액 사용/취소/조회를 R2DBC 로 처리한다. 검증 규칙은 AccountPolicy 를 함께 쓴다.
+ * 한 트랜잭션 안의 쿼리는 같은 커넥션을 쓰므로 동시에 구독하지 않고 순서대로 이어 붙인다.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTransactionService {
+
+    private final ReactiveAccountRepository accountRepository;
+    private final ReactiveTransactionRepository transactionRepository;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final TransactionalOperator transactionalOperator;
+    private final AccountExceptionFactory accountExceptionFactory;
+    private final AccountPolicy accountPolicy;
+
+    /**
+     * 조건부 차감이 성공하면 바로 기록하고, 실패한 경우에만 사용자와 계좌를 조회해 원인을 찾는다.
+     */
+    public Mono<TransactionDto> useBalance(Long userId, String accountNumber, Long amount) {
+        return accountRepository.debitBalance(accountNumber, userId, amount)
+                .flatMap(debitedRows -> debitedRows == 0
+                        ? rejectUseBalance(userId, accountNumber, amount)
+                        : findAccount(accountNumber))
+                .flatMap(account -> save(account, USE, amount))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * 조건부 차감의 조건과 검증 규칙이 같으므로 검증을 통과했다면 그 사이 다른 쓰기가 끼어든 것이다.
+     */
+    private Mono<AccountRow> rejectUseBalance(Long userId, String accountNumber, Long amount) {
+        return accountRepository.existsAccountUser(userId)
+                .flatMap(exists -> exists
+                        ? findAccount(accountNumber)
+                        : Mono.error(accountExceptionFactory.create(USER_NOT_FOUND)))
+                .flatMap(account -> {
+                    accountPolicy.validateUse(userId, account.getUserId(),
+                            account.getAccountStatus(), account.getBalance(), amount);
+                    return Mono.error(accountExceptionFactory.create(ACCOUNT_TRANSACTION_LOCK));
+                });
+    }
+
+    public Mono<TransactionDto> cancelBalance(String transactionId, String accountNumber, Long cancelAmount) {
+        return transactionRepository.findByTransactionId(transactionId)
+                .switchIfEmpty(Mono.error(() -> accountExceptionFactory.create(TRANSACTION_NOT_FOUND)))
+                .flatMap(transaction -> findAccount(accountNumber)
+                        .flatMap(account -> cancelBalance(transaction, account, cancelAmount)))
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<TransactionDto> cancelBalance(TransactionRow transaction, AccountRow account, Long cancelAmount) {
+        accountPolicy.validateCancel(transaction.getAccountId(), account.getId(),
+                transaction.getAmount(), transaction.getTransactedAt(), cancelAmount);
+        return accountRepository.creditBalance(account.getId(), cancelAmount)
+                .then(findAccount(account.getAccountNumber()))
+                .flatMap(canceled -> save(canceled, CANCEL, cancelAmount));
+    }
+
+    public Mono<TransactionDto> getTransaction(String transactionId) {
+        return transactionRepository.findByTransactionId(transactionId)
+                .switchIfEmpty(Mono.error(() -> accountExceptionFactory.create(TRANSACTION_NOT_FOUND)))
+                .map(TransactionRow::toDto);
+    }
+
+    private Mono<AccountRow> findAccount(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .switchIfEmpty(Mono.error(() -> accountExceptionFactory.create(ACCOUNT_NOT_FOUND)));
+    }
+
+    private Mono<TransactionDto> save(AccountRow account, TransactionType transactionType, Long amount) {
+        TransactionDto transaction = TransactionDto.builder()
+                .accountNumber(account.getAccountNumber())
+                .transactionType(transactionType)
+                .transactionResultType(SUCCESS)
+                .amount(amount)
+                .balanceSnapshot(account.getBalance())
+                .transactionId(transactionIdGenerator.generate())
+                .transactedAt(LocalDateTime.now())
+                .build();
+        return transactionRepository.insert(account.getId(), transaction).thenReturn(transaction);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.dto.TransactionExport;
+import com.example.accountservice.dto.TransactionExportDto;
+import com.example.accountservice.exception.AccountExceptionFactory;
+import com.example.accountservice.repository.TransactionRepository;
+import com.example.accountservice.shard.ShardRouter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.example.accountservice.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static com.example.accountservice.type.ErrorCode.INVALID_REQUEST;
+
+/**
+ * 거래 원장을 응답 스트림에 바로 기록한다.
+ * 전진 전용 커서에서 한 행씩 읽어 쓰므로 내보내는 행 수와 관계없이 메모리 사용량이 일정하다.
+ * 샤딩 중에는 계좌가 속한 샤드에서만 읽으므로 계좌번호가 있어야 한다.
+ * 내보내기는 오래 걸릴 수 있으므로 비동기 타임아웃을 transaction.export.timeout 으로 따로 둔다.
+ */
+@Slf4j
+@Service
+public class TransactionExportService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER =
+            "transactionId,accountNumber,transactionType,transactionResult,amount,balanceSnapshot,transactedAt\n";
+
+    private final TransactionRepository transactionRepository;
+    private final AccountLookupCache accountLookupCache;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final int fetchSize;
+    @Getter
+    private final Duration timeout;
+    private final AccountExceptionFactory accountExceptionFactory;
+
+    public TransactionExportService(TransactionRepository transactionRepository,
+                                    AccountLookupCache accountLookupCache,
+                                    ShardRouter shardRouter,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    AccountExceptionFactory accountExceptionFactory,
+                                    @Value("${transaction.export.fetch-size:1000}") int fetchSize,
+                                    @Value("${transaction.export.timeout:1h}") Duration timeout) {
+        this.accountExceptionFactory = accountExceptionFactory;
+        this.transactionRepository = transactionRepository;
+        this.accountLookupCache = accountLookupCache;
+        this.shardRouter = shardRouter;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+        this.timeout = timeout;
+    }
+
+    /**
+     * 계좌 확인은 응답을 시작하기 전에 끝내고, 조회와 기록은 비동기 스레드의 읽기 전용 트랜잭션에서 수행한다.
+     */
+    public StreamingResponseBody export(TransactionExport.Request request) {
+        if (request.getAccountNumber() == null && shardRouter.isEnabled()) {
+            throw accountExceptionFactory.create(INVALID_REQUEST);
+        }
+        int shard = request.getAccountNumber() == null ? 0 : shardRouter.shardOf(request.getAccountNumber());
+        Long accountId = request.getAccountNumber() == null ? null
+                : shardRouter.onShard(shard, () -> accountLookupCache.findAccount(request.getAccountNumber()))
+                .orElseThrow(() -> accountExceptionFactory.create(ACCOUNT_NOT_FOUND))
+                .getId();
+
+        return outputStream -> shardRouter.onShard(shard, () -> {
+            readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                try (Stream<TransactionExportDto> rows = transactionRepository.streamExport(
+                        accountId, request.getFrom(), request.getTo(), fetchSize)) {
+                    long written = write(rows, request, outputStream);
+                    log.debug("Exported transactions : {}, accountNumber : {}", written, request.getAccountNumber());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return null;
+        });
+    }
+
+    long write(Stream<TransactionExportDto> rows, TransactionExport.Request request, OutputStream outputStream)
+            throws IOException {
+        OutputStream target = request.isGzip()
+                ? new GZIPOutputStream(outputStream, BUFFER_SIZE)
+                : new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        long written = request.getFormat() == TransactionExport.Format.CSV
+                ? writeCsv(rows, target)
+                : writeNdjson(rows, target);
+        target.flush();
+        if (target instanceof GZIPOutputStream) {
+            ((GZIPOutputStream) target).finish();
+        }
+        return written;
+    }
+
+    private long writeNdjson(Stream<TransactionExportDto> rows, OutputStream target) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(target);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        long written = 0;
+        for (TransactionExportDto row : (Iterable<TransactionExportDto>) rows::iterator) {
+            generator.writeStartObject();
+            generator.writeStringField("transactionId", row.getTransactionId());
+            generator.writeStringField("accountNumber", row.getAccountNumber());
+            generator.writeStringField("transactionType", row.getTransactionType().name());
+            generator.writeStringField("transactionResult", row.getTransactionResultType().name());
+            writeNumberField(generator, "amount", row.getAmount());
+            writeNumberField(generator, "balanceSnapshot", row.getBalanceSnapshot());
+            generator.writeStringField("transactedAt", row.getTransactedAt().toString());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            written++;
+        }
+        generator.flush();
+        return written;
+    }
+
+    private static long writeCsv(Stream<TransactionExportDto> rows, OutputStream target) throws IOException {
+        Writer writer = new OutputStreamWriter(target, StandardCharsets.UTF_8);
+        writer.write(CSV_HEADER);
+        long written = 0;
+        for (TransactionExportDto row : (Iterable<TransactionExportDto>) rows::iterator) {
+            writer.write(csv(row.getTransactionId()));
+            writer.write(',');
+            writer.write(csv(row.getAccountNumber()));
+            writer.write(',');
+            writer.write(row.getTransactionType().name());
+            writer.write(',');
+            writer.write(row.getTransactionResultType().name());
+            writer.write(',');
+            writer.write(String.valueOf(row.getAmount()));
+            writer.write(',');
+            writer.write(row.getBalanceSnapshot() == null ? "" : String.valueOf(row.getBalanceSnapshot()));
+            writer.write(',');
+            writer.write(row.getTransactedAt().toString());
+            writer.write('\n');
+            written++;
+        }
+        writer.flush();
+        return written;
+    }
+
+    private static void writeNumberField(JsonGenerator generator, String name, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeNumberField(name, value);
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.type.TransactionResultType;
+import com.example.accountservice.type.TransactionType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 한 번 기록된 거래는 바뀌지 않으므로 조회 결과를 힙 밖의 direct buffer 에 고정 길이 슬롯으로 보관한다.
+ * 거래 id 해시로 버킷을 정하고, 버킷이 가득 차면 가장 먼저 들어온 슬롯을 덮어쓴다.
+ * 용량을 0 으로 설정하면 저장하지 않는다.
+ * 적중, 미스, 밀려난 건수는 transaction.lookup-store{result=hit|miss|eviction} 로 내보낸다.
+ */
+@Component
+public class TransactionLookupStore implements MeterBinder {
+    private static final int KEY_LENGTH = 10;
+    private static final int SLOT_SIZE = 64;
+    private static final int WAYS = 4;
+    private static final int LOCK_STRIPES = 256;
+
+    private static final int OCCUPIED = 0;
+    private static final int TRANSACTION_ID = 1;
+    private static final int ACCOUNT_NUMBER = 11;
+    private static final int TRANSACTION_TYPE = 21;
+    private static final int RESULT_TYPE = 22;
+    private static final int HAS_BALANCE = 23;
+    private static final int AMOUNT = 24;
+    private static final int BALANCE_SNAPSHOT = 32;
+    private static final int EPOCH_SECOND = 40;
+    private static final int NANO = 48;
+    private static final int STAMP = 56;
+
+    private final ByteBuffer buffer;
+    private final int bucketMask;
+    private final StampedLock[] locks = new StampedLock[LOCK_STRIPES];
+    private final AtomicLong insertions = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TransactionLookupStore(@Value("${transaction.lookup-store.capacity:65536}") int capacity) {
+        int buckets = Integer.highestOneBit(Math.max(capacity / WAYS, 1) * 2 - 1);
+        this.buffer = capacity > 0 ? ByteBuffer.allocateDirect(buckets * WAYS * SLOT_SIZE) : null;
+        this.bucketMask = buckets - 1;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new StampedLock();
+        }
+    }
+
+    public Optional<TransactionDto> find(String transactionId) {
+        if (buffer == null || !isStorable(transactionId)) {
+            return Optional.empty();
+        }
+        byte[] key = transactionId.getBytes(StandardCharsets.US_ASCII);
+        int bucket = bucketOf(transactionId);
+        StampedLock lock = lockOf(bucket);
+        byte[] slot = new byte[SLOT_SIZE];
+
+        long stamp = lock.tryOptimisticRead();
+        boolean found = copySlot(bucket, key, slot);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                found = copySlot(bucket, key, slot);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        if (!found) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(decode(ByteBuffer.wrap(slot)));
+    }
+
+    public void put(TransactionDto transactionDto) {
+        if (buffer == null || !isStorable(transactionDto.getTransactionId()) || !isStorable(transactionDto.getAccountNumber())
+                || transactionDto.getAmount() == null || transactionDto.getTransactedAt() == null) {
+            return;
+        }
+        byte[] key = transactionDto.getTransactionId().getBytes(StandardCharsets.US_ASCII);
+        int bucket = bucketOf(transactionDto.getTransactionId());
+        StampedLock lock = lockOf(bucket);
+
+        long stamp = lock.writeLock();
+        try {
+            if (indexOf(bucket, key) >= 0) {
+                return;
+            }
+            int offset = victimOf(bucket);
+            if (buffer.get(offset + OCCUPIED) != 0) {
+                evictions.increment();
+            }
+            encode(offset, key, transactionDto);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 롤백된 거래가 남지 않도록 트랜잭션이 커밋된 뒤에 적재한다.
+     */
+    public void putAfterCommit(List<TransactionDto> transactionDtos) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionDtos.forEach(this::put);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                transactionDtos.forEach(TransactionLookupStore.this::put);
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCounter(registry, "hit", hits);
+        bindCounter(registry, "miss", misses);
+        bindCounter(registry, "eviction", evictions);
+    }
+
+    private static void bindCounter(MeterRegistry registry, String result, LongAdder count) {
+        FunctionCounter.builder("transaction.lookup-store", count, LongAdder::sum)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private boolean copySlot(int bucket, byte[] key, byte[] slot) {
+        int offset = indexOf(bucket, key);
+        if (offset < 0) {
+            return false;
+        }
+        buffer.get(offset, slot);
+        return true;
+    }
+
+    private int indexOf(int bucket, byte[] key) {
+        int base = bucket * WAYS * SLOT_SIZE;
+        for (int way = 0; way < WAYS; way++) {
+            int offset = base + way * SLOT_SIZE;
+            if (buffer.get(offset + OCCUPIED) != 0 && keyEquals(offset, key)) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    private int victimOf(int bucket) {
+        int base = bucket * WAYS * SLOT_SIZE;
+        int victim = base;
+        long oldest = Long.MAX_VALUE;
+        for (int way = 0; way < WAYS; way++) {
+            int offset = base + way * SLOT_SIZE;
+            if (buffer.get(offset + OCCUPIED) == 0) {
+                return offset;
+            }
+            long stamp = buffer.getLong(offset + STAMP);
+            if (stamp < oldest) {
+                oldest = stamp;
+                victim = offset;
+            }
+        }
+        return victim;
+    }
+
+    private boolean keyEquals(int offset, byte[] key) {
+        for (int i = 0; i < KEY_LENGTH; i++) {
+            if (buffer.get(offset + TRANSACTION_ID + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void encode(int offset, byte[] key, TransactionDto transactionDto) {
+        buffer.put(offset + OCCUPIED, (byte) 1);
+        buffer.put(offset + TRANSACTION_ID, key);
+        buffer.put(offset + ACCOUNT_NUMBER, transactionDto.getAccountNumber().getBytes(StandardCharsets.US_ASCII));
+        buffer.put(offset + TRANSACTION_TYPE, (byte) transactionDto.getTransactionType().ordinal());
+        buffer.put(offset + RESULT_TYPE, (byte) transactionDto.getTransactionResultType().ordinal());
+        buffer.put(offset + HAS_BALANCE, (byte) (transactionDto.getBalanceSnapshot() == null ? 0 : 1));
+        buffer.putLong(offset + AMOUNT, transactionDto.getAmount());
+        buffer.putLong(offset + BALANCE_SNAPSHOT,
+                transactionDto.getBalanceSnapshot() == null ? 0L : transactionDto.getBalanceSnapshot());
+        buffer.putLong(offset + EPOCH_SECOND, transactionDto.getTransactedAt().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(offset + NANO, transactionDto.getTransactedAt().getNano());
+        buffer.putLong(offset + STAMP, insertions.incrementAndGet());
+    }
+
+    private static TransactionDto decode(ByteBuffer slot) {
+        byte[] transactionId = new byte[KEY_LENGTH];
+        byte[] accountNumber = new byte[KEY_LENGTH];
+        slot.get(TRANSACTION_ID, transactionId);
+        slot.get(ACCOUNT_NUMBER, accountNumber);
+
+        return TransactionDto.builder()
+                .accountNumber(new String(accountNumber, StandardCharsets.US_ASCII))
+                .transactionType(TransactionType.values()[slot.get(TRANSACTION_TYPE)])
+                .transactionResultType(TransactionResultType.values()[slot.get(RESULT_TYPE)])
+                .amount(slot.getLong(AMOUNT))
+                .balanceSnapshot(slot.get(HAS_BALANCE) == 0 ? null : slot.getLong(BALANCE_SNAPSHOT))
+                .transactionId(new String(transactionId, StandardCharsets.US_ASCII))
+                .transactedAt(LocalDateTime.ofEpochSecond(slot.getLong(EPOCH_SECOND), slot.getInt(NANO), ZoneOffset.UTC))
+                .build();
+    }
+
+    private int bucketOf(String transactionId) {
+        int hash = transactionId.hashCode();
+        return (hash ^ (hash >>> 16)) & bucketMask;
+    }
+
+    private StampedLock lockOf(int bucket) {
+        return locks[bucket & (LOCK_STRIPES - 1)];
+    }
+
+    private static boolean isStorable(String key) {
+        return key != null && key.length() == KEY_LENGTH;
+    }
+}
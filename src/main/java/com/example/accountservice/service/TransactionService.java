@@ -1,21 +1,36 @@
 package com.example.accountservice.service;
 
+import com.example.accountservice.datasource.ReadAfterWriteGuard;
 import com.example.accountservice.domain.Account;
 import com.example.accountservice.domain.AccountUser;
 import com.example.accountservice.domain.Transaction;
+import com.example.accountservice.dto.BatchBalance;
+import com.example.accountservice.dto.BatchTransactionDto;
 import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.dto.TransactionHistoryCondition;
+import com.example.accountservice.dto.TransactionHistoryDto;
 import com.example.accountservice.exception.AccountException;
+import com.example.accountservice.exception.AccountExceptionFactory;
+import com.example.accountservice.jfr.BalanceTransactionEvent;
+import com.example.accountservice.policy.AccountPolicy;
 import com.example.accountservice.policy.TransactionIdGenerator;
+import com.example.accountservice.repository.AccountBalanceProjection;
 import com.example.accountservice.repository.AccountRepository;
-import com.example.accountservice.repository.AccountUserRepository;
+import com.example.accountservice.repository.BalanceRepository;
 import com.example.accountservice.repository.TransactionRepository;
-import com.example.accountservice.type.AccountStatus;
+import com.example.accountservice.shard.ShardRouter;
+import com.example.accountservice.type.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Objects;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static com.example.accountservice.type.ErrorCode.*;
 import static com.example.accountservice.type.TransactionResultType.FAIL;
@@ -23,102 +38,312 @@ import static com.example.accountservice.type.TransactionResultType.SUCCESS;
 import static com.example.accountservice.type.TransactionType.CANCEL;
 import static com.example.accountservice.type.TransactionType.USE;
 
+/**
+ * 잔액 사용/취소는 단계별 소요 시간을 transaction.phase 메트릭과 BalanceTransactionEvent 로 남긴다.
+ * 조건부 차감은 검증, 반영, 차감 후 잔액 조회를 한 문장으로 처리하므로 debit 단계로 따로 잰다.
+ * 샤딩 중에는 첫 쿼리 전에 계좌번호나 거래 아이디로 샤드를 정하고, 새 거래 아이디에는 계좌의 슬롯을 담는다.
+ */
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 @Service
 public class TransactionService {
-    private final AccountUserRepository accountUserRepository;
+    private static final String LOOKUP = "lookup";
+    private static final String VALIDATE = "validate";
+    private static final String DEBIT = "debit";
+    private static final String PERSIST = "persist";
+
+    private final AccountLookupCache accountLookupCache;
     private final AccountRepository accountRepository;
+    private final BalanceRepository balanceRepository;
     private final TransactionRepository transactionRepository;
     private final TransactionIdGenerator transactionIdGenerator;
+    private final TransactionLookupStore transactionLookupStore;
+    private final ReadAfterWriteGuard readAfterWriteGuard;
+    private final ShardRouter shardRouter;
+    private final MeterRegistry meterRegistry;
+    private final AccountExceptionFactory accountExceptionFactory;
+    private final AccountPolicy accountPolicy;
 
     @Transactional
     public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
-        AccountUser findAccountUser = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
-        Account findAccount = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
-        validateUseBalance(findAccountUser, findAccount, amount);
+        BalanceTransactionEvent event = new BalanceTransactionEvent("use", accountNumber);
+        event.begin();
+        try {
+            return useBalance(event, userId, accountNumber, amount);
+        } finally {
+            event.commit();
+        }
+    }
 
-        findAccount.useBalance(amount);
+    private TransactionDto useBalance(BalanceTransactionEvent event, Long userId, String accountNumber, Long amount) {
+        shardRouter.routeAccount(accountNumber);
+        markWritten(userId, accountNumber);
+        Optional<AccountBalanceProjection> debitedBalance = phase(event, DEBIT, () ->
+                balanceRepository.debitBalance(accountNumber, userId, amount));
+        if (debitedBalance.isEmpty()) {
+            return useBalanceWithValidation(event, userId, accountNumber, amount);
+        }
+        AccountBalanceProjection debited = debitedBalance.get();
+        event.addRowsWritten(1);
 
-        return TransactionDto.toResponse(transactionRepository.save(Transaction.builder()
-                .account(findAccount)
+        TransactionDto transaction = TransactionDto.builder()
+                .accountNumber(accountNumber)
                 .transactionType(USE)
                 .transactionResultType(SUCCESS)
                 .amount(amount)
-                .balanceSnapshot(findAccount.getBalance())
-                .transactionId(transactionIdGenerator.generate())
+                .balanceSnapshot(debited.getBalance())
+                .transactionId(newTransactionId(accountNumber))
                 .transactedAt(LocalDateTime.now())
-                .build()));
+                .build();
+        phase(event, PERSIST, () -> {
+            balanceRepository.insertTransactions(debited.getId(), List.of(transaction));
+            return null;
+        });
+        event.addRowsWritten(1);
+
+        return stored(transaction);
+    }
+
+    private TransactionDto useBalanceWithValidation(BalanceTransactionEvent event,
+                                                    Long userId, String accountNumber, Long amount) {
+        AccountUser findAccountUser = phase(event, LOOKUP, () -> accountLookupCache.findAccountUser(userId)
+                .orElseThrow(() -> accountExceptionFactory.create(USER_NOT_FOUND)));
+        phase(event, VALIDATE, () -> {
+            accountLookupCache.findAccount(accountNumber)
+                    .ifPresent(cachedAccount -> validateCachedAccount(findAccountUser, cachedAccount));
+            return null;
+        });
+
+        Account findAccount = phase(event, LOOKUP, () -> accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> accountExceptionFactory.create(ACCOUNT_NOT_FOUND)));
+        phase(event, VALIDATE, () -> {
+            validateUseBalance(findAccountUser, findAccount, amount);
+            return null;
+        });
+
+        Transaction transaction = phase(event, PERSIST, () -> {
+            findAccount.useBalance(amount);
+            return transactionRepository.saveAndFlush(Transaction.builder()
+                    .account(findAccount)
+                    .transactionType(USE)
+                    .transactionResultType(SUCCESS)
+                    .amount(amount)
+                    .balanceSnapshot(findAccount.getBalance())
+                    .transactionId(newTransactionId(accountNumber))
+                    .transactedAt(LocalDateTime.now())
+                    .build());
+        });
+        event.addRowsWritten(2);
+
+        return stored(TransactionDto.toResponse(transaction));
+    }
+
+    /**
+     * 소유자와 해지 상태는 되돌아가지 않으므로 캐시만으로 거절할 수 있다.
+     */
+    private void validateCachedAccount(AccountUser accountUser, AccountLookupCache.CachedAccount cachedAccount) {
+        accountPolicy.validateOwner(accountUser.getId(), cachedAccount.getOwnerId(), cachedAccount.getAccountStatus());
     }
 
     private void validateUseBalance(AccountUser accountUser, Account account, Long amount) {
-        if (!Objects.equals(accountUser.getId(), account.getAccountUser().getId())) {
-            throw new AccountException(USER_ACCOUNT_NOT_MATCHED);
-        }
-        if (account.getAccountStatus() != AccountStatus.IN_USE) {
-            throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
-        }
-        if (account.getBalance() < amount) {
-            throw new AccountException(AMOUNT_EXCEED_BALANCE);
+        accountPolicy.validateUse(accountUser.getId(), account.getAccountUser().getId(),
+                account.getAccountStatus(), account.getBalance(), amount);
+    }
+
+    @Transactional
+    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long cancelAmount) {
+        BalanceTransactionEvent event = new BalanceTransactionEvent("cancel", accountNumber);
+        event.begin();
+        try {
+            return cancelBalance(event, transactionId, accountNumber, cancelAmount);
+        } finally {
+            event.commit();
         }
     }
 
-    public void useBalanceFailed(String accountNumber, Long amount) {
-        Account findAccount = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+    private TransactionDto cancelBalance(BalanceTransactionEvent event,
+                                         String transactionId, String accountNumber, Long cancelAmount) {
+        shardRouter.routeAccount(accountNumber);
+        Transaction transaction = phase(event, LOOKUP, () -> transactionRepository.findByTransactionId(transactionId)
+                .orElseThrow(() -> accountExceptionFactory.create(TRANSACTION_NOT_FOUND)));
+        Account account = phase(event, LOOKUP, () -> accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> accountExceptionFactory.create(ACCOUNT_NOT_FOUND)));
 
-        transactionRepository.save(Transaction.builder()
-                .account(findAccount)
-                .transactionType(USE)
-                .transactionResultType(FAIL)
-                .amount(amount)
-                .balanceSnapshot(findAccount.getBalance())
-                .transactionId(transactionIdGenerator.generate())
-                .transactedAt(LocalDateTime.now())
-                .build());
+        phase(event, VALIDATE, () -> {
+            transactionValidate(transaction, account, cancelAmount);
+            return null;
+        });
+        markWritten(account.getAccountUser().getId(), accountNumber);
+
+        Transaction canceled = phase(event, PERSIST, () -> {
+            account.cancelBalance(cancelAmount);
+            return transactionRepository.saveAndFlush(
+                    Transaction.builder()
+                            .account(account)
+                            .transactionType(CANCEL)
+                            .transactionResultType(SUCCESS)
+                            .amount(cancelAmount)
+                            .balanceSnapshot(account.getBalance())
+                            .transactionId(newTransactionId(accountNumber))
+                            .transactedAt(LocalDateTime.now())
+                            .build());
+        });
+        event.addRowsWritten(2);
+
+        return stored(TransactionDto.toResponse(canceled));
     }
 
     @Transactional
-    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long cancelAmount) {
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND));
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
-
-        transactionValidate(transaction, account, cancelAmount);
-        account.cancelBalance(cancelAmount);
-
-        return TransactionDto.toResponse(
-                transactionRepository.save(
-                        Transaction.builder()
-                                .account(account)
-                                .transactionType(CANCEL)
-                                .transactionResultType(SUCCESS)
-                                .amount(cancelAmount)
-                                .balanceSnapshot(account.getBalance())
-                                .transactionId(transactionIdGenerator.generate())
-                                .transactedAt(LocalDateTime.now())
-                                .build()));
+    public List<BatchTransactionDto> applyBatch(String accountNumber, SortedMap<Integer, BatchBalance.Item> items) {
+        return applyBatch(accountNumber, items, true);
     }
 
-    public TransactionDto getTransaction(String transactionId) {
-        return TransactionDto.toResponse(
-                transactionRepository.findByTransactionId(transactionId)
-                        .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND))
-        );
+    @Transactional
+    public List<BatchTransactionDto> applyBatch(String accountNumber, SortedMap<Integer, BatchBalance.Item> items,
+                                                boolean ledgerFailures) {
+        BalanceTransactionEvent event = new BalanceTransactionEvent("batch", accountNumber);
+        event.begin();
+        try {
+            return applyBatch(event, accountNumber, items, ledgerFailures);
+        } finally {
+            event.commit();
+        }
     }
 
-    private void transactionValidate(Transaction transaction, Account account, Long cancelAmount) {
-        if (!Objects.equals(transaction.getAccount().getId(), account.getId())) {
-            throw new AccountException(TRANSACTION_ACCOUNT_UN_MATCH);
+    private List<BatchTransactionDto> applyBatch(BalanceTransactionEvent event, String accountNumber,
+                                                 SortedMap<Integer, BatchBalance.Item> items, boolean ledgerFailures) {
+        shardRouter.routeAccount(accountNumber);
+        Account account = accountRepository.findByAccountNumber(accountNumber).orElse(null);
+        if (account == null) {
+            return items.entrySet().stream()
+                    .map(entry -> BatchTransactionDto.failed(entry.getKey(), entry.getValue(), ACCOUNT_NOT_FOUND))
+                    .collect(Collectors.toList());
         }
-        if (!Objects.equals(transaction.getAmount(), cancelAmount)) {
-            throw new AccountException(CANCEL_MUST_FULLY);
+
+        markWritten(account.getAccountUser().getId(), accountNumber);
+        Map<String, Transaction> cancelTargets = findCancelTargets(items.values());
+        List<Transaction> ledger = new ArrayList<>(items.size());
+        List<BatchTransactionDto> results = new ArrayList<>(items.size());
+
+        for (Map.Entry<Integer, BatchBalance.Item> entry : items.entrySet()) {
+            BatchBalance.Item item = entry.getValue();
+            ErrorCode errorCode = null;
+            try {
+                applyBatchItem(account, item, cancelTargets);
+            } catch (AccountException e) {
+                errorCode = e.getErrorCode();
+            }
+
+            Transaction transaction = Transaction.builder()
+                    .account(account)
+                    .transactionType(item.getTransactionType())
+                    .transactionResultType(errorCode == null ? SUCCESS : FAIL)
+                    .amount(item.getAmount())
+                    .balanceSnapshot(account.getBalance())
+                    .transactionId(newTransactionId(accountNumber))
+                    .transactedAt(LocalDateTime.now())
+                    .build();
+            if (errorCode == null || ledgerFailures) {
+                ledger.add(transaction);
+            }
+            results.add(BatchTransactionDto.toResponse(entry.getKey(), accountNumber, transaction, errorCode));
+        }
+
+        List<TransactionDto> ledgerDtos = ledger.stream()
+                .map(TransactionDto::toResponse)
+                .collect(Collectors.toList());
+        balanceRepository.insertTransactions(account.getId(), ledgerDtos);
+        event.addRowsWritten(ledger.size() + 1);
+        transactionLookupStore.putAfterCommit(ledgerDtos);
+        return results;
+    }
+
+    private Map<String, Transaction> findCancelTargets(Collection<BatchBalance.Item> items) {
+        List<String> transactionIds = items.stream()
+                .filter(item -> item.getTransactionType() == CANCEL && item.getTransactionId() != null)
+                .map(BatchBalance.Item::getTransactionId)
+                .distinct()
+                .collect(Collectors.toList());
+        if (transactionIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return transactionRepository.findAllByTransactionIdIn(transactionIds).stream()
+                .collect(Collectors.toMap(Transaction::getTransactionId, Function.identity(), (a, b) -> a));
+    }
+
+    private void applyBatchItem(Account account, BatchBalance.Item item, Map<String, Transaction> cancelTargets) {
+        if (item.getTransactionType() == USE) {
+            if (!Objects.equals(item.getUserId(), account.getAccountUser().getId())) {
+                throw accountExceptionFactory.create(accountLookupCache.findAccountUser(item.getUserId()).isPresent()
+                        ? USER_ACCOUNT_NOT_MATCHED : USER_NOT_FOUND);
+            }
+            validateUseBalance(account.getAccountUser(), account, item.getAmount());
+            account.useBalance(item.getAmount());
+            return;
         }
-        if (transaction.getTransactedAt().isBefore(LocalDateTime.now().minusYears(1))) {
-            throw new AccountException(TOO_OLD_ORDER_TO_CANCEL);
+
+        Transaction transaction = cancelTargets.get(item.getTransactionId());
+        if (transaction == null) {
+            throw accountExceptionFactory.create(TRANSACTION_NOT_FOUND);
+        }
+        transactionValidate(transaction, account, item.getAmount());
+        account.cancelBalance(item.getAmount());
+    }
+
+    public TransactionDto getTransaction(String transactionId) {
+        readAfterWriteGuard.readTransaction(transactionId);
+        shardRouter.routeTransaction(transactionId);
+        TransactionDto transactionDto = balanceRepository.findByTransactionId(transactionId)
+                .orElseThrow(() -> accountExceptionFactory.create(TRANSACTION_NOT_FOUND));
+        transactionLookupStore.put(transactionDto);
+        return transactionDto;
+    }
+
+    /**
+     * 다음 페이지 존재 여부를 알 수 있도록 size + 1 건을 조회한다.
+     */
+    public List<TransactionHistoryDto> getTransactionHistory(TransactionHistoryCondition condition) {
+        readAfterWriteGuard.readAccount(condition.getAccountNumber());
+        shardRouter.routeAccount(condition.getAccountNumber());
+        AccountLookupCache.CachedAccount account = accountLookupCache.findAccount(condition.getAccountNumber())
+                .orElseThrow(() -> accountExceptionFactory.create(ACCOUNT_NOT_FOUND));
+        return transactionRepository.findHistory(account.getId(), condition, condition.getSize() + 1);
+    }
+
+    /**
+     * persist 단계는 flush 까지 포함해 실제 쓰기 시간을 잰다.
+     */
+    private <T> T phase(BalanceTransactionEvent event, String phase, Supplier<T> step) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return step.get();
+        } finally {
+            event.addPhase(phase, sample.stop(meterRegistry.timer("transaction.phase",
+                    "operation", event.getOperation(), "phase", phase)));
         }
     }
+
+    private String newTransactionId(String accountNumber) {
+        String transactionId = shardRouter.isEnabled()
+                ? transactionIdGenerator.generate(shardRouter.slotOf(accountNumber))
+                : transactionIdGenerator.generate();
+        readAfterWriteGuard.markTransactionWritten(transactionId);
+        return transactionId;
+    }
+
+    private void markWritten(Long userId, String accountNumber) {
+        readAfterWriteGuard.markUserWritten(userId);
+        readAfterWriteGuard.markAccountWritten(accountNumber);
+    }
+
+    private TransactionDto stored(TransactionDto transactionDto) {
+        transactionLookupStore.putAfterCommit(List.of(transactionDto));
+        return transactionDto;
+    }
+
+    private void transactionValidate(Transaction transaction, Account account, Long cancelAmount) {
+        accountPolicy.validateCancel(transaction.getAccount().getId(), account.getId(),
+                transaction.getAmount(), transaction.getTransactedAt(), cancelAmount);
+    }
 }
@@ -0,0 +1,140 @@
+package com.example.accountservice.shard;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 슬롯 하나의 계좌와 거래 원장을 다른 샤드로 옮긴다.
+ * 슬롯 쓰기 락으로 그 슬롯의 새 트랜잭션을 막은 채 대상 샤드에 복사하고, 디렉터리를 바꾼 뒤 원본을 지운다.
+ * PK 와 거래 아이디를 그대로 옮기므로 캐시된 계좌 id 와 이미 발급한 거래 아이디는 계속 유효하다.
+ * 복사가 실패하면 대상 트랜잭션만 롤백되고 디렉터리는 바뀌지 않는다.
+ * 디렉터리를 바꾼 뒤 원본 삭제가 실패하면 전체 조회가 그 계좌를 두 번 세므로, 슬롯을 정리 대상으로 Redis 에 남기고 예외를 던진다.
+ * 남은 정리는 다음 리샤딩 전에 먼저 끝내야 하며, 끝내지 못하면 리샤딩을 시작하지 않는다.
+ */
+@Slf4j
+public class ReshardingService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final ShardRouter shardRouter;
+    private final ShardDataSources shardDataSources;
+
+    public ReshardingService(ShardRouter shardRouter, ShardDataSources shardDataSources) {
+        this.shardRouter = shardRouter;
+        this.shardDataSources = shardDataSources;
+    }
+
+    public MoveResult moveSlot(int slot, int targetShard) {
+        if (slot < 0 || slot >= shardRouter.getSlotCount()) {
+            throw new IllegalArgumentException("slot must be between 0 and " + (shardRouter.getSlotCount() - 1));
+        }
+        if (targetShard < 0 || targetShard >= shardRouter.getShardCount()) {
+            throw new IllegalArgumentException("shard must be between 0 and " + (shardRouter.getShardCount() - 1));
+        }
+        cleanupPending();
+        return shardRouter.withSlotLocked(slot, () -> move(slot, shardRouter.shardOfSlot(slot), targetShard));
+    }
+
+    /**
+     * 이전 리샤딩에서 원본 샤드에 남은 행을 지운다. 슬롯이 그 샤드로 다시 배정됐으면 남은 행이 곧 원본이므로 지우지 않는다.
+     */
+    public void cleanupPending() {
+        for (Map.Entry<Integer, Integer> cleanup : shardRouter.pendingCleanups().entrySet()) {
+            int slot = cleanup.getKey();
+            int shard = cleanup.getValue();
+            shardRouter.withSlotLocked(slot, () -> {
+                if (shardRouter.shardOfSlot(slot) != shard) {
+                    deleteSlot(slot, shard, slotAccountIds(new JdbcTemplate(shardDataSources.get(shard)), slot));
+                }
+                shardRouter.clearCleanup(slot);
+                log.info("Cleaned up slot {} on shard {}", slot, shard);
+                return null;
+            });
+        }
+    }
+
+    private MoveResult move(int slot, int sourceShard, int targetShard) {
+        if (sourceShard == targetShard) {
+            return new MoveResult(slot, sourceShard, targetShard, 0, 0);
+        }
+
+        DataSource source = shardDataSources.get(sourceShard);
+        DataSource target = shardDataSources.get(targetShard);
+        JdbcTemplate sourceJdbc = new JdbcTemplate(source);
+        JdbcTemplate targetJdbc = new JdbcTemplate(target);
+
+        List<Long> accountIds = slotAccountIds(sourceJdbc, slot);
+
+        int[] copied = new int[2];
+        new TransactionTemplate(new DataSourceTransactionManager(target)).executeWithoutResult(status ->
+                forEachChunk(accountIds, chunk -> {
+                    String in = TableCopier.in(chunk.size());
+                    copied[0] += TableCopier.copy(sourceJdbc, targetJdbc, "account", "where id in " + in,
+                            chunk.toArray());
+                    copied[1] += TableCopier.copy(sourceJdbc, targetJdbc, "transaction",
+                            "where account_id in " + in, chunk.toArray());
+                }));
+
+        shardRouter.markCleanup(slot, sourceShard);
+        shardRouter.assign(slot, targetShard);
+
+        try {
+            deleteSlot(slot, sourceShard, accountIds);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Slot " + slot + " moved to shard " + targetShard
+                    + " but its rows remain on shard " + sourceShard + " until the next cleanup", e);
+        }
+        shardRouter.clearCleanup(slot);
+
+        log.info("Moved slot {} from shard {} to shard {} : accounts {}, transactions {}",
+                slot, sourceShard, targetShard, copied[0], copied[1]);
+        return new MoveResult(slot, sourceShard, targetShard, copied[0], copied[1]);
+    }
+
+    private List<Long> slotAccountIds(JdbcTemplate jdbcTemplate, int slot) {
+        return jdbcTemplate.queryForList("select id from account where account_slot(account_number, ?) = ?",
+                Long.class, shardRouter.getSlotCount(), slot);
+    }
+
+    private void deleteSlot(int slot, int shard, List<Long> accountIds) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(shardDataSources.get(shard));
+        new TransactionTemplate(new DataSourceTransactionManager(shardDataSources.get(shard))).executeWithoutResult(
+                status -> forEachChunk(accountIds, chunk -> {
+                    String in = TableCopier.in(chunk.size());
+                    jdbcTemplate.update("delete from transaction where account_id in " + in, chunk.toArray());
+                    jdbcTemplate.update("delete from account where id in " + in, chunk.toArray());
+                }));
+        log.debug("Deleted slot {} from shard {} : accounts {}", slot, shard, accountIds.size());
+    }
+
+    private static void forEachChunk(List<Long> ids, Consumer<List<Long>> action) {
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            action.accept(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+        }
+    }
+
+    @Getter
+    public static class MoveResult {
+        private final int slot;
+        private final int sourceShard;
+        private final int targetShard;
+        private final int accounts;
+        private final int transactions;
+
+        MoveResult(int slot, int sourceShard, int targetShard, int accounts, int transactions) {
+            this.slot = slot;
+            this.sourceShard = sourceShard;
+            this.targetShard = targetShard;
+            this.accounts = accounts;
+            this.transactions = transactions;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.accountservice.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+
+/**
+ * 샤드 번호 순서대로 만든 풀 목록. 샤드 0 은 Hibernate 스키마 생성과 data.sql 이 실행되는 기본 샤드다.
+ * 풀이 빈이 아니어서 Hikari 메트릭 자동 설정이 닿지 않으므로 MeterBinder 로 직접 연결한다.
+ */
+public class ShardDataSources implements MeterBinder, AutoCloseable {
+
+    private final List<HikariDataSource> dataSources;
+
+    public ShardDataSources(List<HikariDataSource> dataSources) {
+        this.dataSources = List.copyOf(dataSources);
+    }
+
+    public HikariDataSource get(int shard) {
+        return dataSources.get(shard);
+    }
+
+    public List<HikariDataSource> getAll() {
+        return dataSources;
+    }
+
+    public int size() {
+        return dataSources.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        dataSources.forEach(dataSource -> dataSource.setMetricRegistry(registry));
+    }
+
+    @Override
+    public void close() {
+        dataSources.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,356 @@
+package com.example.accountservice.shard;
+
+import com.example.accountservice.exception.AccountExceptionFactory;
+import com.example.accountservice.policy.TransactionIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.IntegerCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.example.accountservice.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.accountservice.type.ErrorCode.TRANSACTION_NOT_FOUND;
+
+/**
+ * 계좌번호를 2^slot-bits 개의 슬롯으로 나누고, 슬롯 → 샤드 디렉터리로 요청을 보낼 샤드를 정한다.
+ * 거래 아이디에는 슬롯이 들어 있으므로 계좌번호 없이도 거래를 찾을 수 있고, 슬롯을 옮겨도 아이디는 그대로다.
+ * 한 트랜잭션은 한 샤드에서만 실행한다. 커넥션은 LazyConnectionDataSourceProxy 가 첫 쿼리 때 고르므로
+ * 라우팅은 첫 쿼리 전에 해야 하고, 이미 다른 샤드의 커넥션을 쓴 트랜잭션을 라우팅하면 예외를 던진다.
+ * 디렉터리는 Redis 해시에 두어 재시작 후에도 유지되고 모든 인스턴스가 같은 값을 본다. 비어 있는 슬롯은 시작할 때 slot % 샤드 수로 채운다.
+ * 라우팅된 트랜잭션은 끝날 때까지 슬롯의 Redis 읽기 락을 잡고 그 안에서 디렉터리를 읽으며,
+ * 리샤딩은 쓰기 락으로 모든 인스턴스의 진행 중인 트랜잭션이 끝나기를 기다린다.
+ * account.shard.enabled 가 꺼져 있으면 아무것도 하지 않는다.
+ */
+@Slf4j
+@Component
+public class ShardRouter {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+    private static final ThreadLocal<Integer> CONNECTED_SHARD = new ThreadLocal<>();
+    private static final String DIRECTORY_KEY = "SHARD:SLOTS";
+    private static final String SLOT_LOCK_PREFIX = "SHARD:SLOT:";
+    private static final String CLEANUP_KEY = "SHARD:CLEANUP";
+
+    private final boolean enabled;
+    private final int shardCount;
+    private final int slotCount;
+    private final long lockTimeoutMillis;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final RedissonClient redissonClient;
+    private final TransactionTemplate newTransactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ExecutorService scatterExecutor;
+    private final AccountExceptionFactory accountExceptionFactory;
+
+    public ShardRouter(TransactionIdGenerator transactionIdGenerator,
+                       RedissonClient redissonClient,
+                       PlatformTransactionManager transactionManager,
+                       AccountExceptionFactory accountExceptionFactory,
+                       @Value("${account.shard.enabled:false}") boolean enabled,
+                       @Value("${account.shard.urls:}") String[] urls,
+                       @Value("${account.shard.slot-bits:6}") int slotBits,
+                       @Value("${account.shard.lock-timeout-millis:5000}") long lockTimeoutMillis) {
+        this.accountExceptionFactory = accountExceptionFactory;
+        this.enabled = enabled;
+        this.shardCount = enabled ? urls.length : 1;
+        this.slotCount = 1 << slotBits;
+        this.lockTimeoutMillis = lockTimeoutMillis;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.redissonClient = redissonClient;
+        if (enabled && (shardCount < 1 || shardCount > slotCount)) {
+            throw new IllegalArgumentException("account.shard.urls must list between 1 and " + slotCount + " shards");
+        }
+
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.scatterExecutor = enabled ? newScatterExecutor(shardCount) : null;
+    }
+
+    /**
+     * 저장된 디렉터리가 설정된 샤드 수를 넘는 샤드를 가리키면 그 슬롯에 닿을 수 없으므로 시작하지 않는다.
+     */
+    @PostConstruct
+    public void loadDirectory() {
+        if (!enabled) {
+            return;
+        }
+        RMap<Integer, Integer> directory = directory();
+        for (int slot = 0; slot < slotCount; slot++) {
+            directory.fastPutIfAbsent(slot, slot % shardCount);
+        }
+        for (Map.Entry<Integer, Integer> entry : directory.readAllEntrySet()) {
+            if (entry.getValue() < 0 || entry.getValue() >= shardCount) {
+                throw new IllegalStateException("Slot " + entry.getKey() + " is assigned to shard " + entry.getValue()
+                        + " but only " + shardCount + " shards are configured");
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    /**
+     * String.hashCode 는 JVM 과 무관하게 정해져 있으므로 슬롯 배정이 재시작 후에도 같다.
+     */
+    public int slotOf(String accountNumber) {
+        return accountSlot(accountNumber, slotCount);
+    }
+
+    /**
+     * 샤드 DB 에 ACCOUNT_SLOT 함수로 등록해 슬롯 단위 조회를 SQL 에서 거른다.
+     */
+    public static int accountSlot(String accountNumber, int slotCount) {
+        return Math.floorMod(accountNumber.hashCode(), slotCount);
+    }
+
+    public int shardOf(String accountNumber) {
+        return shardOfSlot(slotOf(accountNumber));
+    }
+
+    public int shardOfSlot(int slot) {
+        if (!enabled) {
+            return 0;
+        }
+        Integer shard = directory().get(slot);
+        return shard == null ? slot % shardCount : shard;
+    }
+
+    /**
+     * 슬롯 순서대로 배정된 샤드를 돌려준다.
+     */
+    public List<Integer> slots() {
+        Map<Integer, Integer> assigned = enabled ? directory().readAllMap() : Map.of();
+        List<Integer> shards = new ArrayList<>(slotCount);
+        for (int slot = 0; slot < slotCount; slot++) {
+            shards.add(assigned.getOrDefault(slot, slot % shardCount));
+        }
+        return shards;
+    }
+
+    /**
+     * 현재 트랜잭션을 계좌가 속한 샤드에 묶는다.
+     */
+    public void routeAccount(String accountNumber) {
+        if (!enabled) {
+            return;
+        }
+        route(slotOf(accountNumber));
+    }
+
+    /**
+     * 현재 트랜잭션을 거래 아이디에 담긴 슬롯의 샤드에 묶는다. 슬롯을 읽을 수 없는 아이디는 없는 거래로 본다.
+     */
+    public void routeTransaction(String transactionId) {
+        if (!enabled) {
+            return;
+        }
+        int slot;
+        try {
+            slot = transactionIdGenerator.slotOf(transactionId);
+        } catch (IllegalArgumentException e) {
+            throw accountExceptionFactory.create(TRANSACTION_NOT_FOUND);
+        }
+        route(slot);
+    }
+
+    /**
+     * 트랜잭션 없이 샤드를 정해 실행한다. 안에서 시작한 트랜잭션과 JdbcTemplate 호출이 그 샤드로 간다.
+     */
+    public <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * 모든 샤드에서 read-only 트랜잭션으로 병렬 조회해 샤드 순서대로 합친다.
+     * 꺼져 있으면 현재 트랜잭션에서 그대로 실행한다.
+     */
+    public <T> List<T> scatter(Supplier<List<T>> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> onShard(target,
+                    () -> readOnlyTransactionTemplate.execute(status -> query.get())), scatterExecutor));
+        }
+        List<T> results = new ArrayList<>();
+        for (CompletableFuture<List<T>> future : futures) {
+            results.addAll(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * 슬롯의 쓰기 락을 잡고 실행한다. 새 트랜잭션은 락을 기다리고, 진행 중인 트랜잭션이 끝나야 락을 얻는다.
+     */
+    <T> T withSlotLocked(int slot, Supplier<T> work) {
+        RLock lock = redissonClient.getReadWriteLock(SLOT_LOCK_PREFIX + slot).writeLock();
+        acquire(lock);
+        try {
+            return work.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void assign(int slot, int shard) {
+        directory().fastPut(slot, shard);
+        log.info("Moved slot {} to shard {}", slot, shard);
+    }
+
+    /**
+     * 슬롯을 옮긴 뒤 원본 샤드에서 지우지 못한 행이 남았음을 기록한다. 다음 리샤딩 전에 다시 지운다.
+     */
+    void markCleanup(int slot, int shard) {
+        cleanups().fastPut(slot, shard);
+    }
+
+    void clearCleanup(int slot) {
+        cleanups().fastRemove(slot);
+    }
+
+    Map<Integer, Integer> pendingCleanups() {
+        return cleanups().readAllMap();
+    }
+
+    <T> T inNewTransaction(int shard, Supplier<T> work) {
+        return onShard(shard, () -> newTransactionTemplate.execute(status -> work.get()));
+    }
+
+    static int currentShard() {
+        Integer shard = CURRENT_SHARD.get();
+        return shard == null ? 0 : shard;
+    }
+
+    /**
+     * 트랜잭션이 처음 얻은 커넥션의 샤드를 기억해 두었다가, 그 뒤의 라우팅이 다른 샤드를 가리키면 거절한다.
+     */
+    static void connected(int shard) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || CONNECTED_SHARD.get() != null) {
+            return;
+        }
+        CONNECTED_SHARD.set(shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                CONNECTED_SHARD.remove();
+            }
+        });
+    }
+
+    private void route(int slot) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Shard routing requires an active transaction");
+        }
+        RLock lock = redissonClient.getReadWriteLock(SLOT_LOCK_PREFIX + slot).readLock();
+        acquire(lock);
+        int shard;
+        try {
+            shard = shardOfSlot(slot);
+        } catch (RuntimeException e) {
+            lock.unlock();
+            throw e;
+        }
+        Integer previous = CURRENT_SHARD.get();
+        Integer connected = CONNECTED_SHARD.get();
+        if (connected != null && connected != shard) {
+            lock.unlock();
+            throw new IllegalStateException("Transaction is already bound to shard " + connected
+                    + ", cannot route to shard " + shard);
+        }
+        CURRENT_SHARD.set(shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                restore(previous);
+                lock.unlock();
+            }
+        });
+    }
+
+    private RMap<Integer, Integer> directory() {
+        return redissonClient.getMap(DIRECTORY_KEY, IntegerCodec.INSTANCE);
+    }
+
+    private RMap<Integer, Integer> cleanups() {
+        return redissonClient.getMap(CLEANUP_KEY, IntegerCodec.INSTANCE);
+    }
+
+    private void acquire(RLock lock) {
+        try {
+            if (!lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw accountExceptionFactory.create(ACCOUNT_TRANSACTION_LOCK);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw accountExceptionFactory.create(ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    private static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT_SHARD.remove();
+        } else {
+            CURRENT_SHARD.set(previous);
+        }
+    }
+
+    private static ExecutorService newScatterExecutor(int shardCount) {
+        AtomicInteger sequence = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(4, shardCount * 4), runnable -> {
+            Thread thread = new Thread(runnable, "account-shard-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ShardRouter" + slots();
+    }
+}
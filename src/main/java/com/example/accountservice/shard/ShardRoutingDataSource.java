@@ -0,0 +1,40 @@
+package com.example.accountservice.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ShardRouter 가 현재 스레드에 정한 샤드의 풀에서 커넥션을 준다. 정해진 샤드가 없으면 샤드 0 을 쓴다.
+ * 트랜잭션 안에서 라우팅한 뒤에 커넥션을 고르도록 LazyConnectionDataSourceProxy 로 감싸서 쓴다.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    public ShardRoutingDataSource(List<? extends DataSource> shards) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardRouter.currentShard();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        ShardRouter.connected(ShardRouter.currentShard());
+        return connection;
+    }
+}
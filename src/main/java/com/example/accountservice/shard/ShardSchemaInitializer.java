@@ -0,0 +1,69 @@
+package com.example.accountservice.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 샤드 0 에 Hibernate 가 만든 스키마와 data.sql 을 나머지 샤드에 옮긴다.
+ * 모든 빈이 만들어진 뒤(스키마 생성과 data.sql 실행 이후)에 샤드 0 의 DDL 을 H2 SCRIPT 로 뽑아 아직 스키마가 없는 샤드에서만 실행한다.
+ * 이미 account 테이블이 있는 샤드는 리샤딩으로 옮겨 온 슬롯을 담고 있을 수 있으므로 지우거나 다시 만들지 않고,
+ * 샤드 0 에 새로 생긴 account_user 만 더한다.
+ * PK 가 샤드 간에 겹치지 않아야 리샤딩 때 행을 그대로 옮길 수 있으므로, 새로 만든 샤드 k 의 시퀀스는 k * 2^40 부터 시작하게 한다.
+ * account_user 는 계좌의 FK 대상이고 크기가 작으므로 모든 샤드에 복제한다.
+ */
+@Slf4j
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+
+    static final int SEQUENCE_SHIFT = 40;
+
+    private final ShardDataSources shardDataSources;
+
+    public ShardSchemaInitializer(ShardDataSources shardDataSources) {
+        this.shardDataSources = shardDataSources;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        JdbcTemplate origin = new JdbcTemplate(shardDataSources.get(0));
+        createSlotFunction(origin);
+        List<String> ddl = origin.queryForList("script nodata", String.class);
+        List<Map<String, Object>> sequences = origin.queryForList(
+                "select sequence_name, increment from information_schema.sequences where sequence_schema = 'PUBLIC'");
+
+        for (int shard = 1; shard < shardDataSources.size(); shard++) {
+            JdbcTemplate target = new JdbcTemplate(shardDataSources.get(shard));
+            if (hasSchema(target)) {
+                createSlotFunction(target);
+                Long maxUserId = target.queryForObject("select coalesce(max(id), 0) from account_user", Long.class);
+                int users = TableCopier.copy(origin, target, "account_user", "where id > ?", maxUserId);
+                log.info("Shard {} already has a schema : account users added {}", shard, users);
+                continue;
+            }
+            ddl.stream()
+                    .filter(statement -> !statement.startsWith("--") && !statement.startsWith("CREATE USER"))
+                    .forEach(target::execute);
+            for (Map<String, Object> sequence : sequences) {
+                long start = ((long) shard << SEQUENCE_SHIFT) + ((Number) sequence.get("INCREMENT")).longValue();
+                target.execute("alter sequence \"" + sequence.get("SEQUENCE_NAME") + "\" restart with " + start);
+            }
+            int users = TableCopier.copy(origin, target, "account_user", "");
+            log.info("Initialized shard {} : statements {}, sequences {}, account users {}",
+                    shard, ddl.size(), sequences.size(), users);
+        }
+    }
+
+    private static boolean hasSchema(JdbcTemplate jdbcTemplate) {
+        Integer tables = jdbcTemplate.queryForObject("select count(*) from information_schema.tables "
+                + "where table_schema = 'PUBLIC' and table_name = 'ACCOUNT'", Integer.class);
+        return tables != null && tables > 0;
+    }
+
+    private static void createSlotFunction(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("create alias if not exists account_slot for '"
+                + ShardRouter.class.getName() + ".accountSlot'");
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.accountservice.shard;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 샤드 간에 행을 컬럼 그대로 복사한다. 모든 샤드가 같은 스키마이므로 원본의 컬럼 목록으로 insert 문을 만든다.
+ */
+final class TableCopier {
+
+    private TableCopier() {
+    }
+
+    static int copy(JdbcTemplate source, JdbcTemplate target, String table, String where, Object... args) {
+        List<Map<String, Object>> rows = source.queryForList("select * from " + table + " " + where, args);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String sql = "insert into " + table + " (" + String.join(", ", columns) + ") values ("
+                + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+        List<Object[]> values = rows.stream()
+                .map(row -> columns.stream().map(row::get).toArray())
+                .collect(Collectors.toList());
+        target.batchUpdate(sql, values);
+        return rows.size();
+    }
+
+    static String in(int size) {
+        return "(" + String.join(", ", Collections.nCopies(size, "?")) + ")";
+    }
+}
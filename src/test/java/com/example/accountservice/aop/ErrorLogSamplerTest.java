@@ -0,0 +1,103 @@
+package com.example.accountservice.aop;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.accountservice.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.accountservice.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorLogSamplerTest {
+
+    @Test
+    @DisplayName("초당 허용 건수를 넘으면 ErrorCode 별로 로그를 생략한다")
+    void sampleTest() {
+        // given
+        ErrorLogSampler sampler = new ErrorLogSampler(2);
+        waitForFreshSecond();
+
+        // when
+        long first = sampler.sample(AMOUNT_EXCEED_BALANCE);
+        long second = sampler.sample(AMOUNT_EXCEED_BALANCE);
+        long third = sampler.sample(AMOUNT_EXCEED_BALANCE);
+        long otherCode = sampler.sample(ACCOUNT_TRANSACTION_LOCK);
+
+        // then
+        assertThat(first).isZero();
+        assertThat(second).isZero();
+        assertThat(third).isEqualTo(ErrorLogSampler.SUPPRESSED);
+        assertThat(otherCode).isZero();
+    }
+
+    @Test
+    @DisplayName("다음 창의 첫 로그에 생략된 건수를 함께 돌려준다")
+    void suppressedCountTest() throws InterruptedException {
+        // given
+        ErrorLogSampler sampler = new ErrorLogSampler(1);
+        waitForFreshSecond();
+        sampler.sample(AMOUNT_EXCEED_BALANCE);
+        sampler.sample(AMOUNT_EXCEED_BALANCE);
+        sampler.sample(AMOUNT_EXCEED_BALANCE);
+
+        // when
+        Thread.sleep(1100);
+        long suppressed = sampler.sample(AMOUNT_EXCEED_BALANCE);
+
+        // then
+        assertThat(suppressed).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 기록해도 한 창에서는 허용 건수만큼만 로그를 남긴다")
+    void concurrentSampleTest() throws InterruptedException {
+        // given
+        ErrorLogSampler sampler = new ErrorLogSampler(100);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger logged = new AtomicInteger();
+        AtomicInteger suppressed = new AtomicInteger();
+        waitForFreshSecond();
+
+        // when
+        for (int thread = 0; thread < 8; thread++) {
+            executorService.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 50; i++) {
+                    if (sampler.sample(AMOUNT_EXCEED_BALANCE) == ErrorLogSampler.SUPPRESSED) {
+                        suppressed.incrementAndGet();
+                    } else {
+                        logged.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executorService.shutdown();
+        executorService.awaitTermination(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(logged.get()).isEqualTo(100);
+        assertThat(suppressed.get()).isEqualTo(300);
+    }
+
+    /**
+     * 창 경계에 걸리지 않도록 새 초가 시작될 때까지 기다린다.
+     */
+    private static void waitForFreshSecond() {
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        while (TimeUnit.NANOSECONDS.toSeconds(System.nanoTime()) == second) {
+            Thread.onSpinWait();
+        }
+    }
+}
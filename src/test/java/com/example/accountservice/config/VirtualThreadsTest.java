@@ -0,0 +1,52 @@
+package com.example.accountservice.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsTest {
+
+    @Test
+    @DisplayName("JDK 21 이상에서만 virtual thread 지원 테스트")
+    void isSupportedTest() {
+        // given
+        // when
+        boolean supported = VirtualThreads.isSupported();
+
+        // then
+        assertThat(supported).isEqualTo(Runtime.version().feature() >= 21);
+    }
+
+    @Test
+    @DisplayName("virtual thread 미지원 JDK 에서 executor 생성 실패 테스트")
+    void unsupportedTest() {
+        // given
+        assumeFalse(VirtualThreads.isSupported());
+
+        // when
+        // then
+        assertThrows(IllegalStateException.class, VirtualThreads::newPerTaskExecutor);
+    }
+
+    @Test
+    @DisplayName("virtual thread executor 에서 작업 실행 테스트")
+    void newPerTaskExecutorTest() throws Exception {
+        // given
+        assumeTrue(VirtualThreads.isSupported());
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor();
+
+        // when
+        String threadName = executor.submit(() -> Thread.currentThread().toString()).get(1, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // then
+        assertThat(threadName).startsWith("VirtualThread");
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.accountservice.controller;
+
+import com.example.accountservice.dto.CreateBalance;
+import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.ledger.LedgerEngine;
+import com.example.accountservice.service.FailedTransactionRecorder;
+import com.example.accountservice.service.GroupCommitService;
+import com.example.accountservice.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static com.example.accountservice.type.TransactionResultType.SUCCESS;
+import static com.example.accountservice.type.TransactionType.USE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {BalanceController.class, AsyncBalanceController.class},
+        properties = "account.lock.async.enabled=true")
+class AsyncBalanceControllerTest {
+
+    @MockBean
+    private TransactionService transactionService;
+
+    @MockBean
+    private FailedTransactionRecorder failedTransactionRecorder;
+
+    @MockBean
+    private GroupCommitService groupCommitService;
+
+    @MockBean
+    private LedgerEngine ledgerEngine;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("비동기 락 모드에서만 future 로 응답하고 기본 비동기 타임아웃을 쓴다")
+    void useBalanceAsyncTest() throws Exception {
+        // given
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(TransactionDto.builder()
+                        .accountNumber("1000000000")
+                        .transactionResultType(SUCCESS)
+                        .transactionType(USE)
+                        .transactionId("transactionId")
+                        .amount(100L)
+                        .transactedAt(LocalDateTime.now())
+                        .build());
+
+        // when
+        MvcResult result = mockMvc.perform(post("/transaction/use")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreateBalance.Request(1L, "1000000000", 100L)
+                        )))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofSeconds(30).toMillis());
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionId").value("transactionId"));
+    }
+}
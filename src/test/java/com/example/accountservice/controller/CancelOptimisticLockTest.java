@@ -0,0 +1,98 @@
+package com.example.accountservice.controller;
+
+import com.example.accountservice.dto.AccountDto;
+import com.example.accountservice.dto.CancelBalance;
+import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.policy.AccountPolicy;
+import com.example.accountservice.repository.AccountRepository;
+import com.example.accountservice.service.AccountService;
+import com.example.accountservice.service.LockService;
+import com.example.accountservice.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.*;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /transaction/cancel 은 분산 락 없이 계좌 version 으로 충돌을 감지하고 재시도한다.
+ * 취소 검증과 반영 사이에 다른 트랜잭션이 잔액을 차감하도록 끼워 넣어 실제 version 충돌을 만든다.
+ */
+@SpringBootTest(properties = "spring.redis.port=6397")
+@AutoConfigureMockMvc
+class CancelOptimisticLockTest {
+
+    private static final Long USER_ID = 2L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private AccountPolicy accountPolicy;
+
+    @SpyBean
+    private LockService lockService;
+
+    @Test
+    @DisplayName("취소 중 다른 거래가 잔액을 바꾸면 version 충돌 후 재시도해 성공한다")
+    void cancelRetriesOnVersionConflictTest() throws Exception {
+        // given
+        AccountDto account = accountService.createAccount(USER_ID, 10000L);
+        TransactionDto used = transactionService.useBalance(USER_ID, account.getAccountNumber(), 1000L);
+
+        AtomicBoolean interleaved = new AtomicBoolean();
+        willAnswer(invocation -> {
+            if (interleaved.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() ->
+                        transactionService.useBalance(USER_ID, account.getAccountNumber(), 500L)).join();
+            }
+            return invocation.callRealMethod();
+        }).given(accountPolicy).validateCancel(anyLong(), anyLong(), anyLong(), any(), anyLong());
+
+        // when
+        mockMvc.perform(post("/transaction/cancel")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CancelBalance.Request(used.getTransactionId(), account.getAccountNumber(), 1000L))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionResult").value("SUCCESS"));
+
+        // then
+        verify(accountPolicy, times(2)).validateCancel(anyLong(), anyLong(), anyLong(), any(), anyLong());
+        verify(lockService, never()).lock(anyString());
+        assertThat(meterRegistry.counter("account.lock.optimistic.conflicts").count()).isEqualTo(1.0);
+        assertThat(accountRepository.findByAccountNumber(account.getAccountNumber()))
+                .hasValueSatisfying(found -> assertThat(found.getBalance()).isEqualTo(9500L));
+    }
+}
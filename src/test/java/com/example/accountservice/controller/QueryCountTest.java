@@ -0,0 +1,269 @@
+package com.example.accountservice.controller;
+
+import com.example.accountservice.dto.AccountDto;
+import com.example.accountservice.dto.BatchBalance;
+import com.example.accountservice.dto.CancelBalance;
+import com.example.accountservice.dto.CreateAccount;
+import com.example.accountservice.dto.CreateBalance;
+import com.example.accountservice.dto.DeleteAccount;
+import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.service.AccountService;
+import com.example.accountservice.service.TransactionService;
+import com.example.accountservice.support.SqlStatementCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.accountservice.type.TransactionType.USE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 엔드포인트별로 실행되는 SQL 수를 고정한다.
+ * 캐시와 거래 조회 저장소를 끄고 DataSource 로 실제로 나가는 쿼리를 센다. JdbcTemplate 으로 실행하는 SQL 도 포함한다.
+ * 연관관계 fetch 전략이나 쿼리 메서드가 바뀌어 N+1 이 생기면 이 테스트가 깨진다.
+ */
+@SpringBootTest(properties = {
+        "account.cache.maximum-size=0",
+        "transaction.lookup-store.capacity=0"
+})
+@AutoConfigureMockMvc
+@Import(SqlStatementCounter.class)
+class QueryCountTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long OTHER_USER_ID = 2L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    @DisplayName("계좌 생성 - 사용자 조회, 계좌 수 조회, 계좌 저장")
+    void createAccountQueryCount() throws Exception {
+        // given
+        SqlStatementCounter.clear();
+
+        // when
+        mockMvc.perform(post("/account")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateAccount.Request(OTHER_USER_ID, 0L))))
+                .andExpect(status().isOk());
+
+        // then
+        assertStatements(2, 1, 0);
+    }
+
+    @Test
+    @DisplayName("계좌 해지 - 사용자 조회, 계좌 조회, 상태 변경")
+    void deleteAccountQueryCount() throws Exception {
+        // given
+        AccountDto account = accountService.createAccount(OTHER_USER_ID, 0L);
+        SqlStatementCounter.clear();
+
+        // when
+        mockMvc.perform(delete("/account")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new DeleteAccount.Request(OTHER_USER_ID, account.getAccountNumber()))))
+                .andExpect(status().isOk());
+
+        // then
+        assertStatements(2, 0, 1);
+    }
+
+    @Test
+    @DisplayName("계좌 목록 조회 - 계좌 수와 무관하게 사용자 조회, 계좌 조회")
+    void getAccountsQueryCount() throws Exception {
+        // given
+        accountService.createAccount(USER_ID, 100L);
+        accountService.createAccount(USER_ID, 200L);
+        SqlStatementCounter.clear();
+
+        // when
+        mockMvc.perform(get("/account/" + USER_ID))
+                .andExpect(status().isOk());
+
+        // then
+        assertStatements(2, 0, 0);
+    }
+
+    @Test
+    @DisplayName("잔액 사용 성공 - 차감 후 잔액을 돌려받는 조건부 차감, 거래 저장")
+    void useBalanceQueryCount() throws Exception {
+        // given
+        AccountDto account = accountService.createAccount(USER_ID, 10000L);
+        SqlStatementCounter.clear();
+
+        // when
+        mockMvc.perform(post("/transaction/use")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreateBalance.Request(USER_ID, account.getAccountNumber(), 1000L))))
+                .andExpect(status().isOk());
+
+        // then
+        assertStatements(1, 1, 0);
+        assertThat(SqlStatementCounter.statements().get(0)).containsIgnoringCase("from final table (update account");
+    }
+
+    @Test
+    @DisplayName("잔액 사용 실패 - 차감 실패 후 사용자, 계좌 검증 조회, 실패 거래 기록")
+    void useBalanceFailQueryCount() throws Exception {
+        // given
+        AccountDto account = accountService.createAccount(USER_ID, 100L);
+        SqlStatementCounter.clear();
+
+        // when
+        mockMvc.perform(post("/transaction/use")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreateBalance.Request(USER_ID, account.getAccountNumber(), 1000L))))
+                .andExpect(jsonPath("$.errorCode").value("AMOUNT_EXCEED_BALANCE"));
+
+        // then
+        awaitStatements("insert", 1);
+        assertThat(SqlStatementCounter.count("update")).isZero();
+        assertThat(SqlStatementCounter.count("insert")).isEqualTo(1);
+        assertThat(SqlStatementCounter.count("select")).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("잔액 사용 취소 - 원거래와 계좌를 함께 조회, 잔액 변경, 거래 저장")
+    void cancelBalanceQueryCount() throws Exception {
+        // given
+        AccountDto account = accountService.createAccount(USER_ID, 10000L);
+        TransactionDto used = transactionService.useBalance(USER_ID, account.getAccountNumber(), 1000L);
+        SqlStatementCounter.clear();
+
+        // when
+        mockMvc.perform(post("/transaction/cancel")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CancelBalance.Request(used.getTransactionId(), account.getAccountNumber(), 1000L))))
+                .andExpect(status().isOk());
+
+        // then
+        assertStatements(2, 1, 1);
+    }
+
+    @Test
+    @DisplayName("거래 조회 - 계좌를 조인해 한 번에 조회")
+    void queryTransactionQueryCount() throws Exception {
+        // given
+        AccountDto account = accountService.createAccount(USER_ID, 10000L);
+        TransactionDto used = transactionService.useBalance(USER_ID, account.getAccountNumber(), 1000L);
+        SqlStatementCounter.clear();
+
+        // when
+        mockMvc.perform(get("/transaction/" + used.getTransactionId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value(account.getAccountNumber()));
+
+        // then
+        assertStatements(1, 0, 0);
+        assertThat(SqlStatementCounter.statements().get(0).toLowerCase()).contains("join");
+    }
+
+    @Test
+    @DisplayName("거래 이력 조회 - 계좌 조회, 페이지 조회")
+    void transactionHistoryQueryCount() throws Exception {
+        // given
+        AccountDto account = accountService.createAccount(OTHER_USER_ID, 10000L);
+        for (int i = 0; i < 5; i++) {
+            transactionService.useBalance(OTHER_USER_ID, account.getAccountNumber(), 100L);
+        }
+        SqlStatementCounter.clear();
+
+        // when
+        mockMvc.perform(get("/transaction/history")
+                        .param("accountNumber", account.getAccountNumber())
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions.length()").value(3));
+
+        // then
+        assertStatements(2, 0, 0);
+    }
+
+    @Test
+    @DisplayName("배치 거래 - 건수와 무관하게 계좌 조회, 일괄 저장, 잔액 변경")
+    void batchBalanceQueryCount() throws Exception {
+        // given
+        AccountDto account = accountService.createAccount(OTHER_USER_ID, 10000L);
+        SqlStatementCounter.clear();
+
+        // when
+        mockMvc.perform(post("/transaction/batch")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchBalance.Request(List.of(
+                                new BatchBalance.Item(USE, OTHER_USER_ID, null, account.getAccountNumber(), 100L),
+                                new BatchBalance.Item(USE, OTHER_USER_ID, null, account.getAccountNumber(), 200L),
+                                new BatchBalance.Item(USE, OTHER_USER_ID, null, account.getAccountNumber(), 300L))))))
+                .andExpect(status().isOk());
+
+        // then
+        assertStatements(1, 1, 1);
+    }
+
+    @Test
+    @DisplayName("거래 내보내기 - 계좌 조회, 스트리밍 조회")
+    void exportQueryCount() throws Exception {
+        // given
+        AccountDto account = accountService.createAccount(OTHER_USER_ID, 10000L);
+        for (int i = 0; i < 5; i++) {
+            transactionService.useBalance(OTHER_USER_ID, account.getAccountNumber(), 100L);
+        }
+        SqlStatementCounter.clear();
+
+        // when
+        MvcResult result = mockMvc.perform(get("/transaction/export")
+                        .param("accountNumber", account.getAccountNumber()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        // then
+        assertStatements(2, 0, 0);
+    }
+
+    /**
+     * 실패 거래는 FailedTransactionRecorder 가 응답 뒤에 비동기로 기록한다.
+     */
+    private static void awaitStatements(String keyword, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (SqlStatementCounter.count(keyword) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void assertStatements(long select, long insert, long update) {
+        List<String> statements = SqlStatementCounter.statements();
+        assertThat(SqlStatementCounter.count("select")).as("select %s", statements).isEqualTo(select);
+        assertThat(SqlStatementCounter.count("insert")).as("insert %s", statements).isEqualTo(insert);
+        assertThat(SqlStatementCounter.count("update")).as("update %s", statements).isEqualTo(update);
+        assertThat(SqlStatementCounter.count("delete")).as("delete %s", statements).isZero();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.accountservice.controller;
+
+import com.example.accountservice.dto.CancelBalance;
+import com.example.accountservice.dto.CreateAccount;
+import com.example.accountservice.dto.CreateBalance;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * reactive 모드로 띄워 WebFlux 컨트롤러, R2DBC 저장소, RLockReactive 를 함께 검증한다.
+ */
+@SpringBootTest(properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.redis.port=6393"
+})
+@AutoConfigureWebTestClient
+class ReactiveTransactionControllerTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    @DisplayName("reactive 잔액 사용 후 거래 조회 테스트")
+    void useBalanceSuccessTest() {
+        // given
+        String accountNumber = createAccount(10000L);
+
+        // when
+        String response = useBalance(accountNumber, 1000L)
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        // then
+        assertThat(JsonPath.<String>read(response, "$.transactionResult")).isEqualTo("SUCCESS");
+        webTestClient.get().uri("/transaction/" + JsonPath.<String>read(response, "$.transactionId"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.accountNumber").isEqualTo(accountNumber)
+                .jsonPath("$.transactionType").isEqualTo("USE");
+        webTestClient.get().uri("/account/" + USER_ID)
+                .exchange()
+                .expectBody()
+                .jsonPath("$[?(@.accountNumber == '" + accountNumber + "')].balance").isEqualTo(9000);
+    }
+
+    @Test
+    @DisplayName("reactive 잔액 부족 시 실패 테스트")
+    void useBalanceExceedTest() {
+        // given
+        String accountNumber = createAccount(100L);
+
+        // when
+        // then
+        useBalance(accountNumber, 1000L)
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo("AMOUNT_EXCEED_BALANCE");
+    }
+
+    @Test
+    @DisplayName("reactive 잔액 사용 취소 테스트")
+    void cancelBalanceSuccessTest() {
+        // given
+        String accountNumber = createAccount(10000L);
+        String transactionId = JsonPath.read(useBalance(accountNumber, 1000L)
+                .expectBody(String.class)
+                .returnResult().getResponseBody(), "$.transactionId");
+
+        // when
+        // then
+        webTestClient.post().uri("/transaction/cancel")
+                .bodyValue(new CancelBalance.Request(transactionId, accountNumber, 1000L))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.transactionResult").isEqualTo("SUCCESS")
+                .jsonPath("$.amount").isEqualTo(1000);
+        webTestClient.post().uri("/transaction/cancel")
+                .bodyValue(new CancelBalance.Request(transactionId, accountNumber, 500L))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo("CANCEL_MUST_FULLY");
+    }
+
+    @Test
+    @DisplayName("reactive 요청 검증 실패 테스트")
+    void invalidRequestTest() {
+        // given
+        // when
+        // then
+        useBalance("12", 0L)
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo("INVALID_REQUEST");
+    }
+
+    private String createAccount(Long initBalance) {
+        return JsonPath.read(webTestClient.post().uri("/account")
+                .bodyValue(new CreateAccount.Request(USER_ID, initBalance))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody(), "$.accountNumber");
+    }
+
+    private WebTestClient.ResponseSpec useBalance(String accountNumber, Long amount) {
+        return webTestClient.post().uri("/transaction/use")
+                .bodyValue(new CreateBalance.Request(USER_ID, accountNumber, amount))
+                .exchange();
+    }
+}
@@ -1,7 +1,14 @@
 package com.example.accountservice.controller;
 
 import com.example.accountservice.dto.*;
+import com.example.accountservice.exception.AccountException;
+import com.example.accountservice.ledger.LedgerEngine;
 import com.example.accountservice.service.AccountService;
+import com.example.accountservice.service.BatchTransactionService;
+import com.example.accountservice.service.FailedTransactionRecorder;
+import com.example.accountservice.service.GroupCommitService;
+import com.example.accountservice.service.TransactionExportService;
+import com.example.accountservice.service.TransactionLookupStore;
 import com.example.accountservice.service.TransactionService;
 import com.example.accountservice.type.AccountStatus;
 import com.example.accountservice.type.TransactionResultType;
@@ -14,26 +21,53 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static com.example.accountservice.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.example.accountservice.type.ErrorCode.CANCEL_MUST_FULLY;
+import static com.example.accountservice.type.TransactionResultType.FAIL;
 import static com.example.accountservice.type.TransactionResultType.SUCCESS;
 import static com.example.accountservice.type.TransactionType.*;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest(TransactionController.class)
+@WebMvcTest({TransactionController.class, BalanceController.class})
 class TransactionControllerTest {
 
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private FailedTransactionRecorder failedTransactionRecorder;
+
+    @MockBean
+    private BatchTransactionService batchTransactionService;
+
+    @MockBean
+    private GroupCommitService groupCommitService;
+
+    @MockBean
+    private LedgerEngine ledgerEngine;
+
+    @MockBean
+    private TransactionLookupStore transactionLookupStore;
+
+    @MockBean
+    private TransactionExportService transactionExportService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -61,6 +95,7 @@ class TransactionControllerTest {
                 .content(objectMapper.writeValueAsString(
                         new CreateBalance.Request(1L, "1231231231", 100L)
                 )))
+                .andExpect(request().asyncNotStarted())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.accountNumber").value("1000000000"))
                 .andExpect(jsonPath("$.transactionResult").value("SUCCESS"))
@@ -91,6 +126,7 @@ class TransactionControllerTest {
                         .content(objectMapper.writeValueAsString(
                                 new CancelBalance.Request("1234567890", "1231231231", 100L)
                         )))
+                .andExpect(request().asyncNotStarted())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.accountNumber").value("7777777777"))
                 .andExpect(jsonPath("$.transactionResult").value("SUCCESS"))
@@ -99,6 +135,118 @@ class TransactionControllerTest {
                 .andDo(print());
     }
     
+    @Test
+    @DisplayName("계좌 취소 실패 시 취소 실패 거래 기록 테스트")
+    void cancelBalanceFailTest() throws Exception {
+        // given
+        given(transactionService.cancelBalance(
+                anyString(), anyString(), anyLong()))
+                .willThrow(new AccountException(CANCEL_MUST_FULLY));
+
+        // when
+        mockMvc.perform(post("/transaction/cancel")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CancelBalance.Request("1234567890", "1231231231", 100L)
+                        )))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("CANCEL_MUST_FULLY"))
+                .andDo(print());
+
+        // then
+        verify(failedTransactionRecorder).record(CANCEL, "1231231231", 100L, null);
+    }
+
+    @Test
+    @DisplayName("내보내기는 비동기 타임아웃을 길게 잡는다")
+    void exportAsyncTimeoutTest() throws Exception {
+        // given
+        given(transactionExportService.export(any()))
+                .willReturn(outputStream -> outputStream.write('\n'));
+        given(transactionExportService.getTimeout())
+                .willReturn(Duration.ofHours(1));
+
+        // when
+        MvcResult export = mockMvc.perform(get("/transaction/export")
+                        .param("accountNumber", "1000000000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        assertThat(export.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofHours(1).toMillis());
+    }
+
+    @Test
+    @DisplayName("배치 거래 테스트")
+    void batchBalanceSuccessTest() throws Exception {
+        // given
+        given(batchTransactionService.applyBatch(anyList()))
+                .willReturn(List.of(
+                        BatchTransactionDto.builder()
+                                .index(0)
+                                .accountNumber("1000000000")
+                                .transactionType(USE)
+                                .transactionResultType(SUCCESS)
+                                .transactionId("transactionId")
+                                .amount(1000L)
+                                .transactedAt(LocalDateTime.now())
+                                .build(),
+                        BatchTransactionDto.builder()
+                                .index(1)
+                                .accountNumber("1000000000")
+                                .transactionType(USE)
+                                .transactionResultType(FAIL)
+                                .amount(100000L)
+                                .errorCode(AMOUNT_EXCEED_BALANCE)
+                                .build()
+                ));
+
+        // when
+        // then
+        mockMvc.perform(post("/transaction/batch")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BatchBalance.Request(List.of(
+                                        new BatchBalance.Item(USE, 1L, null, "1000000000", 1000L),
+                                        new BatchBalance.Item(USE, 1L, null, "1000000000", 100000L)
+                                ))
+                        )))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].transactionResult").value("SUCCESS"))
+                .andExpect(jsonPath("$[0].transactionId").value("transactionId"))
+                .andExpect(jsonPath("$[1].transactionResult").value("FAIL"))
+                .andExpect(jsonPath("$[1].errorCode").value("AMOUNT_EXCEED_BALANCE"))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("배치 거래 시 사용 항목의 userId, 취소 항목의 transactionId 가 없으면 실패")
+    void batchBalanceInvalidItemTest() throws Exception {
+        // given
+        // when
+        // then
+        mockMvc.perform(post("/transaction/batch")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BatchBalance.Request(List.of(
+                                        new BatchBalance.Item(USE, null, null, "1000000000", 1000L)
+                                ))
+                        )))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_REQUEST"));
+        mockMvc.perform(post("/transaction/batch")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BatchBalance.Request(List.of(
+                                        new BatchBalance.Item(CANCEL, 1L, null, "1000000000", 1000L)
+                                ))
+                        )))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_REQUEST"));
+
+        verifyNoInteractions(batchTransactionService);
+    }
+
     @Test
     @DisplayName("거래 조회 테스트")
     void queryTransactionTest() throws Exception {
@@ -124,4 +272,40 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.amount").value(5000))
                 .andDo(print());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("거래 이력 조회 테스트")
+    void transactionHistoryTest() throws Exception {
+        // given
+        LocalDateTime transactedAt = LocalDateTime.of(2022, 9, 1, 10, 0);
+        given(transactionService.getTransactionHistory(any()))
+                .willReturn(List.of(
+                        new TransactionHistoryDto(3L, USE, SUCCESS, 1000L, 9000L, "0000000003", transactedAt),
+                        new TransactionHistoryDto(2L, USE, SUCCESS, 1000L, 10000L, "0000000002", transactedAt)));
+        // when
+        // then
+        mockMvc.perform(get("/transaction/history")
+                        .param("accountNumber", "1000000000")
+                        .param("transactionType", "USE")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions.length()").value(1))
+                .andExpect(jsonPath("$.transactions[0].transactionId").value("0000000003"))
+                .andExpect(jsonPath("$.transactions[0].balanceSnapshot").value(9000))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("거래 이력 조회 시 계좌번호가 없으면 실패")
+    void transactionHistoryInvalidRequestTest() throws Exception {
+        // given
+        // when
+        // then
+        mockMvc.perform(get("/transaction/history")
+                        .param("size", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_REQUEST"))
+                .andDo(print());
+    }
+}
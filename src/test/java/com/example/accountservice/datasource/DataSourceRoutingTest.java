@@ -0,0 +1,100 @@
+package com.example.accountservice.datasource;
+
+import com.example.accountservice.dto.AccountDto;
+import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.service.AccountService;
+import com.example.accountservice.service.TransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * replica 를 켜고 서비스 호출이 어느 풀로 가는지 datasource.routing 메트릭으로 확인한다.
+ * 테스트에서는 replica 풀도 같은 H2 메모리 DB 를 바라본다.
+ */
+@SpringBootTest(properties = {
+        "account.datasource.replica.enabled=true",
+        "account.datasource.replica.read-after-write-millis=60000",
+        "spring.redis.port=6395"
+})
+class DataSourceRoutingTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("read-only 조회는 replica 풀에서 커넥션을 얻는다")
+    void readOnlyToReplicaTest() {
+        // given
+        double replica = routed("replica");
+        double primary = routed("primary");
+
+        // when
+        accountService.findAllAccount(2L);
+
+        // then
+        assertThat(routed("replica")).isGreaterThan(replica);
+        assertThat(routed("primary")).isEqualTo(primary);
+        assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "replica").gauge()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "primary").gauge()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("쓰기는 primary 로 가고, 직후 같은 사용자의 조회도 primary 에서 읽는다")
+    void readAfterWriteToPrimaryTest() {
+        // given
+        double replica = routed("replica");
+        double primary = routed("primary");
+
+        // when
+        AccountDto created = accountService.createAccount(1L, 1000L);
+        double primaryAfterWrite = routed("primary");
+        List<AccountDto> accounts = accountService.findAllAccount(1L);
+
+        // then
+        assertThat(primaryAfterWrite).isGreaterThan(primary);
+        assertThat(routed("primary")).isGreaterThan(primaryAfterWrite);
+        assertThat(routed("replica")).isEqualTo(replica);
+        assertThat(accounts).extracting(AccountDto::getAccountNumber).contains(created.getAccountNumber());
+        assertThat(meterRegistry.counter("datasource.read-after-write.primary").count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("방금 만든 거래를 거래 아이디로 조회하면 primary 에서 읽는다")
+    void readAfterWriteTransactionTest() {
+        // given
+        jdbcTemplate.update("insert into account_user (id, name) values (3, 'third')");
+        AccountDto account = accountService.createAccount(3L, 10000L);
+        TransactionDto used = transactionService.useBalance(3L, account.getAccountNumber(), 1000L);
+        double replica = routed("replica");
+        double primary = routed("primary");
+
+        // when
+        TransactionDto found = transactionService.getTransaction(used.getTransactionId());
+
+        // then
+        assertThat(found.getAmount()).isEqualTo(1000L);
+        assertThat(routed("primary")).isGreaterThan(primary);
+        assertThat(routed("replica")).isEqualTo(replica);
+    }
+
+    private double routed(String target) {
+        return meterRegistry.get("datasource.routing").tag("target", target).functionCounter().count();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.accountservice.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadAfterWriteGuardTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        completeTransaction();
+    }
+
+    @Test
+    @DisplayName("최근 쓰기가 있었던 사용자의 읽기는 트랜잭션이 끝날 때까지 primary 로 보낸다")
+    void readAfterWriteTest() {
+        // given
+        ReadAfterWriteGuard guard = new ReadAfterWriteGuard(meterRegistry, true, 60_000, 100);
+        guard.markUserWritten(1L);
+
+        // when
+        guard.readUser(1L);
+
+        // then
+        assertThat(ReadAfterWriteGuard.isPrimaryRequired()).isTrue();
+        assertThat(meterRegistry.counter("datasource.read-after-write.primary").count()).isEqualTo(1);
+        completeTransaction();
+        assertThat(ReadAfterWriteGuard.isPrimaryRequired()).isFalse();
+    }
+
+    @Test
+    @DisplayName("다른 키이거나 기간이 지난 쓰기는 replica 읽기를 막지 않는다")
+    void readAfterWindowTest() throws InterruptedException {
+        // given
+        ReadAfterWriteGuard guard = new ReadAfterWriteGuard(meterRegistry, true, 50, 100);
+        guard.markAccountWritten("1000000000");
+
+        // when
+        guard.readAccount("1000000001");
+        boolean otherKey = ReadAfterWriteGuard.isPrimaryRequired();
+        Thread.sleep(100);
+        guard.readAccount("1000000000");
+
+        // then
+        assertThat(otherKey).isFalse();
+        assertThat(ReadAfterWriteGuard.isPrimaryRequired()).isFalse();
+    }
+
+    @Test
+    @DisplayName("replica 가 꺼져 있으면 쓰기를 기록하지 않는다")
+    void disabledTest() {
+        // given
+        ReadAfterWriteGuard guard = new ReadAfterWriteGuard(meterRegistry, false, 60_000, 100);
+        guard.markUserWritten(1L);
+
+        // when
+        guard.readUser(1L);
+
+        // then
+        assertThat(ReadAfterWriteGuard.isPrimaryRequired()).isFalse();
+    }
+
+    private void completeTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
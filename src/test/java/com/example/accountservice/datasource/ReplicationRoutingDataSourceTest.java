@@ -0,0 +1,77 @@
+package com.example.accountservice.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicationRoutingDataSourceTest {
+
+    @Mock
+    DataSource primary;
+
+    @Mock
+    DataSource replica;
+
+    @Mock
+    Connection primaryConnection;
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("replica 연결 실패 후 retry-after 동안은 replica 를 시도하지 않고 primary 로 읽는다")
+    void replicaFailureBackoffTest() throws SQLException {
+        // given
+        ReplicationRoutingDataSource dataSource = new ReplicationRoutingDataSource(primary, replica, 60000);
+        given(replica.getConnection()).willThrow(new SQLException("replica down"));
+        given(primary.getConnection()).willReturn(primaryConnection);
+
+        // when
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        // then
+        assertThat(first).isSameAs(primaryConnection);
+        assertThat(second).isSameAs(primaryConnection);
+        verify(replica, times(1)).getConnection();
+        verify(primary, times(2)).getConnection();
+    }
+
+    @Test
+    @DisplayName("retry-after 가 지나면 다시 replica 를 시도한다")
+    void replicaRetryAfterBackoffTest() throws SQLException {
+        // given
+        ReplicationRoutingDataSource dataSource = new ReplicationRoutingDataSource(primary, replica, 0);
+        given(replica.getConnection()).willThrow(new SQLException("replica down"));
+        given(primary.getConnection()).willReturn(primaryConnection);
+
+        // when
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        // then
+        verify(replica, times(2)).getConnection();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.accountservice.exception;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.example.accountservice.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountExceptionTest {
+
+    @Test
+    @DisplayName("ErrorCode 별로 스택 없는 예외를 재사용한다")
+    void stacklessTest() {
+        // given
+        AccountExceptionFactory accountExceptionFactory = new AccountExceptionFactory(true);
+
+        // when
+        AccountException first = accountExceptionFactory.create(AMOUNT_EXCEED_BALANCE);
+        AccountException second = AccountException.of(AMOUNT_EXCEED_BALANCE);
+        first.addSuppressed(new IllegalStateException());
+
+        // then
+        assertThat(first).isSameAs(second);
+        assertThat(first.getStackTrace()).isEmpty();
+        assertThat(first.getSuppressed()).isEmpty();
+        assertThat(first.getErrorCode()).isEqualTo(AMOUNT_EXCEED_BALANCE);
+        assertThat(first.getErrorMessage()).isEqualTo(AMOUNT_EXCEED_BALANCE.getDescription());
+    }
+
+    @Test
+    @DisplayName("stackless 를 끄면 호출 위치 스택을 남긴다")
+    void stackTraceEnabledTest() {
+        // given
+        AccountExceptionFactory accountExceptionFactory = new AccountExceptionFactory(false);
+
+        // when
+        AccountException first = accountExceptionFactory.create(AMOUNT_EXCEED_BALANCE);
+        AccountException second = accountExceptionFactory.create(AMOUNT_EXCEED_BALANCE);
+
+        // then
+        assertThat(first).isNotSameAs(second);
+        assertThat(first.getStackTrace()).isNotEmpty();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.accountservice.ledger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.accountservice.type.TransactionType.CANCEL;
+import static com.example.accountservice.type.TransactionType.USE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LedgerJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("기록한 레코드를 세그먼트 순서대로 다시 읽는다")
+    void appendAndReadAll() {
+        // given
+        LocalDateTime transactedAt = LocalDateTime.of(2022, 9, 1, 10, 30, 15, 123_000_000);
+        LedgerJournal journal = new LedgerJournal(directory, LedgerJournal.RECORD_SIZE * 2);
+        journal.open(1);
+
+        // when
+        journal.append(new LedgerEntry(1L, USE, "1000000012", "0000000001", 12L, 1000L, 9000L, transactedAt));
+        journal.append(new LedgerEntry(2L, USE, "1000000012", "0000000002", 12L, 500L, 8500L, transactedAt));
+        journal.append(new LedgerEntry(3L, CANCEL, "1000000012", "0000000003", 12L, 1000L, 9500L, transactedAt));
+        journal.close();
+        List<LedgerEntry> entries = new LedgerJournal(directory, LedgerJournal.RECORD_SIZE * 2).readAll();
+
+        // then
+        assertThat(journal.lastSegment()).isEqualTo(2);
+        assertThat(entries).extracting(LedgerEntry::getSequence).containsExactly(1L, 2L, 3L);
+        LedgerEntry last = entries.get(2);
+        assertThat(last.getTransactionType()).isEqualTo(CANCEL);
+        assertThat(last.getAccountNumber()).isEqualTo("1000000012");
+        assertThat(last.getTransactionId()).isEqualTo("0000000003");
+        assertThat(last.getAccountId()).isEqualTo(12L);
+        assertThat(last.getAmount()).isEqualTo(1000L);
+        assertThat(last.getBalanceSnapshot()).isEqualTo(9500L);
+        assertThat(last.getTransactedAt()).isEqualTo(transactedAt);
+    }
+
+    @Test
+    @DisplayName("tombstone 은 거래 유형과 거래 아이디 없이 잔액만 담아 다시 읽는다")
+    void appendAndReadTombstone() {
+        // given
+        LocalDateTime transactedAt = LocalDateTime.of(2022, 9, 1, 10, 30);
+        LedgerJournal journal = new LedgerJournal(directory, LedgerJournal.RECORD_SIZE * 4);
+        journal.open(1);
+
+        // when
+        journal.append(new LedgerEntry(1L, USE, "1000000012", "0000000001", 12L, 1000L, 9000L, transactedAt));
+        journal.append(LedgerEntry.tombstone(2L, "1000000012", 12L, 9000L));
+        journal.close();
+        List<LedgerEntry> entries = new LedgerJournal(directory, LedgerJournal.RECORD_SIZE * 4).readAll();
+
+        // then
+        assertThat(entries).extracting(LedgerEntry::isTombstone).containsExactly(false, true);
+        LedgerEntry tombstone = entries.get(1);
+        assertThat(tombstone.getSequence()).isEqualTo(2L);
+        assertThat(tombstone.getTransactionType()).isNull();
+        assertThat(tombstone.getTransactionId()).isNull();
+        assertThat(tombstone.getAccountNumber()).isEqualTo("1000000012");
+        assertThat(tombstone.getAccountId()).isEqualTo(12L);
+        assertThat(tombstone.getBalanceSnapshot()).isEqualTo(9000L);
+    }
+
+    @Test
+    @DisplayName("스냅샷에 반영된 세그먼트는 삭제된다")
+    void deleteUpTo() {
+        // given
+        LocalDateTime transactedAt = LocalDateTime.now().withNano(0);
+        LedgerJournal journal = new LedgerJournal(directory, LedgerJournal.RECORD_SIZE * 4);
+        journal.open(1);
+        journal.append(new LedgerEntry(1L, USE, "1000000012", "0000000001", 12L, 1000L, 9000L, transactedAt));
+        int closed = journal.roll();
+        journal.append(new LedgerEntry(2L, USE, "1000000012", "0000000002", 12L, 1000L, 8000L, transactedAt));
+        journal.force();
+
+        // when
+        journal.deleteUpTo(closed);
+
+        // then
+        assertThat(journal.readAll()).extracting(LedgerEntry::getSequence).containsExactly(2L);
+        journal.close();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.accountservice.policy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeasedAccountNumberAllocatorTest {
+
+    static class InMemoryAccountNumberAllocator extends LeasedAccountNumberAllocator {
+        private final AtomicLong counter = new AtomicLong();
+        private final AtomicInteger leaseCount = new AtomicInteger();
+
+        InMemoryAccountNumberAllocator(int blockSize) {
+            super(blockSize);
+        }
+
+        @Override
+        protected long leaseBlock(int blockSize) {
+            leaseCount.incrementAndGet();
+            return counter.getAndAdd(blockSize);
+        }
+    }
+
+    @Test
+    @DisplayName("계좌번호 순차 발급 테스트")
+    void allocateSequentialTest() {
+        // given
+        InMemoryAccountNumberAllocator allocator = new InMemoryAccountNumberAllocator(2);
+
+        // when
+        String first = allocator.allocate();
+        String second = allocator.allocate();
+        String third = allocator.allocate();
+
+        // then
+        assertThat(first).isEqualTo("1000000000");
+        assertThat(second).isEqualTo("1000000001");
+        assertThat(third).isEqualTo("1000000002");
+        assertThat(allocator.leaseCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("동시 발급 시 계좌번호 중복 없음 테스트")
+    void allocateConcurrentUniqueTest() throws InterruptedException {
+        // given
+        InMemoryAccountNumberAllocator allocator = new InMemoryAccountNumberAllocator(10);
+        Set<String> accountNumbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+
+        // when
+        for (int i = 0; i < 1000; i++) {
+            executorService.submit(() -> accountNumbers.add(allocator.allocate()));
+        }
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(accountNumbers).hasSize(1000);
+        assertThat(accountNumbers).allMatch(accountNumber -> accountNumber.length() == 10);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.accountservice.policy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SnowflakeTransactionIdGeneratorTest {
+
+    @Test
+    @DisplayName("거래 아이디 길이 및 문자 테스트")
+    void transactionIdFormatTest() {
+        // given
+        SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(1L);
+
+        // when
+        String transactionId = generator.generate();
+
+        // then
+        assertThat(transactionId).hasSize(10);
+        assertThat(transactionId).matches("[0-9A-Za-z]{10}");
+    }
+
+    @Test
+    @DisplayName("같은 밀리초 내 시퀀스 초과 및 시계 역행 시 정렬/유일성 테스트")
+    void transactionIdSortedWhenClockStallsTest() {
+        // given
+        AtomicLong now = new AtomicLong(System.currentTimeMillis());
+        SnowflakeTransactionIdGenerator generator =
+                new SnowflakeTransactionIdGenerator(3L, now::get);
+        List<String> transactionIds = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 3000; i++) {
+            transactionIds.add(generator.generate());
+        }
+        now.addAndGet(-10_000);
+        for (int i = 0; i < 10; i++) {
+            transactionIds.add(generator.generate());
+        }
+
+        // then
+        assertThat(new HashSet<>(transactionIds)).hasSize(transactionIds.size());
+        assertThat(transactionIds).isSorted();
+    }
+
+    @Test
+    @DisplayName("동시 발급 시 거래 아이디 중복 없음 테스트")
+    void transactionIdConcurrentUniqueTest() throws InterruptedException {
+        // given
+        SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(0L);
+        Set<String> transactionIds = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+
+        // when
+        for (int i = 0; i < 20_000; i++) {
+            executorService.submit(() -> transactionIds.add(generator.generate()));
+        }
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(transactionIds).hasSize(20_000);
+    }
+
+    @Test
+    @DisplayName("노드 아이디 범위 초과 테스트")
+    void invalidNodeIdTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeTransactionIdGenerator(256L));
+    }
+
+    @Test
+    @DisplayName("거래 아이디에 담은 샤드 슬롯 복원 테스트")
+    void transactionIdSlotTest() {
+        // given
+        SnowflakeTransactionIdGenerator generator =
+                new SnowflakeTransactionIdGenerator(3L, 6, System::currentTimeMillis);
+
+        // when & then
+        for (int slot = 0; slot < 64; slot++) {
+            String transactionId = generator.generate(slot);
+            assertThat(transactionId).hasSize(10);
+            assertThat(generator.slotOf(transactionId)).isEqualTo(slot);
+        }
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(64));
+        assertThrows(IllegalArgumentException.class, () -> generator.slotOf("bad-id"));
+        SnowflakeTransactionIdGenerator wideNode = new SnowflakeTransactionIdGenerator(4L, 6, System::currentTimeMillis);
+        assertThat(generator.supportsSlot()).isTrue();
+        assertThat(wideNode.supportsSlot()).isFalse();
+        assertThrows(UnsupportedOperationException.class, () -> wideNode.generate(0));
+    }
+}
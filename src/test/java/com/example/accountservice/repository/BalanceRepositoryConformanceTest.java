@@ -0,0 +1,175 @@
+package com.example.accountservice.repository;
+
+import com.example.accountservice.domain.Account;
+import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.type.AccountStatus;
+import com.example.accountservice.type.TransactionResultType;
+import com.example.accountservice.type.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static com.example.accountservice.type.TransactionResultType.FAIL;
+import static com.example.accountservice.type.TransactionResultType.SUCCESS;
+import static com.example.accountservice.type.TransactionType.CANCEL;
+import static com.example.accountservice.type.TransactionType.USE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * BalanceRepository 의 JPA 구현과 JDBC 구현이 같은 DB 에서 같은 결과를 내는지 확인한다.
+ * 두 구현을 직접 만들어 같은 시나리오를 돌리고, 한 구현이 쓴 거래를 두 구현 모두로 읽어 비교한다.
+ */
+@SpringBootTest(properties = "spring.redis.port=6394")
+@Transactional
+class BalanceRepositoryConformanceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long OTHER_USER_ID = 2L;
+    private static final String ACCOUNT_NUMBER = "8800000001";
+
+    enum Mode {JPA, JDBC}
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JpaBalanceRepository jpaBalanceRepository;
+    private JdbcBalanceRepository jdbcBalanceRepository;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        jpaBalanceRepository = new JpaBalanceRepository(accountRepository, transactionRepository);
+        jdbcBalanceRepository = new JdbcBalanceRepository(jdbcTemplate, 2);
+        account = saveAccount(ACCOUNT_NUMBER, AccountStatus.IN_USE, 10000L);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Mode.class)
+    @DisplayName("조건부 차감 성공 시 잔액을 줄이고 version 을 올리며 차감 후 잔액을 돌려준다")
+    void debitBalanceTest(Mode mode) {
+        // when
+        Optional<AccountBalanceProjection> debited = repository(mode).debitBalance(ACCOUNT_NUMBER, USER_ID, 3000L);
+
+        // then
+        assertThat(debited).hasValueSatisfying(balance -> {
+            assertThat(balance.getId()).isEqualTo(account.getId());
+            assertThat(balance.getBalance()).isEqualTo(7000L);
+        });
+        assertThat(repository(mode).findBalanceByAccountNumber(ACCOUNT_NUMBER))
+                .hasValueSatisfying(balance -> {
+                    assertThat(balance.getId()).isEqualTo(account.getId());
+                    assertThat(balance.getBalance()).isEqualTo(7000L);
+                });
+        assertThat(version(ACCOUNT_NUMBER)).isEqualTo(1L);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Mode.class)
+    @DisplayName("잔액 부족, 다른 사용자, 해지 계좌는 차감하지 않는다")
+    void debitBalanceRejectedTest(Mode mode) {
+        // given
+        saveAccount("8800000002", AccountStatus.UNREGISTERED, 10000L);
+
+        // when
+        Optional<AccountBalanceProjection> exceeded = repository(mode).debitBalance(ACCOUNT_NUMBER, USER_ID, 10001L);
+        Optional<AccountBalanceProjection> otherUser = repository(mode).debitBalance(ACCOUNT_NUMBER, OTHER_USER_ID, 1000L);
+        Optional<AccountBalanceProjection> unregistered = repository(mode).debitBalance("8800000002", USER_ID, 1000L);
+
+        // then
+        assertThat(exceeded).isEmpty();
+        assertThat(otherUser).isEmpty();
+        assertThat(unregistered).isEmpty();
+        assertThat(repository(mode).findBalanceByAccountNumber(ACCOUNT_NUMBER))
+                .hasValueSatisfying(balance -> assertThat(balance.getBalance()).isEqualTo(10000L));
+        assertThat(version(ACCOUNT_NUMBER)).isZero();
+    }
+
+    @ParameterizedTest
+    @EnumSource(Mode.class)
+    @DisplayName("없는 계좌와 거래는 빈 값을 돌려준다")
+    void notFoundTest(Mode mode) {
+        // when & then
+        assertThat(repository(mode).findBalanceByAccountNumber("8800009999")).isEmpty();
+        assertThat(repository(mode).findByTransactionId("missing000")).isEmpty();
+    }
+
+    @ParameterizedTest
+    @EnumSource(Mode.class)
+    @DisplayName("저장한 거래는 두 구현 모두에서 같은 값으로 조회된다")
+    void insertTransactionsTest(Mode mode) {
+        // given
+        LocalDateTime transactedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        List<TransactionDto> transactions = List.of(
+                transaction("conform001", USE, SUCCESS, 1000L, 9000L, transactedAt),
+                transaction("conform002", CANCEL, FAIL, 500L, 9000L, transactedAt),
+                transaction("conform003", USE, SUCCESS, 2000L, 7000L, transactedAt.plusSeconds(1)));
+
+        // when
+        repository(mode).insertTransactions(account.getId(), transactions);
+
+        // then
+        for (TransactionDto expected : transactions) {
+            for (Mode reader : Mode.values()) {
+                assertThat(repository(reader).findByTransactionId(expected.getTransactionId()))
+                        .hasValueSatisfying(actual -> assertThat(actual)
+                                .usingRecursiveComparison()
+                                .isEqualTo(expected));
+            }
+        }
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from transaction where account_id = ?", Long.class, account.getId()))
+                .isEqualTo(3L);
+    }
+
+    private BalanceRepository repository(Mode mode) {
+        return mode == Mode.JPA ? jpaBalanceRepository : jdbcBalanceRepository;
+    }
+
+    private Account saveAccount(String accountNumber, AccountStatus accountStatus, Long balance) {
+        return accountRepository.saveAndFlush(Account.builder()
+                .accountUser(accountUserRepository.getReferenceById(USER_ID))
+                .accountNumber(accountNumber)
+                .accountStatus(accountStatus)
+                .balance(balance)
+                .registeredAt(LocalDateTime.now())
+                .build());
+    }
+
+    private Long version(String accountNumber) {
+        return jdbcTemplate.queryForObject(
+                "select version from account where account_number = ?", Long.class, accountNumber);
+    }
+
+    private static TransactionDto transaction(String transactionId, TransactionType transactionType,
+                                              TransactionResultType resultType, Long amount, Long balanceSnapshot,
+                                              LocalDateTime transactedAt) {
+        return TransactionDto.builder()
+                .accountNumber(ACCOUNT_NUMBER)
+                .transactionType(transactionType)
+                .transactionResultType(resultType)
+                .amount(amount)
+                .balanceSnapshot(balanceSnapshot)
+                .transactionId(transactionId)
+                .transactedAt(transactedAt)
+                .build();
+    }
+}
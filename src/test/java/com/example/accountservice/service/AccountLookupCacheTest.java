@@ -0,0 +1,120 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.domain.AccountUser;
+import com.example.accountservice.repository.AccountOwnerProjection;
+import com.example.accountservice.repository.AccountRepository;
+import com.example.accountservice.repository.AccountUserRepository;
+import com.example.accountservice.type.AccountStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountLookupCacheTest {
+
+    @Mock
+    AccountUserRepository accountUserRepository;
+
+    @Mock
+    AccountRepository accountRepository;
+
+    AccountLookupCache accountLookupCache;
+
+    @BeforeEach
+    void setUp() {
+        accountLookupCache = new AccountLookupCache(accountUserRepository, accountRepository, 100, 600);
+    }
+
+    @Test
+    @DisplayName("사용자는 한 번만 조회하고 이후에는 캐시에서 응답한다")
+    void findAccountUserCachedTest() {
+        // given
+        given(accountUserRepository.findById(1L))
+                .willReturn(Optional.of(AccountUser.builder().id(1L).name("zero").build()));
+
+        // when
+        accountLookupCache.findAccountUser(1L);
+        Optional<AccountUser> accountUser = accountLookupCache.findAccountUser(1L);
+
+        // then
+        assertThat(accountUser).map(AccountUser::getName).contains("zero");
+        verify(accountUserRepository, times(1)).findById(1L);
+        assertThat(accountLookupCache.accountUserStats().hitCount()).isEqualTo(1);
+        assertThat(accountLookupCache.accountUserStats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("없는 사용자는 캐시하지 않는다")
+    void findAccountUserNotFoundNotCachedTest() {
+        // given
+        given(accountUserRepository.findById(1L))
+                .willReturn(Optional.empty());
+
+        // when
+        accountLookupCache.findAccountUser(1L);
+        Optional<AccountUser> accountUser = accountLookupCache.findAccountUser(1L);
+
+        // then
+        assertThat(accountUser).isEmpty();
+        verify(accountUserRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("계좌 무효화 후에는 다시 조회한다")
+    void evictAccountTest() {
+        // given
+        AccountOwnerProjection owner = mock(AccountOwnerProjection.class);
+        given(owner.getId()).willReturn(10L);
+        given(owner.getOwnerId()).willReturn(1L);
+        given(owner.getAccountStatus())
+                .willReturn(AccountStatus.IN_USE)
+                .willReturn(AccountStatus.UNREGISTERED);
+        given(accountRepository.findOwnerByAccountNumber("1000000000"))
+                .willReturn(Optional.of(owner));
+
+        // when
+        AccountStatus before = accountLookupCache.findAccount("1000000000").get().getAccountStatus();
+        accountLookupCache.evictAccount("1000000000");
+        AccountLookupCache.CachedAccount after = accountLookupCache.findAccount("1000000000").get();
+
+        // then
+        assertThat(before).isEqualTo(AccountStatus.IN_USE);
+        assertThat(after.getAccountStatus()).isEqualTo(AccountStatus.UNREGISTERED);
+        assertThat(after.getId()).isEqualTo(10L);
+        assertThat(after.getOwnerId()).isEqualTo(1L);
+        verify(accountRepository, times(2)).findOwnerByAccountNumber("1000000000");
+    }
+
+    @Test
+    @DisplayName("캐시 적중과 미스를 cache 메트릭으로 내보낸다")
+    void cacheMetricsTest() {
+        // given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        accountLookupCache.bindTo(registry);
+        given(accountUserRepository.findById(1L))
+                .willReturn(Optional.of(AccountUser.builder().id(1L).name("zero").build()));
+
+        // when
+        accountLookupCache.findAccountUser(1L);
+        accountLookupCache.findAccountUser(1L);
+
+        // then
+        assertThat(registry.get("cache.gets").tag("cache", "accountUsers").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "accountUsers").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.find("cache.size").tag("cache", "accounts").gauge()).isNotNull();
+    }
+}
@@ -1,18 +1,25 @@
 package com.example.accountservice.service;
 
+import com.example.accountservice.datasource.ReadAfterWriteGuard;
 import com.example.accountservice.domain.Account;
 import com.example.accountservice.domain.AccountUser;
 import com.example.accountservice.dto.AccountDto;
 import com.example.accountservice.exception.AccountException;
+import com.example.accountservice.exception.AccountExceptionFactory;
+import com.example.accountservice.ledger.LedgerEngine;
+import com.example.accountservice.policy.AccountNumberAllocator;
+import com.example.accountservice.policy.AccountPolicy;
 import com.example.accountservice.repository.AccountRepository;
-import com.example.accountservice.repository.AccountUserRepository;
+import com.example.accountservice.shard.ShardRouter;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -31,9 +38,22 @@ import static org.mockito.Mockito.*;
 class AccountServiceTest {
 
     @Mock
-    AccountUserRepository accountUserRepository;
+    AccountLookupCache accountLookupCache;
     @Mock
     AccountRepository accountRepository;
+    @Mock
+    AccountNumberAllocator accountNumberAllocator;
+    @Mock
+    LedgerEngine ledgerEngine;
+    @Mock
+    ReadAfterWriteGuard readAfterWriteGuard;
+
+    @Mock
+    ShardRouter shardRouter;
+    @Spy
+    AccountExceptionFactory accountExceptionFactory = new AccountExceptionFactory(true);
+    @Spy
+    AccountPolicy accountPolicy = new AccountPolicy(accountExceptionFactory);
 
 
     @InjectMocks
@@ -43,7 +63,7 @@ class AccountServiceTest {
     @DisplayName("계좌 생성 유저 없을 경우 테스트")
     void createNotUserAccountTest() {
         // given
-        given(accountUserRepository.findById(anyLong()))
+        given(accountLookupCache.findAccountUser(anyLong()))
                 .willThrow(AccountException.class);
 
         // when
@@ -61,7 +81,7 @@ class AccountServiceTest {
                 .name("TEST")
                 .build();
 
-        given(accountUserRepository.findById(anyLong()))
+        given(accountLookupCache.findAccountUser(anyLong()))
                 .willReturn(Optional.of(accountUser));
 
         given(accountRepository.countByAccountUser(accountUser))
@@ -79,21 +99,27 @@ class AccountServiceTest {
     @DisplayName("계좌 생성 시 계좌번호 중복 테스트")
     void createAccountNumberDuplicatedTest() {
         // given
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(AccountUser.builder().build()));
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.empty());
+        AccountUser accountUser = AccountUser.builder()
+                .id(1L)
+                .name("TEST")
+                .build();
 
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(Account.builder().build()));
+        given(accountLookupCache.findAccountUser(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountRepository.countByAccountUser(accountUser))
+                .willReturn(1);
+        given(accountNumberAllocator.allocate())
+                .willReturn("1000000000");
+
+        given(accountRepository.saveAndFlush(any()))
+                .willThrow(new DataIntegrityViolationException("duplicated account_number"));
 
         // when
         AccountException accountException = assertThrows(AccountException.class,
-                () -> accountService.createAccount(0L, 5000L));
+                () -> accountService.createAccount(accountUser.getId(), 5000L));
 
         // then
         assertThat(accountException.getErrorCode()).isEqualTo(DUPLICATED_ACCOUNT_NUMBER);
-
     }
 
     @Test
@@ -105,19 +131,16 @@ class AccountServiceTest {
                 .name("TEST")
                 .build();
 
-        given(accountUserRepository.findById(anyLong()))
+        given(accountLookupCache.findAccountUser(anyLong()))
                 .willReturn(Optional.of(accountUser));
 
         given(accountRepository.countByAccountUser(accountUser))
                 .willReturn(1);
 
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.of(Account.builder()
-                        .accountUser(accountUser)
-                        .accountNumber("1234567890")
-                        .build()));
+        given(accountNumberAllocator.allocate())
+                .willReturn("1234567891");
 
-        given(accountRepository.save(any()))
+        given(accountRepository.saveAndFlush(any()))
                 .willReturn(Account.builder()
                         .accountUser(accountUser)
                         .accountNumber("1231231231")
@@ -130,7 +153,7 @@ class AccountServiceTest {
         AccountDto account = accountService.createAccount(1L, 5000L);
 
         // then
-        verify(accountRepository, times(1)).save(captor.capture());
+        verify(accountRepository, times(1)).saveAndFlush(captor.capture());
         assertThat(captor.getValue().getAccountStatus()).isEqualTo(IN_USE);
         assertThat(captor.getValue().getAccountUser().getId()).isEqualTo(account.getUserId());
         assertThat(captor.getValue().getBalance()).isEqualTo(5000L);
@@ -141,7 +164,7 @@ class AccountServiceTest {
     @DisplayName("계좌 해지 시 사용자가 없을 경우 테스트")
     void deleteAccountUserNotFoundTest() {
         // given
-        given(accountUserRepository.findById(anyLong()))
+        given(accountLookupCache.findAccountUser(anyLong()))
                 .willReturn(Optional.empty());
 
         // when
@@ -156,7 +179,7 @@ class AccountServiceTest {
     @DisplayName("계좌 해지 시 계좌가 없을 경우 테스트")
     void deleteAccountAccountNotFoundTest() {
         // given
-        given(accountUserRepository.findById(any()))
+        given(accountLookupCache.findAccountUser(any()))
                 .willReturn(Optional.of(AccountUser.builder().build()));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.empty());
@@ -187,7 +210,7 @@ class AccountServiceTest {
                 .registeredAt(LocalDateTime.now())
                 .build();
 
-        given(accountUserRepository.findById(anyLong()))
+        given(accountLookupCache.findAccountUser(anyLong()))
                 .willReturn(Optional.of(accountUser));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
@@ -217,7 +240,7 @@ class AccountServiceTest {
                 .registeredAt(LocalDateTime.now())
                 .build();
 
-        given(accountUserRepository.findById(anyLong()))
+        given(accountLookupCache.findAccountUser(anyLong()))
                 .willReturn(Optional.of(accountUser));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
@@ -246,7 +269,7 @@ class AccountServiceTest {
                 .registeredAt(LocalDateTime.now())
                 .build();
 
-        given(accountUserRepository.findById(anyLong()))
+        given(accountLookupCache.findAccountUser(anyLong()))
                 .willReturn(Optional.of(accountUser));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
@@ -275,7 +298,7 @@ class AccountServiceTest {
                 .registeredAt(LocalDateTime.now())
                 .build();
 
-        given(accountUserRepository.findById(anyLong()))
+        given(accountLookupCache.findAccountUser(anyLong()))
                 .willReturn(Optional.of(accountUser));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
@@ -294,7 +317,7 @@ class AccountServiceTest {
     @DisplayName("계좌 조회 시 사용자 없을 경우 테스트")
     void findAllAccountUserNotFoundTest() {
         // given
-        given(accountUserRepository.findById(any()))
+        given(accountLookupCache.findAccountUser(any()))
                 .willReturn(Optional.empty());
 
         // when
@@ -313,7 +336,7 @@ class AccountServiceTest {
                 .id(1L)
                 .name("TEST")
                 .build();
-        given(accountUserRepository.findById(anyLong()))
+        given(accountLookupCache.findAccountUser(anyLong()))
                 .willReturn(Optional.of(accountUser));
         given(accountRepository.findAllByAccountUser(accountUser))
                 .willReturn(List.of(
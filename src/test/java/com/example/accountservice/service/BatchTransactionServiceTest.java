@@ -0,0 +1,175 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.dto.BatchBalance;
+import com.example.accountservice.dto.BatchTransactionDto;
+import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.exception.AccountException;
+import com.example.accountservice.ledger.LedgerEngine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.SortedMap;
+import java.util.stream.Collectors;
+
+import static com.example.accountservice.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.accountservice.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.example.accountservice.type.ErrorCode.SERVER_ERROR;
+import static com.example.accountservice.type.TransactionResultType.FAIL;
+import static com.example.accountservice.type.TransactionResultType.SUCCESS;
+import static com.example.accountservice.type.TransactionType.USE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BatchTransactionServiceTest {
+
+    @Mock
+    LockService lockService;
+
+    @Mock
+    TransactionService transactionService;
+
+    @Mock
+    LedgerEngine ledgerEngine;
+
+    @Mock
+    FailedTransactionRecorder failedTransactionRecorder;
+
+    @InjectMocks
+    BatchTransactionService batchTransactionService;
+
+    @Test
+    @DisplayName("계좌번호 순서로 락 획득 및 요청 순서대로 결과 반환 테스트")
+    void applyBatchLockOrderTest() {
+        // given
+        given(transactionService.applyBatch(any(), any()))
+                .willAnswer(invocation -> succeed(invocation.getArgument(0), invocation.getArgument(1)));
+
+        List<BatchBalance.Item> items = List.of(
+                new BatchBalance.Item(USE, 1L, null, "2000000000", 1000L),
+                new BatchBalance.Item(USE, 1L, null, "1000000000", 1000L),
+                new BatchBalance.Item(USE, 1L, null, "2000000000", 1000L)
+        );
+
+        // when
+        List<BatchTransactionDto> results = batchTransactionService.applyBatch(items);
+
+        // then
+        InOrder inOrder = inOrder(lockService);
+        inOrder.verify(lockService).lock("1000000000");
+        inOrder.verify(lockService).unlock("1000000000");
+        inOrder.verify(lockService).lock("2000000000");
+        inOrder.verify(lockService).unlock("2000000000");
+        assertThat(results).extracting(BatchTransactionDto::getIndex).containsExactly(0, 1, 2);
+        assertThat(results).extracting(BatchTransactionDto::getAccountNumber)
+                .containsExactly("2000000000", "1000000000", "2000000000");
+    }
+
+    @Test
+    @DisplayName("락 획득 실패 시 해당 계좌 항목만 실패 테스트")
+    void applyBatchLockFailTest() {
+        // given
+        willThrow(new AccountException(ACCOUNT_TRANSACTION_LOCK))
+                .given(lockService).lock("1000000000");
+        given(transactionService.applyBatch(eq("2000000000"), any()))
+                .willAnswer(invocation -> succeed(invocation.getArgument(0), invocation.getArgument(1)));
+
+        List<BatchBalance.Item> items = List.of(
+                new BatchBalance.Item(USE, 1L, null, "1000000000", 1000L),
+                new BatchBalance.Item(USE, 1L, null, "2000000000", 1000L)
+        );
+
+        // when
+        List<BatchTransactionDto> results = batchTransactionService.applyBatch(items);
+
+        // then
+        verify(lockService, never()).unlock("1000000000");
+        assertThat(results.get(0).getTransactionResultType()).isEqualTo(FAIL);
+        assertThat(results.get(0).getErrorCode()).isEqualTo(ACCOUNT_TRANSACTION_LOCK);
+        assertThat(results.get(1).getTransactionResultType()).isEqualTo(SUCCESS);
+    }
+
+    @Test
+    @DisplayName("원장 엔진 사용 시 항목을 엔진으로 처리하고 실패 항목만 기록 테스트")
+    void applyBatchLedgerEngineTest() {
+        // given
+        given(ledgerEngine.isEnabled()).willReturn(true);
+        given(ledgerEngine.useBalance(1L, "1000000000", 1000L))
+                .willReturn(TransactionDto.builder()
+                        .accountNumber("1000000000")
+                        .transactionType(USE)
+                        .transactionResultType(SUCCESS)
+                        .amount(1000L)
+                        .balanceSnapshot(9000L)
+                        .transactionId("transactionId")
+                        .build());
+        given(ledgerEngine.useBalance(1L, "1000000000", 20000L))
+                .willThrow(new AccountException(AMOUNT_EXCEED_BALANCE));
+
+        List<BatchBalance.Item> items = List.of(
+                new BatchBalance.Item(USE, 1L, null, "1000000000", 1000L),
+                new BatchBalance.Item(USE, 1L, null, "1000000000", 20000L)
+        );
+
+        // when
+        List<BatchTransactionDto> results = batchTransactionService.applyBatch(items);
+
+        // then
+        verifyNoInteractions(lockService, transactionService);
+        verify(failedTransactionRecorder).record(USE, "1000000000", 20000L, null);
+        assertThat(results.get(0).getTransactionResultType()).isEqualTo(SUCCESS);
+        assertThat(results.get(0).getBalanceSnapshot()).isEqualTo(9000L);
+        assertThat(results.get(0).getTransactionId()).isEqualTo("transactionId");
+        assertThat(results.get(1).getTransactionResultType()).isEqualTo(FAIL);
+        assertThat(results.get(1).getErrorCode()).isEqualTo(AMOUNT_EXCEED_BALANCE);
+    }
+
+    @Test
+    @DisplayName("그룹 처리 중 예상하지 못한 예외는 해당 계좌 항목만 SERVER_ERROR 로 실패 테스트")
+    void applyBatchUnexpectedExceptionTest() {
+        // given
+        given(transactionService.applyBatch(eq("1000000000"), any()))
+                .willThrow(new IllegalStateException("connection reset"));
+        given(transactionService.applyBatch(eq("2000000000"), any()))
+                .willAnswer(invocation -> succeed(invocation.getArgument(0), invocation.getArgument(1)));
+
+        List<BatchBalance.Item> items = List.of(
+                new BatchBalance.Item(USE, 1L, null, "1000000000", 1000L),
+                new BatchBalance.Item(USE, 1L, null, "2000000000", 1000L)
+        );
+
+        // when
+        List<BatchTransactionDto> results = batchTransactionService.applyBatch(items);
+
+        // then
+        verify(lockService).unlock("1000000000");
+        assertThat(results.get(0).getTransactionResultType()).isEqualTo(FAIL);
+        assertThat(results.get(0).getErrorCode()).isEqualTo(SERVER_ERROR);
+        assertThat(results.get(1).getTransactionResultType()).isEqualTo(SUCCESS);
+    }
+
+    private static List<BatchTransactionDto> succeed(String accountNumber, SortedMap<Integer, BatchBalance.Item> group) {
+        return group.entrySet().stream()
+                .map(entry -> BatchTransactionDto.builder()
+                        .index(entry.getKey())
+                        .accountNumber(accountNumber)
+                        .transactionType(entry.getValue().getTransactionType())
+                        .transactionResultType(SUCCESS)
+                        .amount(entry.getValue().getAmount())
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.policy.TransactionIdGenerator;
+import com.example.accountservice.shard.ShardRouter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.Collection;
+
+import static com.example.accountservice.type.TransactionType.USE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FailedTransactionRecorderTest {
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    TransactionIdGenerator transactionIdGenerator;
+
+    @Mock
+    ShardRouter shardRouter;
+
+    @Test
+    @DisplayName("실패 거래 배치 저장 테스트")
+    @SuppressWarnings("unchecked")
+    void recordBatchFlushTest() throws InterruptedException {
+        // given
+        given(transactionIdGenerator.generate()).willReturn("transactio");
+        given(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .willReturn(new int[][]{new int[10]});
+        FailedTransactionRecorder recorder = new FailedTransactionRecorder(
+                jdbcTemplate, transactionIdGenerator, shardRouter, 100, 10, 60_000L, "drop");
+        recorder.start();
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            recorder.record(USE, "1234567890", 1000L, null);
+        }
+        recorder.stop();
+
+        // then
+        ArgumentCaptor<Collection<?>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), captor.capture(), eq(10),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(captor.getValue()).hasSize(10);
+    }
+
+    @Test
+    @DisplayName("잔액 스냅샷은 기록 요청 시 넘긴 값을 바인딩하고, 모르면 null 로 저장한다")
+    @SuppressWarnings("unchecked")
+    void recordBalanceSnapshotTest() throws Exception {
+        // given
+        given(transactionIdGenerator.generate()).willReturn("transactio");
+        FailedTransactionRecorder recorder = new FailedTransactionRecorder(
+                jdbcTemplate, transactionIdGenerator, shardRouter, 100, 2, 60_000L, "drop");
+        recorder.start();
+
+        // when
+        recorder.record(USE, "1234567890", 1000L, 500L);
+        recorder.record(USE, "1234567890", 1000L, null);
+        recorder.stop();
+
+        // then
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Collection<Object>> batch = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<Object>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(sql.capture(), batch.capture(), anyInt(), setter.capture());
+        assertThat(sql.getValue()).doesNotContain("a.balance");
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        for (Object failedTransaction : batch.getValue()) {
+            setter.getValue().setValues(ps, failedTransaction);
+        }
+        verify(ps).setObject(4, 500L, Types.BIGINT);
+        verify(ps).setObject(4, null, Types.BIGINT);
+    }
+
+    @Test
+    @DisplayName("큐가 가득 찬 경우 drop 정책 테스트")
+    void recordOverflowDropTest() {
+        // given
+        given(transactionIdGenerator.generate()).willReturn("transactio");
+        FailedTransactionRecorder recorder = new FailedTransactionRecorder(
+                jdbcTemplate, transactionIdGenerator, shardRouter, 1, 10, 50L, "drop");
+
+        // when
+        recorder.record(USE, "1234567890", 1000L, null);
+        recorder.record(USE, "1234567890", 1000L, null);
+
+        // then
+        assertThat(recorder.getDroppedCount()).isEqualTo(1L);
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.dto.BatchBalance;
+import com.example.accountservice.dto.BatchTransactionDto;
+import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.exception.AccountException;
+import com.example.accountservice.exception.AccountExceptionFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.accountservice.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.accountservice.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.example.accountservice.type.TransactionResultType.SUCCESS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCommitServiceTest {
+
+    @Mock
+    LockService lockService;
+
+    @Mock
+    TransactionService transactionService;
+
+    @Test
+    @DisplayName("동시 요청을 묶어 적은 횟수로 커밋 테스트")
+    void groupCommitCoalesceTest() throws Exception {
+        // given
+        AtomicInteger commitCount = new AtomicInteger();
+        given(transactionService.applyBatch(anyString(), any(), eq(false)))
+                .willAnswer(invocation -> {
+                    commitCount.incrementAndGet();
+                    Thread.sleep(20);
+                    return succeed(invocation.getArgument(0), invocation.getArgument(1));
+                });
+        GroupCommitService groupCommitService =
+                new GroupCommitService(lockService, transactionService, new AccountExceptionFactory(true), true, 100, 5000L);
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+
+        // when
+        List<Future<TransactionDto>> futures = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            futures.add(executorService.submit(() ->
+                    groupCommitService.useBalance(1L, "1234567890", 100L)));
+        }
+        for (Future<TransactionDto> future : futures) {
+            assertThat(future.get(10, TimeUnit.SECONDS).getTransactionResultType()).isEqualTo(SUCCESS);
+        }
+        executorService.shutdown();
+
+        // then
+        assertThat(commitCount.get()).isLessThan(64);
+    }
+
+    @Test
+    @DisplayName("그룹 내 실패 항목은 해당 호출자에게만 예외 전달 테스트")
+    void groupCommitItemFailTest() {
+        // given
+        given(transactionService.applyBatch(anyString(), any(), eq(false)))
+                .willAnswer(invocation -> {
+                    SortedMap<Integer, BatchBalance.Item> items = invocation.getArgument(1);
+                    List<BatchTransactionDto> results = new ArrayList<>();
+                    for (Map.Entry<Integer, BatchBalance.Item> entry : items.entrySet()) {
+                        results.add(BatchTransactionDto.failed(entry.getKey(), entry.getValue(), AMOUNT_EXCEED_BALANCE));
+                    }
+                    return results;
+                });
+        GroupCommitService groupCommitService =
+                new GroupCommitService(lockService, transactionService, new AccountExceptionFactory(true), true, 100, 5000L);
+
+        // when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> groupCommitService.useBalance(1L, "1234567890", 100L));
+
+        // then
+        assertThat(accountException.getErrorCode()).isEqualTo(AMOUNT_EXCEED_BALANCE);
+    }
+
+
+    @Test
+    @DisplayName("리더가 오래 걸리면 큐에 남은 대기자는 대기 시간 후 실패 테스트")
+    void groupCommitWaitTimeoutTest() throws Exception {
+        // given
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+        given(transactionService.applyBatch(anyString(), any(), eq(false)))
+                .willAnswer(invocation -> {
+                    leaderStarted.countDown();
+                    releaseLeader.await(5, TimeUnit.SECONDS);
+                    return succeed(invocation.getArgument(0), invocation.getArgument(1));
+                });
+        GroupCommitService groupCommitService =
+                new GroupCommitService(lockService, transactionService, new AccountExceptionFactory(true), true, 100, 100L);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        Future<TransactionDto> leader = executorService.submit(() ->
+                groupCommitService.useBalance(1L, "1234567890", 100L));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+
+        // when
+        long startedAt = System.nanoTime();
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> groupCommitService.useBalance(1L, "1234567890", 200L));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        releaseLeader.countDown();
+
+        // then
+        assertThat(accountException.getErrorCode()).isEqualTo(ACCOUNT_TRANSACTION_LOCK);
+        assertThat(waitedMillis).isBetween(90L, 2000L);
+        assertThat(leader.get(5, TimeUnit.SECONDS).getTransactionResultType()).isEqualTo(SUCCESS);
+        executorService.shutdown();
+    }
+
+    private static List<BatchTransactionDto> succeed(String accountNumber, SortedMap<Integer, BatchBalance.Item> items) {
+        List<BatchTransactionDto> results = new ArrayList<>();
+        for (Map.Entry<Integer, BatchBalance.Item> entry : items.entrySet()) {
+            results.add(BatchTransactionDto.builder()
+                    .index(entry.getKey())
+                    .accountNumber(accountNumber)
+                    .transactionType(entry.getValue().getTransactionType())
+                    .transactionResultType(SUCCESS)
+                    .amount(entry.getValue().getAmount())
+                    .transactionId("transactio")
+                    .build());
+        }
+        return results;
+    }
+}
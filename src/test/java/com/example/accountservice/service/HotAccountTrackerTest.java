@@ -0,0 +1,154 @@
+package com.example.accountservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotAccountTrackerTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("대기 시간이 긴 계좌 순으로 상위 K 개만 유지한다")
+    void topAccountsTest() {
+        // given
+        HotAccountTracker tracker = new HotAccountTracker(meterRegistry, 3, 1024, 60, 1_000_000);
+        for (int i = 0; i < 100; i++) {
+            tracker.record("1000000000", TimeUnit.MILLISECONDS.toNanos(10), false);
+        }
+        for (int i = 0; i < 50; i++) {
+            tracker.record("1000000001", TimeUnit.MILLISECONDS.toNanos(10), false);
+        }
+        for (int account = 2; account < 50; account++) {
+            tracker.record(String.valueOf(1_000_000_000L + account), TimeUnit.MILLISECONDS.toNanos(1), false);
+        }
+
+        // when
+        List<HotAccountTracker.HotAccount> hotAccounts = tracker.topAccounts();
+
+        // then
+        assertThat(hotAccounts).hasSize(3);
+        assertThat(hotAccounts.get(0).getAccountNumber()).isEqualTo("1000000000");
+        assertThat(hotAccounts.get(0).getLockWaitMicros()).isGreaterThanOrEqualTo(1_000_000L);
+        assertThat(hotAccounts.get(1).getAccountNumber()).isEqualTo("1000000001");
+    }
+
+    @Test
+    @DisplayName("새로 경합이 커진 계좌가 가장 작은 후보를 밀어낸다")
+    void replaceColdestTest() {
+        // given
+        HotAccountTracker tracker = new HotAccountTracker(meterRegistry, 2, 1024, 60, 1_000_000);
+        tracker.record("1000000000", TimeUnit.MILLISECONDS.toNanos(5), false);
+        tracker.record("1000000001", TimeUnit.MILLISECONDS.toNanos(1), false);
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            tracker.record("1000000002", TimeUnit.MILLISECONDS.toNanos(1), true);
+        }
+
+        // then
+        assertThat(tracker.topAccounts())
+                .extracting(HotAccountTracker.HotAccount::getAccountNumber)
+                .containsExactly("1000000002", "1000000000");
+        assertThat(tracker.topAccounts().get(0).getLockFailures()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("후보에 오른 뒤 경합이 커진 계좌는 예전 점수로 밀려나지 않는다")
+    void refreshedCandidateTest() {
+        // given
+        HotAccountTracker tracker = new HotAccountTracker(meterRegistry, 2, 1024, 60, 1_000_000);
+        tracker.record("1000000000", TimeUnit.MILLISECONDS.toNanos(1), false);
+        tracker.record("1000000001", TimeUnit.MILLISECONDS.toNanos(2), false);
+        tracker.record("1000000000", TimeUnit.MILLISECONDS.toNanos(5), false);
+
+        // when
+        tracker.record("1000000002", TimeUnit.MILLISECONDS.toNanos(3), false);
+
+        // then
+        assertThat(tracker.topAccounts())
+                .extracting(HotAccountTracker.HotAccount::getAccountNumber)
+                .containsExactly("1000000000", "1000000002");
+    }
+
+    @Test
+    @DisplayName("대기 시간이 같으면 락 획득에 실패한 계좌가 더 위에 온다")
+    void failuresRankTest() {
+        // given
+        HotAccountTracker tracker = new HotAccountTracker(meterRegistry, 3, 1024, 60, 1_000_000);
+        tracker.record("1000000000", TimeUnit.MILLISECONDS.toNanos(5), false);
+        tracker.record("1000000001", TimeUnit.MILLISECONDS.toNanos(5), true);
+
+        // when
+        List<HotAccountTracker.HotAccount> hotAccounts = tracker.topAccounts();
+
+        // then
+        assertThat(hotAccounts).extracting(HotAccountTracker.HotAccount::getAccountNumber)
+                .containsExactly("1000000001", "1000000000");
+        assertThat(hotAccounts.get(0).getScore()).isEqualTo(5000L + 1_000_000L);
+    }
+
+    @Test
+    @DisplayName("한 행에서 같은 칸을 쓰는 계좌들도 다른 행에서는 흩어진다")
+    void independentRowsTest() {
+        // given
+        HotAccountTracker tracker = new HotAccountTracker(meterRegistry, 3, 1024, 60, 1_000_000);
+        Map<Integer, List<String>> firstRow = IntStream.range(0, 4096)
+                .mapToObj(account -> String.valueOf(1_000_000_000L + account))
+                .collect(Collectors.groupingBy(accountNumber -> tracker.cell(0, accountNumber)));
+
+        // when
+        List<String> collided = firstRow.values().stream()
+                .filter(accountNumbers -> accountNumbers.size() > 1)
+                .findFirst()
+                .orElseThrow();
+
+        // then
+        for (int row = 1; row < 4; row++) {
+            int current = row;
+            assertThat(collided.stream().map(accountNumber -> tracker.cell(current, accountNumber)).distinct())
+                    .hasSizeGreaterThan(1);
+        }
+    }
+
+    @Test
+    @DisplayName("decay 시 대기 시간과 실패 횟수가 절반으로 줄어든다")
+    void decayTest() {
+        // given
+        HotAccountTracker tracker = new HotAccountTracker(meterRegistry, 3, 1024, 60, 1_000_000);
+        for (int i = 0; i < 4; i++) {
+            tracker.record("1000000000", TimeUnit.MILLISECONDS.toNanos(1), true);
+        }
+
+        // when
+        tracker.decay();
+
+        // then
+        HotAccountTracker.HotAccount hotAccount = tracker.topAccounts().get(0);
+        assertThat(hotAccount.getLockWaitMicros()).isEqualTo(2000L);
+        assertThat(hotAccount.getLockFailures()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("상위 계좌를 계좌번호 태그 게이지로 발행한다")
+    void publishTest() {
+        // given
+        HotAccountTracker tracker = new HotAccountTracker(meterRegistry, 3, 1024, 60, 1_000_000);
+        tracker.record("1000000000", TimeUnit.MILLISECONDS.toNanos(3), false);
+
+        // when
+        tracker.publish();
+
+        // then
+        assertThat(meterRegistry.get("account.lock.hot.wait").tag("accountNumber", "1000000000").gauge().value())
+                .isEqualTo(3000.0);
+    }
+}
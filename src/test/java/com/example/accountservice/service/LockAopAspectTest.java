@@ -0,0 +1,191 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.aop.AccountLock;
+import com.example.accountservice.aop.LockStrategy;
+import com.example.accountservice.dto.CreateBalance;
+import com.example.accountservice.exception.AccountException;
+import com.example.accountservice.exception.AccountExceptionFactory;
+import com.example.accountservice.ledger.LedgerEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.example.accountservice.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.accountservice.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LockAopAspectTest {
+
+    @Mock
+    LockService lockService;
+
+    @Mock
+    GroupCommitService groupCommitService;
+
+    @Mock
+    LedgerEngine ledgerEngine;
+
+    @Mock
+    AsyncLockExecutor asyncLockExecutor;
+
+    @Mock
+    ProceedingJoinPoint pjp;
+
+    @Spy
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    AccountExceptionFactory accountExceptionFactory = new AccountExceptionFactory(true);
+
+    @InjectMocks
+    LockAopAspect lockAopAspect;
+
+    CreateBalance.Request request = new CreateBalance.Request(1L, "1234567890", 1000L);
+
+    @AccountLock
+    void pessimistic() {
+    }
+
+    @AccountLock(strategy = LockStrategy.OPTIMISTIC, maxRetries = 2, retryBackoffMillis = 1L)
+    void optimistic() {
+    }
+
+    @Test
+    @DisplayName("비관적 락 모드에서 락 획득 및 해제 테스트")
+    void pessimisticLockTest() throws Throwable {
+        // given
+        given(pjp.proceed()).willReturn("OK");
+
+        // when
+        Object result = lockAopAspect.aroundMethod(pjp, accountLock("pessimistic"), request);
+
+        // then
+        assertThat(result).isEqualTo("OK");
+        verify(lockService, times(1)).lock("1234567890");
+        verify(lockService, times(1)).unlock("1234567890");
+    }
+
+    @Test
+    @DisplayName("비동기 락 모드에서 락 획득 후 실행기에서 처리하고 해제 테스트")
+    void asyncLockTest() throws Throwable {
+        // given
+        LockService.AsyncLock lock = new LockService.AsyncLock("1234567890", 1L, System.nanoTime());
+        given(asyncLockExecutor.isEnabled()).willReturn(true);
+        given(lockService.lockAsync("1234567890")).willReturn(CompletableFuture.completedFuture(lock));
+        given(asyncLockExecutor.supply(any())).willAnswer(invocation ->
+                CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(0).get()));
+        given(pjp.proceed()).willReturn(CompletableFuture.completedFuture("OK"));
+
+        // when
+        Object result = lockAopAspect.aroundMethod(pjp, accountLock("pessimistic"), request);
+
+        // then
+        assertThat(((CompletableFuture<?>) result).get(1, TimeUnit.SECONDS)).isEqualTo("OK");
+        verify(lockService, times(1)).unlockAsync(lock);
+        verify(lockService, never()).lock(anyString());
+    }
+
+    @Test
+    @DisplayName("비동기 락 모드에서 대상 메서드의 future 를 기다리지 않고 끝날 때 락 해제 테스트")
+    void asyncLockReleasedOnCompletionTest() throws Throwable {
+        // given
+        LockService.AsyncLock lock = new LockService.AsyncLock("1234567890", 1L, System.nanoTime());
+        CompletableFuture<Object> handled = new CompletableFuture<>();
+        given(asyncLockExecutor.isEnabled()).willReturn(true);
+        given(lockService.lockAsync("1234567890")).willReturn(CompletableFuture.completedFuture(lock));
+        given(asyncLockExecutor.supply(any())).willAnswer(invocation ->
+                CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(0).get()));
+        given(pjp.proceed()).willReturn(handled);
+
+        // when
+        CompletableFuture<?> result = (CompletableFuture<?>) lockAopAspect.aroundMethod(
+                pjp, accountLock("pessimistic"), request);
+        verify(lockService, never()).unlockAsync(lock);
+        handled.complete("OK");
+
+        // then
+        assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo("OK");
+        verify(lockService, times(1)).unlockAsync(lock);
+    }
+
+    @Test
+    @DisplayName("비동기 락 모드에서 처리 실패 시에도 락 해제 테스트")
+    void asyncLockFailTest() throws Throwable {
+        // given
+        LockService.AsyncLock lock = new LockService.AsyncLock("1234567890", 1L, System.nanoTime());
+        given(asyncLockExecutor.isEnabled()).willReturn(true);
+        given(lockService.lockAsync("1234567890")).willReturn(CompletableFuture.completedFuture(lock));
+        given(asyncLockExecutor.supply(any())).willAnswer(invocation ->
+                CompletableFuture.supplyAsync(invocation.<Supplier<?>>getArgument(0)));
+        given(pjp.proceed()).willThrow(AccountException.of(AMOUNT_EXCEED_BALANCE));
+
+        // when
+        CompletableFuture<?> result = (CompletableFuture<?>) lockAopAspect.aroundMethod(
+                pjp, accountLock("pessimistic"), request);
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> result.get(1, TimeUnit.SECONDS));
+
+        // then
+        assertThat(((AccountException) exception.getCause()).getErrorCode()).isEqualTo(AMOUNT_EXCEED_BALANCE);
+        verify(lockService, times(1)).unlockAsync(lock);
+    }
+
+    @Test
+    @DisplayName("낙관적 락 충돌 시 재시도 테스트")
+    void optimisticRetryTest() throws Throwable {
+        // given
+        given(pjp.proceed())
+                .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L))
+                .willReturn("OK");
+
+        // when
+        Object result = lockAopAspect.aroundMethod(pjp, accountLock("optimistic"), request);
+
+        // then
+        assertThat(result).isEqualTo("OK");
+        verify(pjp, times(2)).proceed();
+        verifyNoInteractions(lockService);
+    }
+
+    @Test
+    @DisplayName("낙관적 락 재시도 초과 테스트")
+    void optimisticRetryExhaustedTest() throws Throwable {
+        // given
+        given(pjp.proceed())
+                .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L));
+
+        // when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> lockAopAspect.aroundMethod(pjp, accountLock("optimistic"), request));
+
+        // then
+        assertThat(accountException.getErrorCode()).isEqualTo(ACCOUNT_TRANSACTION_LOCK);
+        verify(pjp, times(3)).proceed();
+        assertThat(meterRegistry.get("account.lock.optimistic.conflicts").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("account.lock.failures").tag("reason", "retry-exhausted").counter().count())
+                .isEqualTo(1);
+    }
+
+    private AccountLock accountLock(String methodName) throws NoSuchMethodException {
+        return getClass().getDeclaredMethod(methodName).getAnnotation(AccountLock.class);
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.exception.AccountException;
+import com.example.accountservice.exception.AccountExceptionFactory;
+import com.example.accountservice.support.JfrEvents;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.misc.RedissonPromise;
+
+import jdk.jfr.consumer.RecordedEvent;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.accountservice.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LockServiceTest {
+
+    @Mock
+    RedissonClient redissonClient;
+
+    @Mock
+    RLock rLock;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    HotAccountTracker hotAccountTracker = new HotAccountTracker(meterRegistry, 20, 2048, 60, 1_000_000);
+
+    @Test
+    @DisplayName("로컬 락 획득 후 Redis 락 획득 테스트")
+    void lockDistributedTest() {
+        // given
+        LockService lockService = new LockService(redissonClient, hotAccountTracker, meterRegistry, new AccountExceptionFactory(true), "distributed");
+        given(redissonClient.getLock(anyString())).willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(TimeUnit.class), anyLong()))
+                .willReturn(RedissonPromise.newSucceededFuture(true));
+        given(rLock.unlockAsync(anyLong())).willReturn(RedissonPromise.newSucceededFuture(null));
+
+        // when
+        lockService.lock("1234567890");
+        lockService.unlock("1234567890");
+
+        // then
+        ArgumentCaptor<Long> ownerId = ArgumentCaptor.forClass(Long.class);
+        verify(rLock, times(1)).tryLockAsync(anyLong(), anyLong(), any(TimeUnit.class), ownerId.capture());
+        verify(rLock, times(1)).unlockAsync(ownerId.getValue());
+        assertThat(lockService.localUsers("1234567890")).isZero();
+        assertThat(meterRegistry.get("account.lock.wait").tag("result", "acquired").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("account.lock.hold").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Redis 락 획득 실패 시 로컬 락 해제 테스트")
+    void lockDistributedFailTest() throws Exception {
+        // given
+        LockService lockService = new LockService(redissonClient, hotAccountTracker, meterRegistry, new AccountExceptionFactory(true), "distributed");
+        given(redissonClient.getLock(anyString())).willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(TimeUnit.class), anyLong()))
+                .willReturn(RedissonPromise.newSucceededFuture(false));
+
+        // when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> lockService.lock("1234567890"));
+
+        // then
+        assertThat(accountException.getErrorCode()).isEqualTo(ACCOUNT_TRANSACTION_LOCK);
+        assertThat(meterRegistry.get("account.lock.failures").tag("reason", "timeout").counter().count()).isEqualTo(1);
+        assertThat(hotAccountTracker.topAccounts())
+                .extracting(HotAccountTracker.HotAccount::getAccountNumber, HotAccountTracker.HotAccount::getLockFailures)
+                .containsExactly(tuple("1234567890", 1L));
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(TimeUnit.class), anyLong()))
+                .willReturn(RedissonPromise.newSucceededFuture(true));
+        CompletableFuture.runAsync(() -> lockService.lock("1234567890")).get(1, TimeUnit.SECONDS);
+        verify(rLock, never()).unlockAsync(anyLong());
+    }
+
+    @Test
+    @DisplayName("로컬 대기자가 있으면 Redis 락을 해제하지 않고 넘긴다")
+    void lockHandoffTest() throws Exception {
+        // given
+        LockService lockService = new LockService(redissonClient, hotAccountTracker, meterRegistry, new AccountExceptionFactory(true), "distributed");
+        given(redissonClient.getLock(anyString())).willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(TimeUnit.class), anyLong()))
+                .willReturn(RedissonPromise.newSucceededFuture(true));
+        given(rLock.unlockAsync(anyLong())).willReturn(RedissonPromise.newSucceededFuture(null));
+        lockService.lock("1234567890");
+        CompletableFuture<Void> waiter = CompletableFuture.runAsync(() -> {
+            lockService.lock("1234567890");
+            lockService.unlock("1234567890");
+        });
+        while (lockService.localUsers("1234567890") < 2) {
+            Thread.onSpinWait();
+        }
+
+        // when
+        lockService.unlock("1234567890");
+        waiter.get(1, TimeUnit.SECONDS);
+
+        // then
+        verify(rLock, times(1)).tryLockAsync(anyLong(), anyLong(), any(TimeUnit.class), anyLong());
+        verify(rLock, times(1)).unlockAsync(anyLong());
+        assertThat(meterRegistry.get("account.lock.redis.handoffs").counter().count()).isEqualTo(1);
+        assertThat(lockService.localUsers("1234567890")).isZero();
+    }
+
+    @Test
+    @DisplayName("비동기 Redis 락 획득 후 같은 소유자로 해제 테스트")
+    void lockAsyncTest() throws Exception {
+        // given
+        LockService lockService = new LockService(redissonClient, hotAccountTracker, meterRegistry, new AccountExceptionFactory(true), "distributed");
+        given(redissonClient.getLock(anyString())).willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(TimeUnit.class), anyLong()))
+                .willReturn(RedissonPromise.newSucceededFuture(true));
+        given(rLock.unlockAsync(anyLong())).willReturn(RedissonPromise.newSucceededFuture(null));
+
+        // when
+        LockService.AsyncLock lock = lockService.lockAsync("1234567890").get(1, TimeUnit.SECONDS);
+        lockService.unlockAsync(lock);
+
+        // then
+        ArgumentCaptor<Long> ownerId = ArgumentCaptor.forClass(Long.class);
+        verify(rLock).tryLockAsync(anyLong(), anyLong(), any(TimeUnit.class), ownerId.capture());
+        verify(rLock).unlockAsync(ownerId.getValue());
+        assertThat(ownerId.getValue()).isNotEqualTo(Thread.currentThread().getId());
+        assertThat(meterRegistry.get("account.lock.wait").tag("result", "acquired").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("account.lock.hold").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("비동기 Redis 락 획득 실패 테스트")
+    void lockAsyncFailTest() {
+        // given
+        LockService lockService = new LockService(redissonClient, hotAccountTracker, meterRegistry, new AccountExceptionFactory(true), "distributed");
+        given(redissonClient.getLock(anyString())).willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(TimeUnit.class), anyLong()))
+                .willReturn(RedissonPromise.newSucceededFuture(false));
+
+        // when
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> lockService.lockAsync("1234567890").get(1, TimeUnit.SECONDS));
+
+        // then
+        assertThat(((AccountException) exception.getCause()).getErrorCode()).isEqualTo(ACCOUNT_TRANSACTION_LOCK);
+        assertThat(meterRegistry.get("account.lock.failures").tag("reason", "timeout").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("local-only 모드에서 같은 계좌 동시 락 실패 테스트")
+    void lockLocalOnlyTest() throws Exception {
+        // given
+        LockService lockService = new LockService(redissonClient, hotAccountTracker, meterRegistry, new AccountExceptionFactory(true), "local-only");
+        lockService.lock("1234567890");
+
+        // when
+        AccountException accountException = CompletableFuture.supplyAsync(() ->
+                assertThrows(AccountException.class, () -> lockService.lock("1234567890"))
+        ).get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(accountException.getErrorCode()).isEqualTo(ACCOUNT_TRANSACTION_LOCK);
+        lockService.unlock("1234567890");
+        verifyNoInteractions(redissonClient);
+    }
+
+    @Test
+    @DisplayName("다른 계좌는 로컬 락을 공유하지 않는다")
+    void lockLocalPerAccountTest() throws Exception {
+        // given
+        LockService lockService = new LockService(redissonClient, hotAccountTracker, meterRegistry, new AccountExceptionFactory(true), "local-only");
+        lockService.lock("1234567890");
+
+        // when
+        CompletableFuture.runAsync(() -> {
+            lockService.lock("1234567891");
+            lockService.unlock("1234567891");
+        }).get(1, TimeUnit.SECONDS);
+
+        // then
+        lockService.unlock("1234567890");
+        assertThat(meterRegistry.get("account.lock.failures").tag("reason", "timeout").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("락 획득 시 JFR 이벤트 기록 테스트")
+    void lockJfrEventTest() {
+        // given
+        LockService lockService = new LockService(redissonClient, hotAccountTracker, meterRegistry, new AccountExceptionFactory(true), "local-only");
+
+        // when
+        List<RecordedEvent> events = JfrEvents.record("com.example.accountservice.AccountLock", () -> {
+            lockService.lock("1234567890");
+            lockService.unlock("1234567890");
+        });
+
+        // then
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getString("accountNumber")).isEqualTo("1234567890");
+        assertThat(events.get(0).getBoolean("acquired")).isTrue();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.dto.TransactionExport;
+import com.example.accountservice.dto.TransactionExportDto;
+import com.example.accountservice.exception.AccountException;
+import com.example.accountservice.exception.AccountExceptionFactory;
+import com.example.accountservice.policy.TransactionIdGenerator;
+import com.example.accountservice.repository.TransactionRepository;
+import com.example.accountservice.shard.ShardRouter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static com.example.accountservice.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static com.example.accountservice.type.TransactionResultType.FAIL;
+import static com.example.accountservice.type.TransactionResultType.SUCCESS;
+import static com.example.accountservice.type.TransactionType.CANCEL;
+import static com.example.accountservice.type.TransactionType.USE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    private static final LocalDateTime TRANSACTED_AT = LocalDateTime.of(2022, 9, 1, 10, 30);
+
+    @Mock
+    TransactionRepository transactionRepository;
+
+    @Mock
+    AccountLookupCache accountLookupCache;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    TransactionIdGenerator transactionIdGenerator;
+
+    TransactionExportService transactionExportService;
+
+    @BeforeEach
+    void setUp() {
+        AccountExceptionFactory accountExceptionFactory = new AccountExceptionFactory(true);
+        ShardRouter shardRouter = new ShardRouter(transactionIdGenerator, null, transactionManager,
+                accountExceptionFactory, false, new String[0], 6, 5000L);
+        transactionExportService = new TransactionExportService(transactionRepository, accountLookupCache,
+                shardRouter, new ObjectMapper(), transactionManager, accountExceptionFactory, 100, Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("NDJSON 으로 한 줄에 한 거래씩 기록한다")
+    void writeNdjsonTest() throws Exception {
+        // given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // when
+        long written = transactionExportService.write(rows(), request(TransactionExport.Format.NDJSON, false), outputStream);
+
+        // then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(written).isEqualTo(2);
+        assertThat(lines).hasSize(2).allMatch(line -> line.startsWith("{"));
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertThat(first.get("transactionId").asText()).isEqualTo("0000000001");
+        assertThat(first.get("transactionResult").asText()).isEqualTo("SUCCESS");
+        assertThat(first.get("balanceSnapshot").asLong()).isEqualTo(9000L);
+        assertThat(first.get("transactedAt").asText()).isEqualTo("2022-09-01T10:30");
+        assertThat(new ObjectMapper().readTree(lines[1]).get("balanceSnapshot").isNull()).isTrue();
+    }
+
+    @Test
+    @DisplayName("CSV 는 헤더와 함께 gzip 으로 압축해 기록한다")
+    void writeGzipCsvTest() throws Exception {
+        // given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // when
+        transactionExportService.write(rows(), request(TransactionExport.Format.CSV, true), outputStream);
+
+        // then
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(outputStream.toByteArray()))
+                .readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(csv.split("\n")).containsExactly(
+                "transactionId,accountNumber,transactionType,transactionResult,amount,balanceSnapshot,transactedAt",
+                "0000000001,1000000000,USE,SUCCESS,1000,9000,2022-09-01T10:30",
+                "0000000002,1000000000,CANCEL,FAIL,1000,,2022-09-01T10:30");
+    }
+
+    @Test
+    @DisplayName("없는 계좌는 응답을 시작하기 전에 실패한다")
+    void exportAccountNotFoundTest() {
+        // given
+        given(accountLookupCache.findAccount(anyString()))
+                .willReturn(Optional.empty());
+        TransactionExport.Request request = request(TransactionExport.Format.NDJSON, false);
+        request.setAccountNumber("1000000000");
+
+        // when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> transactionExportService.export(request));
+
+        // then
+        assertThat(accountException.getErrorCode()).isEqualTo(ACCOUNT_NOT_FOUND);
+    }
+
+    private static Stream<TransactionExportDto> rows() {
+        return Stream.of(
+                new TransactionExportDto("0000000001", "1000000000", USE, SUCCESS, 1000L, 9000L, TRANSACTED_AT),
+                new TransactionExportDto("0000000002", "1000000000", CANCEL, FAIL, 1000L, null, TRANSACTED_AT));
+    }
+
+    private static TransactionExport.Request request(TransactionExport.Format format, boolean gzip) {
+        TransactionExport.Request request = new TransactionExport.Request();
+        request.setFormat(format);
+        request.setGzip(gzip);
+        return request;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.dto.TransactionDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static com.example.accountservice.type.TransactionResultType.FAIL;
+import static com.example.accountservice.type.TransactionResultType.SUCCESS;
+import static com.example.accountservice.type.TransactionType.CANCEL;
+import static com.example.accountservice.type.TransactionType.USE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionLookupStoreTest {
+
+    @Test
+    @DisplayName("저장한 거래를 그대로 조회한다")
+    void putAndFindTest() {
+        // given
+        TransactionLookupStore store = new TransactionLookupStore(1024);
+        LocalDateTime transactedAt = LocalDateTime.of(2022, 9, 1, 10, 30, 15, 123_456_789);
+        store.put(transaction("2vgzeefwAq", 9000L, transactedAt));
+
+        // when
+        Optional<TransactionDto> found = store.find("2vgzeefwAq");
+
+        // then
+        assertThat(found).isPresent();
+        TransactionDto transactionDto = found.get();
+        assertThat(transactionDto.getAccountNumber()).isEqualTo("1000000000");
+        assertThat(transactionDto.getTransactionType()).isEqualTo(CANCEL);
+        assertThat(transactionDto.getTransactionResultType()).isEqualTo(SUCCESS);
+        assertThat(transactionDto.getAmount()).isEqualTo(1000L);
+        assertThat(transactionDto.getBalanceSnapshot()).isEqualTo(9000L);
+        assertThat(transactionDto.getTransactionId()).isEqualTo("2vgzeefwAq");
+        assertThat(transactionDto.getTransactedAt()).isEqualTo(transactedAt);
+        assertThat(store.find("2vgzeefwAr")).isEmpty();
+        assertThat(store.getHitCount()).isEqualTo(1);
+        assertThat(store.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("잔액 스냅샷이 없는 실패 거래도 저장한다")
+    void putWithoutBalanceSnapshotTest() {
+        // given
+        TransactionLookupStore store = new TransactionLookupStore(1024);
+        store.put(TransactionDto.builder()
+                .accountNumber("1000000000")
+                .transactionType(USE)
+                .transactionResultType(FAIL)
+                .amount(1000L)
+                .transactionId("0000000001")
+                .transactedAt(LocalDateTime.now())
+                .build());
+
+        // when
+        TransactionDto transactionDto = store.find("0000000001").get();
+
+        // then
+        assertThat(transactionDto.getTransactionResultType()).isEqualTo(FAIL);
+        assertThat(transactionDto.getBalanceSnapshot()).isNull();
+    }
+
+    @Test
+    @DisplayName("용량을 넘으면 먼저 들어온 거래부터 밀려난다")
+    void evictionTest() {
+        // given
+        TransactionLookupStore store = new TransactionLookupStore(4);
+        LocalDateTime transactedAt = LocalDateTime.now();
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            store.put(transaction(String.format("%010d", i), 1000L, transactedAt));
+        }
+
+        // then
+        assertThat(store.find("0000000000")).isEmpty();
+        for (int i = 1; i < 5; i++) {
+            assertThat(store.find(String.format("%010d", i))).isPresent();
+        }
+        assertThat(store.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("적중, 미스, 밀려난 건수를 메트릭으로 내보낸다")
+    void lookupStoreMetricsTest() {
+        // given
+        TransactionLookupStore store = new TransactionLookupStore(4);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        store.bindTo(registry);
+        LocalDateTime transactedAt = LocalDateTime.now();
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            store.put(transaction(String.format("%010d", i), 1000L, transactedAt));
+        }
+        store.find("0000000004");
+        store.find("0000000000");
+
+        // then
+        assertThat(registry.get("transaction.lookup-store").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("transaction.lookup-store").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("transaction.lookup-store").tag("result", "eviction").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("10자리가 아닌 거래 id 는 저장하지 않는다")
+    void ignoreNonFixedLengthIdTest() {
+        // given
+        TransactionLookupStore store = new TransactionLookupStore(1024);
+
+        // when
+        store.put(transaction("transactionId", 1000L, LocalDateTime.now()));
+
+        // then
+        assertThat(store.find("transactionId")).isEmpty();
+    }
+
+    private static TransactionDto transaction(String transactionId, Long balanceSnapshot, LocalDateTime transactedAt) {
+        return TransactionDto.builder()
+                .accountNumber("1000000000")
+                .transactionType(CANCEL)
+                .transactionResultType(SUCCESS)
+                .amount(1000L)
+                .balanceSnapshot(balanceSnapshot)
+                .transactionId(transactionId)
+                .transactedAt(transactedAt)
+                .build();
+    }
+}
@@ -1,27 +1,44 @@
 package com.example.accountservice.service;
 
+import com.example.accountservice.datasource.ReadAfterWriteGuard;
 import com.example.accountservice.domain.Account;
 import com.example.accountservice.domain.AccountUser;
 import com.example.accountservice.domain.Transaction;
+import com.example.accountservice.dto.BatchBalance;
+import com.example.accountservice.dto.BatchTransactionDto;
 import com.example.accountservice.dto.TransactionDto;
 import com.example.accountservice.exception.AccountException;
+import com.example.accountservice.exception.AccountExceptionFactory;
+import com.example.accountservice.policy.AccountPolicy;
 import com.example.accountservice.policy.TransactionIdGenerator;
+import com.example.accountservice.repository.AccountBalanceProjection;
 import com.example.accountservice.repository.AccountRepository;
-import com.example.accountservice.repository.AccountUserRepository;
+import com.example.accountservice.repository.BalanceRepository;
 import com.example.accountservice.repository.TransactionRepository;
+import com.example.accountservice.shard.ShardRouter;
+import com.example.accountservice.support.JfrEvents;
 import com.example.accountservice.type.AccountStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import static com.example.accountservice.type.ErrorCode.*;
+import static com.example.accountservice.type.TransactionResultType.FAIL;
 import static com.example.accountservice.type.TransactionResultType.SUCCESS;
 import static com.example.accountservice.type.TransactionType.CANCEL;
 import static com.example.accountservice.type.TransactionType.USE;
@@ -29,6 +46,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -36,17 +54,38 @@ import static org.mockito.Mockito.verify;
 class TransactionServiceTest {
 
     @Mock
-    AccountUserRepository accountUserRepository;
+    AccountLookupCache accountLookupCache;
 
     @Mock
     AccountRepository accountRepository;
 
+    @Mock
+    BalanceRepository balanceRepository;
+
     @Mock
     TransactionRepository transactionRepository;
 
     @Mock
     TransactionIdGenerator transactionIdGenerator;
 
+    @Mock
+    TransactionLookupStore transactionLookupStore;
+
+    @Mock
+    ReadAfterWriteGuard readAfterWriteGuard;
+
+    @Mock
+    ShardRouter shardRouter;
+
+    @Spy
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    AccountExceptionFactory accountExceptionFactory = new AccountExceptionFactory(true);
+
+    @Spy
+    AccountPolicy accountPolicy = new AccountPolicy(accountExceptionFactory);
+
     @InjectMocks
     TransactionService transactionService;
 
@@ -54,7 +93,7 @@ class TransactionServiceTest {
     @DisplayName("거래 시 사용자 없을 경우 테스트")
     void transactionUseBalanceUserNotFoundTest() {
         // given
-        given(accountUserRepository.findById(anyLong()))
+        given(accountLookupCache.findAccountUser(anyLong()))
                 .willReturn(Optional.empty());
         // when
         AccountException accountException = assertThrows(AccountException.class,
@@ -67,7 +106,7 @@ class TransactionServiceTest {
     @DisplayName("거래 시 계좌가 없을 경우 테스트")
     void transactionUseBalanceAccountNotFoundTest() {
         // given
-        given(accountUserRepository.findById(anyLong()))
+        given(accountLookupCache.findAccountUser(anyLong()))
                 .willReturn(Optional.of(AccountUser.builder().build()));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.empty());
@@ -95,7 +134,7 @@ class TransactionServiceTest {
                 .registeredAt(LocalDateTime.now())
                 .build();
         // given
-        given(accountUserRepository.findById(anyLong()))
+        given(accountLookupCache.findAccountUser(anyLong()))
                 .willReturn(Optional.of(accountUser));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
@@ -109,6 +148,28 @@ class TransactionServiceTest {
         assertThat(accountException.getErrorCode()).isEqualTo(USER_ACCOUNT_NOT_MATCHED);
     }
 
+    @Test
+    @DisplayName("캐시된 계좌가 해지 상태이면 계좌를 조회하지 않고 거절한다")
+    void transactionUseBalanceCachedAccountUnRegisteredTest() {
+        // given
+        AccountUser accountUser = AccountUser.builder()
+                .id(1L)
+                .name("TEST")
+                .build();
+        given(accountLookupCache.findAccountUser(anyLong()))
+                .willReturn(Optional.of(accountUser));
+        given(accountLookupCache.findAccount(anyString()))
+                .willReturn(Optional.of(new AccountLookupCache.CachedAccount(10L, 1L, AccountStatus.UNREGISTERED)));
+
+        // when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(1L, "1231231231", 1L));
+
+        // then
+        assertThat(accountException.getErrorCode()).isEqualTo(ACCOUNT_ALREADY_UNREGISTERED);
+        verify(accountRepository, never()).findByAccountNumber(anyString());
+    }
+
     @Test
     @DisplayName("계좌가 이미 해지 상태인 경우 테스트")
     void transactionUseBalanceAccountStatusUnRegisteredTest() {
@@ -126,7 +187,7 @@ class TransactionServiceTest {
                 .registeredAt(LocalDateTime.now())
                 .build();
         // given
-        given(accountUserRepository.findById(anyLong()))
+        given(accountLookupCache.findAccountUser(anyLong()))
                 .willReturn(Optional.of(accountUser));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
@@ -157,7 +218,7 @@ class TransactionServiceTest {
                 .registeredAt(LocalDateTime.now())
                 .build();
         // given
-        given(accountUserRepository.findById(anyLong()))
+        given(accountLookupCache.findAccountUser(anyLong()))
                 .willReturn(Optional.of(accountUser));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
@@ -171,6 +232,77 @@ class TransactionServiceTest {
         assertThat(accountException.getErrorCode()).isEqualTo(AMOUNT_EXCEED_BALANCE);
     }
 
+    @Test
+    @DisplayName("조건부 차감 성공 시 검증 조회 없이 거래 저장 테스트")
+    @SuppressWarnings("unchecked")
+    void transactionUseBalanceConditionalDebitSuccessTest() {
+        // given
+        AccountBalanceProjection debited = new AccountBalanceProjection() {
+            @Override
+            public Long getId() {
+                return 1L;
+            }
+
+            @Override
+            public Long getBalance() {
+                return 4000L;
+            }
+        };
+        given(balanceRepository.debitBalance(anyString(), anyLong(), anyLong()))
+                .willReturn(Optional.of(debited));
+        given(transactionIdGenerator.generate())
+                .willReturn("transactio");
+
+        ArgumentCaptor<List<TransactionDto>> captor = ArgumentCaptor.forClass(List.class);
+
+        // when
+        TransactionDto transactionDto = transactionService.useBalance(1L, "1234567890", 1000L);
+
+        // then
+        verify(balanceRepository, times(1)).insertTransactions(eq(1L), captor.capture());
+        verify(accountLookupCache, never()).findAccountUser(anyLong());
+        verify(accountRepository, never()).findByAccountNumber(anyString());
+        assertThat(captor.getValue()).hasSize(1);
+        assertThat(captor.getValue().get(0).getTransactionType()).isEqualTo(USE);
+        assertThat(captor.getValue().get(0).getBalanceSnapshot()).isEqualTo(4000L);
+        assertThat(transactionDto.getAccountNumber()).isEqualTo("1234567890");
+        assertThat(transactionDto.getTransactionResultType()).isEqualTo(SUCCESS);
+        assertThat(transactionDto.getAmount()).isEqualTo(1000L);
+        assertThat(meterRegistry.get("transaction.phase").tag("operation", "use").timers())
+                .extracting(timer -> timer.getId().getTag("phase"))
+                .containsExactlyInAnyOrder("debit", "persist");
+    }
+
+    @Test
+    @DisplayName("잔액 사용 시 단계별 시간과 기록 행 수를 JFR 이벤트로 남긴다")
+    void transactionUseBalanceJfrEventTest() {
+        // given
+        AccountBalanceProjection debited = new AccountBalanceProjection() {
+            @Override
+            public Long getId() {
+                return 1L;
+            }
+
+            @Override
+            public Long getBalance() {
+                return 4000L;
+            }
+        };
+        given(balanceRepository.debitBalance(anyString(), anyLong(), anyLong()))
+                .willReturn(Optional.of(debited));
+
+        // when
+        List<RecordedEvent> events = JfrEvents.record("com.example.accountservice.BalanceTransaction",
+                () -> transactionService.useBalance(1L, "1234567890", 1000L));
+
+        // then
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getString("operation")).isEqualTo("use");
+        assertThat(events.get(0).getString("accountNumber")).isEqualTo("1234567890");
+        assertThat(events.get(0).getInt("rowsWritten")).isEqualTo(2);
+        assertThat(events.get(0).getDuration("debitNanos")).isPositive();
+    }
+
     @Test
     @DisplayName("거래 아이디에 해당하는 거래가 없는 경우")
     void transactionCancelBalanceTransactionIdNotFoundTest() {
@@ -282,7 +414,7 @@ class TransactionServiceTest {
                         .build()));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
-        given(transactionRepository.save(any()))
+        given(transactionRepository.saveAndFlush(any()))
                 .willReturn(Transaction.builder()
                         .account(account)
                         .transactionType(CANCEL)
@@ -300,16 +432,64 @@ class TransactionServiceTest {
         TransactionDto transactionDto = transactionService.cancelBalance("transactionId", "1000000000", 5000L);
 
         // then
-        verify(transactionRepository, times(1)).save(captor.capture());
+        verify(transactionRepository, times(1)).saveAndFlush(captor.capture());
         assertThat(captor.getValue().getTransactionType()).isEqualTo(CANCEL);
         assertThat(captor.getValue().getAmount()).isEqualTo(5000L);
     }
 
+    @Test
+    @DisplayName("배치 거래 시 항목별 결과 및 원장 일괄 저장 테스트")
+    @SuppressWarnings("unchecked")
+    void applyBatchTest() {
+        // given
+        AccountUser accountUser = AccountUser.builder()
+                .id(1L)
+                .name("TEST")
+                .build();
+        Account account = Account.builder()
+                .accountUser(accountUser)
+                .accountNumber("1234567890")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .registeredAt(LocalDateTime.now())
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.findAllByTransactionIdIn(anyCollection()))
+                .willReturn(List.of(Transaction.builder()
+                        .account(account)
+                        .transactionId("used000001")
+                        .amount(3000L)
+                        .transactedAt(LocalDateTime.now())
+                        .build()));
+        given(transactionIdGenerator.generate())
+                .willReturn("transactio");
+
+        SortedMap<Integer, BatchBalance.Item> items = new TreeMap<>(Map.of(
+                0, new BatchBalance.Item(USE, 1L, null, "1234567890", 8000L),
+                1, new BatchBalance.Item(USE, 1L, null, "1234567890", 5000L),
+                2, new BatchBalance.Item(CANCEL, null, "used000001", "1234567890", 3000L)
+        ));
+        ArgumentCaptor<List<TransactionDto>> captor = ArgumentCaptor.forClass(List.class);
+
+        // when
+        List<BatchTransactionDto> results = transactionService.applyBatch("1234567890", items);
+
+        // then
+        verify(balanceRepository, times(1)).insertTransactions(any(), captor.capture());
+        assertThat(captor.getValue()).hasSize(3);
+        assertThat(results.get(0).getTransactionResultType()).isEqualTo(SUCCESS);
+        assertThat(results.get(1).getTransactionResultType()).isEqualTo(FAIL);
+        assertThat(results.get(1).getErrorCode()).isEqualTo(AMOUNT_EXCEED_BALANCE);
+        assertThat(results.get(2).getTransactionResultType()).isEqualTo(SUCCESS);
+        assertThat(account.getBalance()).isEqualTo(5000L);
+    }
+
     @Test
     @DisplayName("거래 조회 시 거래 없을 경우 테스트")
     void getTransactionNotFoundTest() {
         // given
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(balanceRepository.findByTransactionId(anyString()))
                 .willReturn(Optional.empty());
 
         // when
@@ -333,8 +513,8 @@ class TransactionServiceTest {
                 .registeredAt(LocalDateTime.now())
                 .build();
 
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(Transaction.builder()
+        given(balanceRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(TransactionDto.toResponse(Transaction.builder()
                         .transactionId("transactionId")
                         .transactedAt(LocalDateTime.now())
                         .balanceSnapshot(500L)
@@ -342,7 +522,7 @@ class TransactionServiceTest {
                         .transactionResultType(SUCCESS)
                         .amount(1000L)
                         .account(account)
-                        .build()));
+                        .build())));
 
         // when
         TransactionDto transaction = transactionService.getTransaction("transactionId");
@@ -0,0 +1,188 @@
+package com.example.accountservice.shard;
+
+import com.example.accountservice.dto.AccountDto;
+import com.example.accountservice.dto.TransactionDto;
+import com.example.accountservice.exception.AccountExceptionFactory;
+import com.example.accountservice.policy.TransactionIdGenerator;
+import com.example.accountservice.service.AccountService;
+import com.example.accountservice.service.TransactionService;
+import com.example.accountservice.type.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2 메모리 DB 세 개를 샤드로 두고 계좌 생성, 잔액 사용/취소, 조회와 슬롯 이동을 확인한다.
+ */
+@SpringBootTest(properties = {
+        "account.shard.enabled=true",
+        "account.shard.urls=jdbc:h2:mem:test-shard0;DB_CLOSE_ON_EXIT=FALSE,"
+                + "jdbc:h2:mem:test-shard1;DB_CLOSE_ON_EXIT=FALSE,"
+                + "jdbc:h2:mem:test-shard2;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.redis.port=6396"
+})
+class ShardingTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    @Autowired
+    private ReshardingService reshardingService;
+
+    @Autowired
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AccountExceptionFactory accountExceptionFactory;
+
+    @Test
+    @DisplayName("계좌는 계좌번호로 정한 샤드에만 저장되고, 전체 조회는 모든 샤드를 모은다")
+    void accountsSpreadAcrossShardsTest() {
+        // given
+        List<String> accountNumbers = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 8; i++) {
+            accountNumbers.add(accountService.createAccount(1L, 1000L).getAccountNumber());
+        }
+        List<AccountDto> accounts = accountService.findAllAccount(1L);
+
+        // then
+        for (String accountNumber : accountNumbers) {
+            int shard = shardRouter.shardOf(accountNumber);
+            for (int other = 0; other < shardRouter.getShardCount(); other++) {
+                assertThat(countAccounts(other, accountNumber)).isEqualTo(other == shard ? 1 : 0);
+            }
+        }
+        assertThat(accountNumbers.stream().map(shardRouter::shardOf).distinct().count()).isGreaterThan(1);
+        assertThat(accounts.stream().map(AccountDto::getAccountNumber).collect(Collectors.toList()))
+                .containsExactlyElementsOf(accountNumbers.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("슬롯을 옮긴 뒤에도 기존 거래 조회와 취소, 새 사용이 이어진다")
+    void moveSlotTest() {
+        // given
+        String accountNumber = accountService.createAccount(2L, 10000L).getAccountNumber();
+        TransactionDto used = transactionService.useBalance(2L, accountNumber, 1000L);
+        int slot = shardRouter.slotOf(accountNumber);
+        int source = shardRouter.shardOf(accountNumber);
+        int target = (source + 1) % shardRouter.getShardCount();
+
+        // when
+        ReshardingService.MoveResult result = reshardingService.moveSlot(slot, target);
+
+        // then
+        assertThat(result.getAccounts()).isGreaterThanOrEqualTo(1);
+        assertThat(result.getTransactions()).isGreaterThanOrEqualTo(1);
+        assertThat(shardRouter.shardOf(accountNumber)).isEqualTo(target);
+        assertThat(countAccounts(source, accountNumber)).isZero();
+        assertThat(countAccounts(target, accountNumber)).isEqualTo(1);
+
+        assertThat(transactionService.getTransaction(used.getTransactionId()).getAmount()).isEqualTo(1000L);
+        TransactionDto canceled = transactionService.cancelBalance(used.getTransactionId(), accountNumber, 1000L);
+        TransactionDto usedAgain = transactionService.useBalance(2L, accountNumber, 3000L);
+        assertThat(canceled.getTransactionType()).isEqualTo(TransactionType.CANCEL);
+        assertThat(canceled.getBalanceSnapshot()).isEqualTo(10000L);
+        assertThat(usedAgain.getBalanceSnapshot()).isEqualTo(7000L);
+        assertThat(transactionService.getTransaction(usedAgain.getTransactionId()).getAccountNumber())
+                .isEqualTo(accountNumber);
+        assertThat(accountService.findAllAccount(2L)).extracting(AccountDto::getAccountNumber)
+                .containsOnlyOnce(accountNumber);
+    }
+
+    @Test
+    @DisplayName("옮긴 슬롯은 Redis 디렉터리에 남아 새로 뜬 인스턴스도 같은 샤드로 보낸다")
+    void movedSlotSurvivesRestartTest() {
+        // given
+        String accountNumber = accountService.createAccount(2L, 1000L).getAccountNumber();
+        int slot = shardRouter.slotOf(accountNumber);
+        int target = (shardRouter.shardOf(accountNumber) + 1) % shardRouter.getShardCount();
+        reshardingService.moveSlot(slot, target);
+
+        // when
+        ShardRouter restarted = new ShardRouter(transactionIdGenerator, redissonClient, transactionManager,
+                accountExceptionFactory, true, new String[shardRouter.getShardCount()], 6, 5000L);
+        restarted.loadDirectory();
+
+        // then
+        try {
+            assertThat(restarted.shardOfSlot(slot)).isEqualTo(target);
+            assertThat(restarted.slots()).isEqualTo(shardRouter.slots());
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("다시 시작할 때 스키마가 있는 샤드는 지우지 않아 옮겨 온 슬롯이 남는다")
+    void schemaInitializerKeepsExistingShardTest() {
+        // given
+        String accountNumber = accountService.createAccount(2L, 1000L).getAccountNumber();
+        int target = shardRouter.shardOf(accountNumber) == 1 ? 2 : 1;
+        reshardingService.moveSlot(shardRouter.slotOf(accountNumber), target);
+
+        // when
+        new ShardSchemaInitializer(shardDataSources).afterSingletonsInstantiated();
+
+        // then
+        assertThat(countAccounts(target, accountNumber)).isEqualTo(1);
+        assertThat(accountService.findAllAccount(2L)).extracting(AccountDto::getAccountNumber)
+                .containsOnlyOnce(accountNumber);
+    }
+
+    @Test
+    @DisplayName("옮긴 뒤 원본에 남은 행은 정리 대상으로 남았다가 다음 리샤딩 전에 지워진다")
+    void cleanupPendingTest() {
+        // given
+        String accountNumber = accountService.createAccount(2L, 1000L).getAccountNumber();
+        int slot = shardRouter.slotOf(accountNumber);
+        int source = shardRouter.shardOf(accountNumber);
+        int target = (source + 1) % shardRouter.getShardCount();
+        reshardingService.moveSlot(slot, target);
+        JdbcTemplate sourceJdbc = new JdbcTemplate(shardDataSources.get(source));
+        JdbcTemplate targetJdbc = new JdbcTemplate(shardDataSources.get(target));
+        TableCopier.copy(targetJdbc, sourceJdbc, "account", "where account_number = ?", accountNumber);
+        shardRouter.markCleanup(slot, source);
+
+        // when
+        reshardingService.cleanupPending();
+
+        // then
+        assertThat(countAccounts(source, accountNumber)).isZero();
+        assertThat(countAccounts(target, accountNumber)).isEqualTo(1);
+        assertThat(shardRouter.pendingCleanups()).isEmpty();
+        assertThat(accountService.findAllAccount(2L)).extracting(AccountDto::getAccountNumber)
+                .containsOnlyOnce(accountNumber);
+    }
+
+    private long countAccounts(int shard, String accountNumber) {
+        return new JdbcTemplate(shardDataSources.get(shard)).queryForObject(
+                "select count(*) from account where account_number = ?", Long.class, accountNumber);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.accountservice.support;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * 지정한 이벤트만 켠 JFR 기록을 남기고 기록된 이벤트를 돌려준다.
+ */
+public final class JfrEvents {
+
+    private JfrEvents() {
+    }
+
+    public static List<RecordedEvent> record(String eventName, Runnable action) {
+        try (Recording recording = new Recording()) {
+            recording.enable(eventName).withoutThreshold();
+            recording.start();
+            action.run();
+            recording.stop();
+
+            Path file = Files.createTempFile("account-service", ".jfr");
+            try {
+                recording.dump(file);
+                return RecordingFile.readAllEvents(file);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.accountservice.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * DataSource 가 실행하는 SQL 을 기록한다. Hibernate 뿐 아니라 JdbcTemplate 으로 나가는 SQL 도 센다.
+ * 테스트 컨텍스트에 @Import 로 등록하면 DataSource 빈을 감싸고, 시퀀스 조회는 세지 않는다.
+ * PreparedStatement 는 실행할 때마다 한 번 세므로 JDBC 배치는 한 건이다.
+ */
+public class SqlStatementCounter implements BeanPostProcessor {
+
+    private static final Queue<String> STATEMENTS = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource) {
+            return new CountingDataSource((DataSource) bean);
+        }
+        return bean;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> statements() {
+        return new ArrayList<>(STATEMENTS);
+    }
+
+    public static long count(String keyword) {
+        String prefix = keyword.toLowerCase(Locale.ROOT) + " ";
+        return STATEMENTS.stream()
+                .filter(sql -> sql.trim().toLowerCase(Locale.ROOT).startsWith(prefix))
+                .count();
+    }
+
+    private static void record(String sql) {
+        String normalized = sql.trim().toLowerCase(Locale.ROOT);
+        if (!normalized.startsWith("call next value for") && !normalized.startsWith("select next value for")) {
+            STATEMENTS.add(sql);
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[]{type},
+                handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class CountingDataSource extends DelegatingDataSource {
+
+        private CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return countingConnection(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return countingConnection(super.getConnection(username, password));
+        }
+    }
+
+    private static Connection countingConnection(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return countingStatement(PreparedStatement.class, (Statement) result, (String) args[0]);
+                case "prepareCall":
+                    return countingStatement(CallableStatement.class, (Statement) result, (String) args[0]);
+                case "createStatement":
+                    return countingStatement(Statement.class, (Statement) result, null);
+                default:
+                    return result;
+            }
+        });
+    }
+
+    private static <T extends Statement> T countingStatement(Class<T> type, Statement statement, String preparedSql) {
+        return proxy(type, (proxy, method, args) -> {
+            String name = method.getName();
+            if (args != null && args.length > 0 && args[0] instanceof String
+                    && (name.startsWith("execute") || name.equals("addBatch"))) {
+                record((String) args[0]);
+            } else if (preparedSql != null && name.startsWith("execute")) {
+                record(preparedSql);
+            }
+            return invoke(statement, method, args);
+        });
+    }
+}